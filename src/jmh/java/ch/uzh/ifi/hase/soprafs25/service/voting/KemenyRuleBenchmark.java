@@ -0,0 +1,42 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scoring time of Kemeny-Young at the largest pool it solves exactly (MAX_EXACT_CANDIDATES, O(2^n * n^2))
+ * and at the smallest pool it approximates (one more candidate), to check where the switch is made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KemenyRuleBenchmark {
+
+    // 0: solved exactly, 1: approximated
+    @Param({"0", "1"})
+    private int aboveExactLimit;
+
+    @Param({"200", "800"})
+    private int voters;
+
+    private final KemenyRule rule = new KemenyRule();
+    private Ballots ballots;
+
+    @Setup
+    public void setUp() {
+        ballots = VotingRuleBenchmark.randomBallots(voters, KemenyRule.MAX_EXACT_CANDIDATES + aboveExactLimit, 5, 42);
+    }
+
+    @Benchmark
+    public double[] score() {
+        return rule.score(ballots);
+    }
+}
@@ -0,0 +1,65 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+/**
+ * Scoring time of each voting rule for large groups: hundreds of members ranking 5 movies each
+ * out of a pool of hundreds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VotingRuleBenchmark {
+
+    @Param({"BORDA", "SCHULZE", "INSTANT_RUNOFF", "KEMENY"})
+    private Group.VotingMethod method;
+
+    @Param({"200", "800"})
+    private int voters;
+
+    @Param({"100", "400"})
+    private int candidates;
+
+    private VotingRule rule;
+    private Ballots ballots;
+
+    @Setup
+    public void setUp() {
+        rule = VotingRules.forMethod(method);
+        ballots = randomBallots(voters, candidates, 5, 42);
+    }
+
+    @Benchmark
+    public double[] score() {
+        return rule.score(ballots);
+    }
+
+    // ballots of distinct random candidates, the same for the same seed
+    static Ballots randomBallots(int voters, int candidates, int ballotLength, long seed) {
+        Random random = new Random(seed);
+        int length = Math.min(ballotLength, candidates);
+        Ballots.Builder builder = Ballots.builder(candidates);
+        for (int voter = 0; voter < voters; voter++) {
+            Set<Integer> ballot = new LinkedHashSet<>();
+            while (ballot.size() < length) {
+                ballot.add(random.nextInt(candidates));
+            }
+            builder.addBallot(ballot.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return builder.build();
+    }
+}
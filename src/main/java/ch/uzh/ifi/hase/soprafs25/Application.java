@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import ch.uzh.ifi.hase.soprafs25.controller.KeysetPageResponse;
+
 @RestController
 @SpringBootApplication
 @EnableScheduling
@@ -32,7 +34,8 @@ public class Application {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
-                registry.addMapping("/**").allowedOrigins("*").allowedMethods("*");
+                registry.addMapping("/**").allowedOrigins("*").allowedMethods("*")
+                        .exposedHeaders(KeysetPageResponse.NEXT_CURSOR_HEADER);
             }
         };
     }
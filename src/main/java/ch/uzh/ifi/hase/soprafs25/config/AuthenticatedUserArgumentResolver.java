@@ -0,0 +1,39 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+import ch.uzh.ifi.hase.soprafs25.utils.AuthorizationUtil;
+
+/**
+ * Passes the principal authenticated by the TokenAuthenticationFilter to controller method parameters
+ * of type AuthenticatedUser. Fails with 401 if the request has no valid token.
+ */
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthenticatedUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object principal = webRequest.getAttribute(TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (principal == null) {
+            // same errors as before the filter: a missing or malformed header, or an unknown token
+            AuthorizationUtil.extractToken(webRequest.getHeader(HttpHeaders.AUTHORIZATION));
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+        return principal;
+    }
+}
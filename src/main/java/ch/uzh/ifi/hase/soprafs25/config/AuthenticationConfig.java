@@ -0,0 +1,33 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.util.List;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import ch.uzh.ifi.hase.soprafs25.service.UserService;
+
+@Configuration
+public class AuthenticationConfig {
+
+    @Bean
+    public FilterRegistrationBean<TokenAuthenticationFilter> tokenAuthenticationFilter(UserService userService) {
+        FilterRegistrationBean<TokenAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new TokenAuthenticationFilter(userService));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Bean
+    public WebMvcConfigurer authenticatedUserConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(new AuthenticatedUserArgumentResolver());
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+/**
+ * Region factory of the Hibernate second-level cache.
+ * The regions are Ehcache caches configured in ehcache.xml (size-bounded, with statistics exported as JCache
+ * MXBeans). Every session factory gets a cache manager of its own, named hibernate-cache-N: the default manager
+ * is shared by the whole JVM, so application contexts running side by side (e.g. in tests) would read each
+ * other's cached entities, and the first one shutting down would close the manager of all others.
+ */
+public class EhcacheRegionFactory extends JCacheRegionFactory {
+
+    private static final String CONFIGURATION = "/ehcache.xml";
+    private static final AtomicInteger MANAGERS = new AtomicInteger();
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map properties) {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        XmlConfiguration configuration =
+                new XmlConfiguration(EhcacheRegionFactory.class.getResource(CONFIGURATION),
+                        EhcacheRegionFactory.class.getClassLoader());
+        URI uri = URI.create("hibernate-cache-" + MANAGERS.incrementAndGet());
+        return provider.getCacheManager(uri, configuration);
+    }
+}
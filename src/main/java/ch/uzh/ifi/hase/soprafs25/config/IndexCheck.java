@@ -0,0 +1,114 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the indexes of IndexMigration and KeysetIndexMigration that are missing from the database once the application has
+ * started, e.g. because an index was dropped by hand or a migration failed part way.
+ * An index counts as present if any index of the table (whatever its name, including primary keys and
+ * unique constraints) starts with the required columns.
+ * With sopra.schema.index-check.fail-on-missing, a missing index stops the application instead.
+ */
+@Component
+public class IndexCheck {
+
+    private final Logger log = LoggerFactory.getLogger(IndexCheck.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean failOnMissing;
+
+    @Autowired
+    public IndexCheck(JdbcTemplate jdbcTemplate,
+                      @Value("${sopra.schema.index-check.fail-on-missing:false}") boolean failOnMissing) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failOnMissing = failOnMissing;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndexes() {
+        List<IndexDefinition> required = new ArrayList<>(IndexMigration.INDEXES);
+        required.addAll(KeysetIndexMigration.INDEXES);
+        List<IndexDefinition> missing = findMissingIndexes(required);
+        if (missing.isEmpty()) {
+            log.info("All {} required indexes are present.", required.size());
+            return;
+        }
+        for (IndexDefinition index : missing) {
+            log.warn("Missing index {}", index);
+        }
+        if (failOnMissing) {
+            throw new IllegalStateException(missing.size() + " required indexes are missing");
+        }
+    }
+
+    List<IndexDefinition> findMissingIndexes(Collection<IndexDefinition> required) {
+        List<IndexDefinition> missing = new ArrayList<>();
+        for (IndexDefinition index : required) {
+            if (!isCovered(index)) {
+                missing.add(index);
+            }
+        }
+        return missing;
+    }
+
+    private boolean isCovered(IndexDefinition required) {
+        for (List<String> columns : readIndexColumns(required.getTable()).values()) {
+            if (columns.size() >= required.getColumns().size()
+                    && columns.subList(0, required.getColumns().size()).equals(lowerCase(required.getColumns()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // index name -> columns of the index in order, in lower case
+    private Map<String, List<String>> readIndexColumns(String table) {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, List<String>>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<String>> indexes = new TreeMap<>();
+            // unquoted names are stored in upper case (H2) or lower case (PostgreSQL)
+            for (String name : new String[] {table.toUpperCase(), table.toLowerCase()}) {
+                try (ResultSet rows = metaData.getIndexInfo(null, null, name, false, true)) {
+                    while (rows.next()) {
+                        String indexName = rows.getString("INDEX_NAME");
+                        String column = rows.getString("COLUMN_NAME");
+                        if (indexName == null || column == null) {
+                            continue;
+                        }
+                        List<String> columns = indexes.computeIfAbsent(indexName, n -> new ArrayList<>());
+                        int position = rows.getInt("ORDINAL_POSITION");
+                        while (columns.size() < position) {
+                            columns.add(null);
+                        }
+                        columns.set(position - 1, column.toLowerCase());
+                    }
+                }
+            }
+            return indexes;
+        });
+    }
+
+    private static List<String> lowerCase(List<String> columns) {
+        List<String> lowerCase = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            lowerCase.add(column.toLowerCase());
+        }
+        return lowerCase;
+    }
+}
@@ -0,0 +1,38 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An index that a repository query relies on: created by IndexMigration and checked by IndexCheck.
+ */
+final class IndexDefinition {
+
+    private final String name;
+    private final String table;
+    private final List<String> columns;
+
+    IndexDefinition(String name, String table, String... columns) {
+        this.name = name;
+        this.table = table;
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public String toString() {
+        return name + " on " + table + "(" + String.join(", ", columns) + ")";
+    }
+}
@@ -0,0 +1,78 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes of the hot repository lookups. Foreign keys are not indexed by every database
+ * (PostgreSQL does not), so without these the lookups by group, user or receiver scan whole tables.
+ * Indexes that an entity already declares are listed as well, so IndexCheck covers them too;
+ * creating them again is skipped.
+ */
+@Component
+public class IndexMigration implements SchemaMigration {
+
+    static final List<IndexDefinition> INDEXES = Arrays.asList(
+            // rankings of a group, of a user in a group (UserMovieRankingRepository)
+            new IndexDefinition("idx_user_movie_ranking_group_user", "user_movie_ranking", "group_id", "user_id"),
+            // rankings of a user, of a user for a movie
+            new IndexDefinition("idx_user_movie_ranking_user_movie", "user_movie_ranking", "user_id", "movie_id"),
+            // received and sent (pending) invitations, invitations of a group (GroupInvitationRepository)
+            new IndexDefinition("idx_group_invitation_receiver_response", "group_invitation",
+                    "receiver_user_id", "response_time"),
+            new IndexDefinition("idx_group_invitation_sender_response", "group_invitation",
+                    "sender_user_id", "response_time"),
+            new IndexDefinition("idx_group_invitation_group_receiver", "group_invitation",
+                    "group_group_id", "receiver_user_id"),
+            // received and sent friend requests of a user (User.receivedFriendRequests, User.sentFriendRequests)
+            new IndexDefinition("idx_friend_request_receiver", "friend_request", "receiver_id"),
+            new IndexDefinition("idx_friend_request_sender", "friend_request", "sender_id"),
+            // groups of a user, membership checks (GroupRepository)
+            new IndexDefinition("idx_group_members_user", "group_members", "user_id"),
+            new IndexDefinition("idx_group_members_group_user", "group_members", "group_id", "user_id"),
+            // latest results of a group (RankingResultRepository)
+            new IndexDefinition("idx_ranking_result_group_timestamp", "ranking_result",
+                    "group_id", "calculation_timestamp"),
+            // submissions of a user, newest first (RankingSubmissionLogRepository)
+            new IndexDefinition("idx_ranking_submission_log_user_time", "ranking_submission_log",
+                    "user_id", "submission_time"),
+            // due phase timers (GroupRepository.findDueGroups)
+            new IndexDefinition("idx_user_group_phase_deadline", "user_group", "phase_deadline"),
+            // movies a member added to a pool (PoolEntryRepository)
+            new IndexDefinition("idx_pool_entry_pool_added_by", "pool_entry", "pool_id", "added_by"),
+            // revocation sync (TokenRevocationRepository)
+            new IndexDefinition("idx_token_revocation_revoked_before", "token_revocation", "revoked_before"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IndexMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Create the indexes of the repository lookups";
+    }
+
+    @Override
+    public void migrate() {
+        createIndexes(jdbcTemplate, INDEXES);
+    }
+
+    static void createIndexes(JdbcTemplate jdbcTemplate, List<IndexDefinition> indexes) {
+        for (IndexDefinition index : indexes) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + index.getName() + " ON " + index.getTable()
+                    + " (" + String.join(", ", index.getColumns()) + ")");
+        }
+    }
+}
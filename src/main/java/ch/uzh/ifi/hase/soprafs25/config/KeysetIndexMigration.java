@@ -0,0 +1,56 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes of the paginated list endpoints (see KeysetPage). Each page is read as one range of
+ * an index that starts with the owner of the list and ends with the ID the pages are ordered by, so a page
+ * costs the same whatever its position in the list.
+ */
+@Component
+public class KeysetIndexMigration implements SchemaMigration {
+
+    static final List<IndexDefinition> INDEXES = Arrays.asList(
+            // pending invitations and friend requests of a user (GroupInvitationRepository, FriendRequestRepository)
+            new IndexDefinition("idx_group_invitation_receiver_pending", "group_invitation",
+                    "receiver_user_id", "response_time", "invitation_id"),
+            new IndexDefinition("idx_group_invitation_sender_pending", "group_invitation",
+                    "sender_user_id", "response_time", "invitation_id"),
+            new IndexDefinition("idx_friend_request_receiver_pending", "friend_request",
+                    "receiver_id", "response_time", "request_id"),
+            new IndexDefinition("idx_friend_request_sender_pending", "friend_request",
+                    "sender_id", "response_time", "request_id"),
+            // groups of a user (GroupRepository.findGroupIdsByMemberIdAfter)
+            new IndexDefinition("idx_group_members_user_group", "group_members", "user_id", "group_id"),
+            // friends, watchlist and watched movies of a user (UserRepository, MovieRepository)
+            new IndexDefinition("idx_user_friends_user_friend", "user_friends", "user_id", "friend_id"),
+            new IndexDefinition("idx_user_watchlist_user_movie", "user_watchlist", "user_id", "movie_id"),
+            new IndexDefinition("idx_user_watched_movies_user_movie", "user_watched_movies", "user_id", "movie_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public KeysetIndexMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int getVersion() {
+        return 4;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Create the indexes of the paginated lists";
+    }
+
+    @Override
+    public void migrate() {
+        IndexMigration.createIndexes(jdbcTemplate, INDEXES);
+    }
+}
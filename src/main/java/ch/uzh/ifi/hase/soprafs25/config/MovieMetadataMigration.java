@@ -0,0 +1,116 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import ch.uzh.ifi.hase.soprafs25.entity.GenreMaskConverter;
+import ch.uzh.ifi.hase.soprafs25.entity.LanguageCodeConverter;
+import ch.uzh.ifi.hase.soprafs25.entity.StringListJsonConverter;
+import ch.uzh.ifi.hase.soprafs25.service.MovieCacheService;
+
+/**
+ * Movie genres, actors, directors and spoken languages used to be stored in the side tables
+ * MOVIE_GENRES, MOVIE_ACTORS, MOVIE_DIRECTORS and MOVIE_SPOKENLANGUAGES and are now columns of MOVIE.
+ * If the side tables still exist, their content is copied into the new columns and the side tables
+ * are dropped. Copying is idempotent, so an interrupted migration is simply repeated.
+ */
+@Component
+public class MovieMetadataMigration implements SchemaMigration {
+
+    private final Logger log = LoggerFactory.getLogger(MovieMetadataMigration.class);
+
+    private static final String GENRES_TABLE = "MOVIE_GENRES";
+    private static final String ACTORS_TABLE = "MOVIE_ACTORS";
+    private static final String DIRECTORS_TABLE = "MOVIE_DIRECTORS";
+    private static final String LANGUAGES_TABLE = "MOVIE_SPOKENLANGUAGES";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovieCacheService movieCacheService;
+
+    @Autowired
+    public MovieMetadataMigration(JdbcTemplate jdbcTemplate, MovieCacheService movieCacheService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieCacheService = movieCacheService;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Move movie genres, actors, directors and languages into the movie table";
+    }
+
+    @Override
+    public void migrate() {
+        if (!tableExists(GENRES_TABLE)) {
+            // nothing to migrate, e.g. a database created from scratch
+            return;
+        }
+        Map<Long, List<String>> genres = readLegacyTable(GENRES_TABLE, "genre");
+        Map<Long, List<String>> actors = readLegacyTable(ACTORS_TABLE, "actor");
+        Map<Long, List<String>> directors = readLegacyTable(DIRECTORS_TABLE, "director");
+        Map<Long, List<String>> languages = readLegacyTable(LANGUAGES_TABLE, "spokenlanguages");
+
+        Set<Long> movieIds = new LinkedHashSet<>();
+        movieIds.addAll(genres.keySet());
+        movieIds.addAll(actors.keySet());
+        movieIds.addAll(directors.keySet());
+        movieIds.addAll(languages.keySet());
+
+        GenreMaskConverter genreConverter = new GenreMaskConverter();
+        StringListJsonConverter listConverter = new StringListJsonConverter();
+        LanguageCodeConverter languageConverter = new LanguageCodeConverter();
+        List<Object[]> updates = new ArrayList<>(movieIds.size());
+        for (Long movieId : movieIds) {
+            updates.add(new Object[] {
+                    genreConverter.convertToDatabaseColumn(genres.getOrDefault(movieId, Collections.emptyList())),
+                    listConverter.convertToDatabaseColumn(actors.get(movieId)),
+                    listConverter.convertToDatabaseColumn(directors.get(movieId)),
+                    languageConverter.convertToDatabaseColumn(LanguageCodeConverter.toCodes(languages.get(movieId))),
+                    movieId
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE movie SET genre_mask = ?, actors = ?, directors = ?, spoken_languages = ? WHERE movie_id = ?",
+                updates);
+        movieCacheService.evictAll();
+
+        for (String table : new String[] {GENRES_TABLE, ACTORS_TABLE, DIRECTORS_TABLE, LANGUAGES_TABLE}) {
+            if (tableExists(table)) {
+                jdbcTemplate.execute("DROP TABLE " + table);
+            }
+        }
+        log.info("Migrated the genres, actors, directors and languages of {} movies into the movie table.",
+                movieIds.size());
+    }
+
+    // movie ID -> values of a legacy element collection table, empty if the table does not exist
+    private Map<Long, List<String>> readLegacyTable(String table, String column) {
+        Map<Long, List<String>> values = new HashMap<>();
+        if (!tableExists(table)) {
+            return values;
+        }
+        jdbcTemplate.query("SELECT movie_id, " + column + " FROM " + table, rs -> {
+            values.computeIfAbsent(rs.getLong(1), movieId -> new ArrayList<>()).add(rs.getString(2));
+        });
+        return values;
+    }
+
+    private boolean tableExists(String table) {
+        return SchemaMigrations.tableExists(jdbcTemplate, table);
+    }
+}
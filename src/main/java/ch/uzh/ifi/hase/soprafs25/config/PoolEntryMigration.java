@@ -0,0 +1,64 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * The movies of a pool used to be stored in the join table MOVIE_POOL_MOVIES, and the member who added
+ * each movie in MOVIEPOOL_USER_MOVIES. Both are now rows of POOL_ENTRY.
+ * If the old tables still exist, their content is copied into POOL_ENTRY and the old tables are dropped.
+ * Entries that already exist are skipped, so an interrupted migration is simply repeated.
+ * Movies whose adder is unknown get no added_by and cannot be removed by any member.
+ */
+@Component
+public class PoolEntryMigration implements SchemaMigration {
+
+    private final Logger log = LoggerFactory.getLogger(PoolEntryMigration.class);
+
+    private static final String MOVIES_TABLE = "MOVIE_POOL_MOVIES";
+    private static final String ADDED_BY_TABLE = "MOVIEPOOL_USER_MOVIES";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PoolEntryMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Move movie pool contents into pool_entry";
+    }
+
+    @Override
+    public void migrate() {
+        if (!SchemaMigrations.tableExists(jdbcTemplate, MOVIES_TABLE)) {
+            // nothing to migrate, e.g. a database created from scratch
+            return;
+        }
+        boolean hasAddedBy = SchemaMigrations.tableExists(jdbcTemplate, ADDED_BY_TABLE);
+        int migrated = jdbcTemplate.update(
+                "INSERT INTO pool_entry (pool_id, movie_id, added_by, added_at) "
+                        + "SELECT DISTINCT m.pool_id, m.movie_id, "
+                        + (hasAddedBy ? "u.user_id" : "CAST(NULL AS BIGINT)") + ", p.last_updated "
+                        + "FROM " + MOVIES_TABLE + " m JOIN movie_pool p ON p.pool_id = m.pool_id "
+                        + (hasAddedBy ? "LEFT JOIN " + ADDED_BY_TABLE + " u "
+                                + "ON u.pool_id = m.pool_id AND u.movie_id = m.movie_id " : "")
+                        + "WHERE NOT EXISTS (SELECT 1 FROM pool_entry e "
+                        + "WHERE e.pool_id = m.pool_id AND e.movie_id = m.movie_id)");
+
+        jdbcTemplate.execute("DROP TABLE " + MOVIES_TABLE);
+        if (hasAddedBy) {
+            jdbcTemplate.execute("DROP TABLE " + ADDED_BY_TABLE);
+        }
+        log.info("Migrated {} movie pool entries into the pool_entry table.", migrated);
+    }
+}
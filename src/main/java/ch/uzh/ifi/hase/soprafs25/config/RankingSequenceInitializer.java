@@ -0,0 +1,45 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * UserMovieRanking IDs used to be generated by an IDENTITY column and now come from the pooled
+ * user_movie_ranking_seq sequence. On PostgreSQL the sequence is created empty next to rankings that
+ * already have IDs, so it is moved past the highest existing ID once on startup.
+ * Runs after the schema update (entityManagerFactory) and before the server accepts requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class RankingSequenceInitializer implements InitializingBean {
+
+    private final Logger log = LoggerFactory.getLogger(RankingSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RankingSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            // the other databases are in-memory and created from scratch
+            return;
+        }
+        Long value = jdbcTemplate.queryForObject(
+                "SELECT setval('user_movie_ranking_seq', GREATEST(" +
+                        "(SELECT COALESCE(MAX(id), 1) FROM user_movie_ranking), " +
+                        "(SELECT last_value FROM user_movie_ranking_seq)))", Long.class);
+        log.info("user_movie_ranking_seq is at {}", value);
+    }
+}
@@ -0,0 +1,67 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+
+/**
+ * Read-your-writes for the read replica: once a read-write transaction of a user's request has committed,
+ * the user's read-only transactions use the primary for sopra.datasource.replica.sticky-window milliseconds,
+ * so a user does not read a replica that has not replayed the user's own change yet.
+ * The user is the principal of the current request (see TokenAuthenticationFilter); work outside a request
+ * or of an unauthenticated request is not tracked. At most max-size users are tracked, the least recently
+ * used one is dropped first.
+ */
+public class RecentWrites {
+
+    private final long window;
+    private final Map<Long, Long> writtenUntil;
+
+    public RecentWrites(long window, int maxSize) {
+        this.window = window;
+        this.writtenUntil = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the user of the current request, or null outside a request or if it is not authenticated
+     */
+    Long currentUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object principal = attributes.getAttribute(TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return principal instanceof AuthenticatedUser ? ((AuthenticatedUser) principal).getUserId() : null;
+    }
+
+    synchronized void wrote(Long userId) {
+        if (userId != null && window > 0) {
+            writtenUntil.put(userId, System.currentTimeMillis() + window);
+        }
+    }
+
+    synchronized boolean wroteRecently(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = writtenUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            writtenUntil.remove(userId);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Read replica, active when sopra.datasource.replica.url is set.
+ * Transactions marked @Transactional(readOnly = true) read from the replica (see ReplicaRoutingDataSource),
+ * everything else, including schema updates on startup, authentication and membership checks, uses the
+ * primary configured by spring.datasource.
+ * Without a replica URL, Spring Boot configures the primary as the only data source.
+ */
+@Configuration
+@ConditionalOnExpression("!'${sopra.datasource.replica.url:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+    @Bean(name = "primaryDataSource")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(name = "replicaDataSource")
+    public HikariDataSource replicaDataSource(@Value("${sopra.datasource.replica.url}") String url,
+                                              @Value("${sopra.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${sopra.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${sopra.datasource.replica.max-pool-size:10}") int maxPoolSize) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(maxPoolSize);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${sopra.datasource.replica.lag-query:}") String lagQuery,
+                                               @Value("${sopra.datasource.replica.max-lag:5000}") long maxLag) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag);
+    }
+
+    @Bean
+    public RecentWrites recentWrites(@Value("${sopra.datasource.replica.sticky-window:6000}") long window,
+                                     @Value("${sopra.datasource.replica.sticky-max-size:10000}") int maxSize) {
+        return new RecentWrites(window, maxSize);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 RecentWrites recentWrites) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor, recentWrites));
+    }
+}
@@ -0,0 +1,70 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Decides whether read-only transactions may use the read replica.
+ * The replica is checked every sopra.datasource.replica.check-interval milliseconds: it is used while it is
+ * reachable and the lag query (if any) reports at most max-lag milliseconds. Until the first successful check,
+ * and after a failed connection attempt, all work goes to the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final long maxLag;
+
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLag) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery == null ? "" : lagQuery.trim();
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${sopra.datasource.replica.check-interval:1000}")
+    public void check() {
+        boolean usable;
+        try {
+            if (lagQuery.isEmpty()) {
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                usable = true;
+            } else {
+                Double lag = jdbcTemplate.queryForObject(lagQuery, Double.class);
+                usable = lag != null && lag <= maxLag;
+                if (!usable && replicaUsable) {
+                    log.warn("Read replica lags {} ms behind the primary, reading from the primary.", lag);
+                }
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Read replica is not reachable, reading from the primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !replicaUsable) {
+            log.info("Read replica is in sync, read-only transactions use the replica.");
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    // a connection to the replica could not be opened, use the primary until the next successful check
+    void replicaFailed(Exception e) {
+        if (replicaUsable) {
+            log.warn("Could not connect to the read replica, reading from the primary: {}", e.getMessage());
+        }
+        replicaUsable = false;
+    }
+}
@@ -0,0 +1,115 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to the read replica while ReplicaLagMonitor considers it
+ * usable, and all other connections to the primary. If the replica refuses a connection, the primary is used.
+ * Only an actual read-only transaction reads the replica: work without a transaction, such as a
+ * Propagation.SUPPORTS lookup, always uses the primary, even if it is marked read-only.
+ * A user whose request has just committed a read-write transaction reads the primary for a while (see RecentWrites).
+ * isReadingReplica tells whether the current transaction reads the replica, e.g. so its answers are not cached.
+ * The transaction is only known once it has started, so this data source must be wrapped in a
+ * LazyConnectionDataSourceProxy (see ReplicaDataSourceConfig).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    // bound to a transaction that got a replica connection, until it completes
+    private static final String READING_REPLICA = ReplicaRoutingDataSource.class.getName() + ".readingReplica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor monitor;
+    private final RecentWrites recentWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+                                    RecentWrites recentWrites) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = monitor;
+        this.recentWrites = recentWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !monitor.isReplicaUsable()) {
+            return Target.PRIMARY;
+        }
+        return recentWrites.wroteRecently(recentWrites.currentUserId()) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Target.REPLICA) {
+            trackWrites();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            markReadingReplica();
+            return connection;
+        } catch (SQLException e) {
+            monitor.replicaFailed(e);
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * @return whether the current transaction has read from the read replica, which may lag behind the primary
+     */
+    public static boolean isReadingReplica() {
+        return TransactionSynchronizationManager.hasResource(READING_REPLICA);
+    }
+
+    private void markReadingReplica() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(READING_REPLICA)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(READING_REPLICA, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(READING_REPLICA);
+            }
+        });
+    }
+
+    // a read-write transaction of a request makes its user read the primary once it has committed
+    private void trackWrites() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long userId = recentWrites.currentUserId();
+        if (userId == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWrites.wrote(userId);
+            }
+        });
+    }
+}
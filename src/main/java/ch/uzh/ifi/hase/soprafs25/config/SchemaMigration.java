@@ -0,0 +1,19 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+/**
+ * A versioned change of the database schema or data, applied once by SchemaMigrations.
+ * A migration runs in one transaction with the record of its version, one instance at a time.
+ * Migrations must still be idempotent: databases that commit DDL implicitly (such as H2) keep the part
+ * of a migration that ran before a failure, and the migration is applied again on the next start.
+ */
+public interface SchemaMigration {
+
+    /**
+     * @return the version of the migration, migrations are applied in ascending order
+     */
+    int getVersion();
+
+    String getDescription();
+
+    void migrate();
+}
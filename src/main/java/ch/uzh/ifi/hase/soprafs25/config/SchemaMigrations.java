@@ -0,0 +1,106 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies the SchemaMigration beans that have not been applied to the database yet, in ascending order
+ * of their version, and records every applied version in the SCHEMA_VERSION table.
+ * Tables and columns are still created by Hibernate (spring.jpa.hibernate.ddl-auto), so migrations run
+ * after the schema update (entityManagerFactory) and before the server accepts requests; they cover what
+ * Hibernate cannot do on its own, such as moving data between tables, dropping old tables and indexes.
+ * Instances starting at once migrate one after the other: the first one locks the row of the SCHEMA_VERSION_LOCK
+ * table until it is done, the others wait for the lock and then only apply what is still pending.
+ * Each migration is applied and recorded in a transaction of its own, so a failed migration is rolled back
+ * (as far as the database supports transactional DDL) and retried on the next start.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrations implements InitializingBean {
+
+    private final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate lockTransaction;
+    private final TransactionTemplate migrationTransaction;
+    private final List<SchemaMigration> migrations;
+
+    @Autowired
+    public SchemaMigrations(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            List<SchemaMigration> migrations) {
+        this.jdbcTemplate = jdbcTemplate;
+        // the lock is held by its own transaction (and connection) while the migrations commit one by one
+        this.lockTransaction = new TransactionTemplate(transactionManager);
+        this.migrationTransaction = new TransactionTemplate(transactionManager);
+        this.migrationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(SchemaMigration::getVersion));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                + "version INTEGER NOT NULL PRIMARY KEY, "
+                + "description VARCHAR(255) NOT NULL, "
+                + "installed_on TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_version_lock (id INTEGER NOT NULL PRIMARY KEY)");
+        try {
+            jdbcTemplate.update("INSERT INTO schema_version_lock (id) VALUES (1)");
+        } catch (DuplicateKeyException e) {
+            // created by an earlier start or by another instance starting at the same time
+        }
+
+        lockTransaction.executeWithoutResult(lock -> {
+            jdbcTemplate.queryForObject("SELECT id FROM schema_version_lock WHERE id = 1 FOR UPDATE", Integer.class);
+            // read under the lock: an instance that held it before has recorded its migrations by now
+            Set<Integer> applied = new HashSet<>(
+                    jdbcTemplate.queryForList("SELECT version FROM schema_version", Integer.class));
+
+            for (SchemaMigration migration : migrations) {
+                if (applied.contains(migration.getVersion())) {
+                    continue;
+                }
+                log.info("Applying schema migration {}: {}", migration.getVersion(), migration.getDescription());
+                migrationTransaction.executeWithoutResult(status -> {
+                    migration.migrate();
+                    jdbcTemplate.update("INSERT INTO schema_version (version, description, installed_on) "
+                                    + "VALUES (?, ?, CURRENT_TIMESTAMP)",
+                            migration.getVersion(), migration.getDescription());
+                });
+            }
+        });
+    }
+
+    static boolean tableExists(JdbcTemplate jdbcTemplate, String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // unquoted names are stored in upper case (H2) or lower case (PostgreSQL)
+            for (String name : new String[] {table.toUpperCase(), table.toLowerCase()}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[] {"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
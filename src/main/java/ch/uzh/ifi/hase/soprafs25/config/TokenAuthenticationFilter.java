@@ -0,0 +1,49 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+import ch.uzh.ifi.hase.soprafs25.service.UserService;
+
+/**
+ * Authenticates every request with a Bearer token once, before it reaches a controller.
+ * The principal of a valid token is stored as a request attribute, from where the
+ * AuthenticatedUserArgumentResolver passes it to the controller. Requests without a valid token
+ * are passed on unauthenticated; endpoints that need a user reject them with 401.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = TokenAuthenticationFilter.class.getName() + ".PRINCIPAL";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final UserService userService;
+
+    public TokenAuthenticationFilter(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            try {
+                AuthenticatedUser principal = userService.authenticate(header.substring(BEARER_PREFIX.length()));
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            } catch (ResponseStatusException e) {
+                // invalid token, rejected by the endpoints that need a user
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
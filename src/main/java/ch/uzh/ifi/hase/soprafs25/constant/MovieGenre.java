@@ -0,0 +1,79 @@
+package ch.uzh.ifi.hase.soprafs25.constant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The fixed TMDb movie genre set; TMDbService derives its genre ID and name maps from it.
+ * A movie stores its genres as a bitmask with bit ordinal() set per genre, so constants may only be
+ * appended, never reordered or removed.
+ */
+public enum MovieGenre {
+    ACTION(28, "Action"),
+    ADVENTURE(12, "Adventure"),
+    ANIMATION(16, "Animation"),
+    COMEDY(35, "Comedy"),
+    CRIME(80, "Crime"),
+    DOCUMENTARY(99, "Documentary"),
+    DRAMA(18, "Drama"),
+    FAMILY(10751, "Family"),
+    FANTASY(14, "Fantasy"),
+    HISTORY(36, "History"),
+    HORROR(27, "Horror"),
+    MUSIC(10402, "Music"),
+    MYSTERY(9648, "Mystery"),
+    ROMANCE(10749, "Romance"),
+    SCIENCE_FICTION(878, "Science Fiction"),
+    TV_MOVIE(10770, "TV Movie"),
+    THRILLER(53, "Thriller"),
+    WAR(10752, "War"),
+    WESTERN(37, "Western");
+
+    private final int tmdbId;
+    private final String displayName;
+
+    MovieGenre(int tmdbId, String displayName) {
+        this.tmdbId = tmdbId;
+        this.displayName = displayName;
+    }
+
+    public int getTmdbId() {
+        return tmdbId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public static MovieGenre fromDisplayName(String displayName) {
+        for (MovieGenre genre : values()) {
+            if (genre.displayName.equalsIgnoreCase(displayName)) {
+                return genre;
+            }
+        }
+        return null;
+    }
+
+    // names outside the genre set are not stored
+    public static long toMask(Collection<String> displayNames) {
+        long mask = 0;
+        for (String displayName : displayNames) {
+            MovieGenre genre = fromDisplayName(displayName);
+            if (genre != null) {
+                mask |= 1L << genre.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    public static List<String> fromMask(long mask) {
+        List<String> displayNames = new ArrayList<>();
+        for (MovieGenre genre : values()) {
+            if ((mask & (1L << genre.ordinal())) != 0) {
+                displayNames.add(genre.displayName);
+            }
+        }
+        return displayNames;
+    }
+}
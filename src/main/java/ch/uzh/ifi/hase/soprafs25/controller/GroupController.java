@@ -6,15 +6,18 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
@@ -29,29 +32,28 @@ import ch.uzh.ifi.hase.soprafs25.rest.dto.UserGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.VoteStateGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.VotingStatusDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.mapper.DTOMapper;
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+import ch.uzh.ifi.hase.soprafs25.service.GroupEventHub;
 import ch.uzh.ifi.hase.soprafs25.service.GroupService;
+import ch.uzh.ifi.hase.soprafs25.service.KeysetPage;
 import ch.uzh.ifi.hase.soprafs25.service.MoviePoolService;
 import ch.uzh.ifi.hase.soprafs25.service.RankingService;
-import ch.uzh.ifi.hase.soprafs25.service.UserService;
-import ch.uzh.ifi.hase.soprafs25.utils.AuthorizationUtil;
 
 @RestController
 public class GroupController {
 
     @PostMapping(value = "/groups/{groupId}/start-voting", produces = "application/json")
     @ResponseStatus(HttpStatus.OK)
-    public Map<String, String> startVotingPhase(@RequestHeader("Authorization") String token, @PathVariable Long groupId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public Map<String, String> startVotingPhase(AuthenticatedUser principal, @PathVariable Long groupId) {
+        Long userId = principal.getUserId();
         groupService.startVotingPhase(groupId, userId);
         return Collections.singletonMap("message", "Voting phase started.");
     }
 
     @PostMapping(value = "/groups/{groupId}/show-results", produces = "application/json")
     @ResponseStatus(HttpStatus.OK)
-    public Map<String, String> showResultsPhase(@RequestHeader("Authorization") String token, @PathVariable Long groupId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public Map<String, String> showResultsPhase(AuthenticatedUser principal, @PathVariable Long groupId) {
+        Long userId = principal.getUserId();
         groupService.showResultsPhase(groupId, userId);
         // Calculate and save ranking results immediately after ending voting
         rankingService.calculateAndSaveWinner(groupId);
@@ -60,20 +62,21 @@ public class GroupController {
 
 
     private final GroupService groupService;
-    private final UserService userService;
     private final MoviePoolService moviePoolService;
     private final RankingService rankingService;
+    private final GroupEventHub groupEventHub;
 
-    public GroupController(GroupService groupService, UserService userService, MoviePoolService moviePoolService, RankingService rankingService){
+    public GroupController(GroupService groupService, MoviePoolService moviePoolService, RankingService rankingService,
+                           GroupEventHub groupEventHub){
         this.groupService = groupService;
-        this.userService = userService;
         this.moviePoolService = moviePoolService;
         this.rankingService = rankingService;
+        this.groupEventHub = groupEventHub;
     }
     
         /**
      * Get a single group by its ID.
-     * @param token The Bearer token of the user.
+     * @param principal The authenticated user.
      * @param groupId The ID of the group to fetch.
      * @return GroupGetDTO containing group details including phase.
      * @throws UserNotFoundException if the user is not found or unauthorized.
@@ -81,39 +84,34 @@ public class GroupController {
      */
     @GetMapping("/groups/{groupId}")
     @ResponseStatus(HttpStatus.OK)
-    public GroupGetDTO getGroup(@RequestHeader("Authorization") String token, @PathVariable Long groupId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public GroupGetDTO getGroup(AuthenticatedUser principal, @PathVariable Long groupId) {
+        Long userId = principal.getUserId();
         Group group = groupService.getGroup(groupId, userId);
         return DTOMapper.INSTANCE.convertEntityToGroupGetDTO(group);
     }
 
+    // one page of the groups of the user, ordered by group ID, see KeysetPageResponse
     @GetMapping("/groups")
-    @ResponseStatus(HttpStatus.OK)
-    public List<GroupGetDTO> getUserGroups(@RequestHeader("Authorization") String token) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
-        List<Group> userGroups = groupService.getGroupsByUserId(userId);
-        List<GroupGetDTO> dtos = DTOMapper.INSTANCE.convertEntityListToGroupGetDTOList(userGroups);
-        // populate full movie list for each group
-        for (GroupGetDTO dto : dtos) {
-            try {
-                MoviePool pool = moviePoolService.getMoviePool(dto.getGroupId(), userId);
-                List<MovieGetDTO> movies = DTOMapper.INSTANCE.convertEntityListToMovieGetDTOList(pool.getMovies());
-                dto.setMovies(movies);
-            } catch (Exception e) {
-                // group may have no pool yet
-                dto.setMovies(Collections.emptyList());
-            }
-        }
-        return dtos;
+    public ResponseEntity<List<GroupGetDTO>> getUserGroups(AuthenticatedUser principal,
+                                                           @RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit) {
+        Long userId = principal.getUserId();
+        // groups, members and pools are loaded up front, so mapping them does not query per group
+        KeysetPage<Group> userGroups = groupService.getGroupsWithPoolsByUserId(userId, after, limit);
+        return KeysetPageResponse.of(userGroups.map(group -> {
+            GroupGetDTO dto = DTOMapper.INSTANCE.convertEntityToGroupGetDTO(group);
+            MoviePool pool = group.getMoviePool();
+            // group may have no pool yet
+            dto.setMovies(pool == null ? Collections.emptyList()
+                    : DTOMapper.INSTANCE.convertEntityListToMovieGetDTOList(pool.getMovies()));
+            return dto;
+        }));
     }
 
     @PostMapping("/groups")
     @ResponseStatus(HttpStatus.CREATED)
-    public GroupGetDTO createGroup(@RequestHeader("Authorization") String token, @RequestBody GroupPostDTO groupPostDTO){
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public GroupGetDTO createGroup(AuthenticatedUser principal, @RequestBody GroupPostDTO groupPostDTO){
+        Long userId = principal.getUserId();
         Group createdGroup = groupService.createGroup(groupPostDTO.getGroupName(), userId);
 
         return DTOMapper.INSTANCE.convertEntityToGroupGetDTO(createdGroup);
@@ -121,17 +119,15 @@ public class GroupController {
     
     @DeleteMapping("/groups/{groupId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteGroup(@PathVariable Long groupId, @RequestHeader("Authorization") String token) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void deleteGroup(@PathVariable Long groupId, AuthenticatedUser principal) {
+        Long userId = principal.getUserId();
         groupService.deleteGroup(groupId, userId);
     }
 
     @GetMapping("/groups/{groupId}/members")
     @ResponseStatus(HttpStatus.OK)
-    public List<UserGetDTO> getGroupMembers(@RequestHeader("Authorization") String token, @PathVariable Long groupId){
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public List<UserGetDTO> getGroupMembers(AuthenticatedUser principal, @PathVariable Long groupId){
+        Long userId = principal.getUserId();
         Group group = groupService.getGroup(groupId, userId);
         return DTOMapper.INSTANCE.convertEntityListToUserGetDTOList(group.getMembers());
     }
@@ -139,15 +135,14 @@ public class GroupController {
     // get movie pool 
     @GetMapping("/groups/{groupId}/pool")
     @ResponseStatus(HttpStatus.OK)
-    public List<PoolEntryGetDTO> getGroupMoviePool(@RequestHeader("Authorization") String token, @PathVariable Long groupId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public List<PoolEntryGetDTO> getGroupMoviePool(AuthenticatedUser principal, @PathVariable Long groupId) {
+        Long userId = principal.getUserId();
         MoviePool moviePool = moviePoolService.getMoviePool(groupId, userId);
-        return moviePool.getMovies().stream()
-            .map(movie -> {
+        return moviePool.getEntries().stream()
+            .map(entry -> {
                 PoolEntryGetDTO dto = new PoolEntryGetDTO();
-                dto.setMovie(DTOMapper.INSTANCE.convertEntityToMovieGetDTO(movie));
-                dto.setAddedBy(moviePool.getUserAddedMovies().get(movie));
+                dto.setMovie(DTOMapper.INSTANCE.convertEntityToMovieGetDTO(entry.getMovie()));
+                dto.setAddedBy(entry.getAddedBy());
                 return dto;
             })
             .collect(Collectors.toList());
@@ -156,15 +151,14 @@ public class GroupController {
     // add movie
     @PostMapping("/groups/{groupId}/pool/{movieId}")
     @ResponseStatus(HttpStatus.OK)
-    public List<PoolEntryGetDTO> addMovieToGroupPool(@RequestHeader("Authorization") String token, @PathVariable Long groupId, @PathVariable Long movieId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public List<PoolEntryGetDTO> addMovieToGroupPool(AuthenticatedUser principal, @PathVariable Long groupId, @PathVariable Long movieId) {
+        Long userId = principal.getUserId();
         MoviePool moviePool = moviePoolService.addMovie(groupId, movieId, userId);
-        return moviePool.getMovies().stream()
-            .map(movie -> {
+        return moviePool.getEntries().stream()
+            .map(entry -> {
                 PoolEntryGetDTO dto = new PoolEntryGetDTO();
-                dto.setMovie(DTOMapper.INSTANCE.convertEntityToMovieGetDTO(movie));
-                dto.setAddedBy(moviePool.getUserAddedMovies().get(movie));
+                dto.setMovie(DTOMapper.INSTANCE.convertEntityToMovieGetDTO(entry.getMovie()));
+                dto.setAddedBy(entry.getAddedBy());
                 return dto;
             })
             .collect(Collectors.toList());
@@ -172,27 +166,24 @@ public class GroupController {
 
     @DeleteMapping("/groups/{groupId}/pool/{movieId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void removeMovieFromGroupPool(@RequestHeader("Authorization") String token, @PathVariable Long groupId, @PathVariable Long movieId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void removeMovieFromGroupPool(AuthenticatedUser principal, @PathVariable Long groupId, @PathVariable Long movieId) {
+        Long userId = principal.getUserId();
         moviePoolService.removeMovie(groupId, movieId, userId);
     }
 
     @DeleteMapping("/groups/{groupId}/leave")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void leaveGroup(@RequestHeader("Authorization") String token, @PathVariable Long groupId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void leaveGroup(AuthenticatedUser principal, @PathVariable Long groupId) {
+        Long userId = principal.getUserId();
         groupService.leaveGroup(groupId, userId);
     }
 
     @PutMapping("/groups/{groupId}")
     @ResponseStatus(HttpStatus.OK)
     public GroupGetDTO updateGroupName(@PathVariable Long groupId,
-                                       @RequestHeader("Authorization") String token,
+                                       AuthenticatedUser principal,
                                        @RequestBody GroupPostDTO groupPostDTO) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+        Long userId = principal.getUserId();
         ch.uzh.ifi.hase.soprafs25.entity.Group updatedGroup =
             groupService.updateGroupName(groupId, userId, groupPostDTO.getGroupName());
         return DTOMapper.INSTANCE.convertEntityToGroupGetDTO(updatedGroup);
@@ -204,10 +195,9 @@ public class GroupController {
      */
     @GetMapping("/groups/{groupId}/vote-state")
     @ResponseStatus(HttpStatus.OK)
-    public VoteStateGetDTO getVoteState(@RequestHeader("Authorization") String token,
+    public VoteStateGetDTO getVoteState(AuthenticatedUser principal,
                                         @PathVariable Long groupId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+        Long userId = principal.getUserId();
         List<MovieGetDTO> pool = DTOMapper.INSTANCE
             .convertEntityListToMovieGetDTOList(
                 moviePoolService.getMoviePool(groupId, userId).getMovies());
@@ -220,11 +210,10 @@ public class GroupController {
 
     @DeleteMapping("/groups/{groupId}/members/{memberId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void removeMember(@RequestHeader("Authorization") String token,
+    public void removeMember(AuthenticatedUser principal,
                              @PathVariable Long groupId,
                              @PathVariable Long memberId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long adminUserId = userService.getUserByToken(token).getUserId();
+        Long adminUserId = principal.getUserId();
         groupService.removeMember(groupId, memberId, adminUserId);
     }
 
@@ -234,49 +223,62 @@ public class GroupController {
     // setting timers
     @PostMapping("/groups/{groupId}/pool-timer")
     @ResponseStatus(HttpStatus.OK)
-    public void setPoolPhaseDuration(@PathVariable Long groupId, @RequestHeader("Authorization") String token, @RequestBody Integer duration) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void setPoolPhaseDuration(@PathVariable Long groupId, AuthenticatedUser principal, @RequestBody Integer duration) {
+        Long userId = principal.getUserId();
         groupService.setPoolPhaseDuration(groupId, userId, duration);
     }
 
     @PostMapping("/groups/{groupId}/voting-timer")
     @ResponseStatus(HttpStatus.OK)
-    public void setVotingPhaseDuration(@PathVariable Long groupId, @RequestHeader("Authorization") String token, @RequestBody Integer duration) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void setVotingPhaseDuration(@PathVariable Long groupId, AuthenticatedUser principal, @RequestBody Integer duration) {
+        Long userId = principal.getUserId();
         groupService.setVotingPhaseDuration(groupId, userId, duration);
     }
+
+    @PostMapping("/groups/{groupId}/voting-method")
+    @ResponseStatus(HttpStatus.OK)
+    public void setVotingMethod(@PathVariable Long groupId, AuthenticatedUser principal, @RequestBody Group.VotingMethod votingMethod) {
+        Long userId = principal.getUserId();
+        groupService.setVotingMethod(groupId, userId, votingMethod);
+    }
     // start timers 
     @PostMapping("/groups/{groupId}/start-pool-timer")
     @ResponseStatus(HttpStatus.OK)
-    public void startPoolTimer(@PathVariable Long groupId, @RequestHeader("Authorization") String token) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void startPoolTimer(@PathVariable Long groupId, AuthenticatedUser principal) {
+        Long userId = principal.getUserId();
         groupService.startPoolTimer(groupId, userId);
     }
 
     @PostMapping("/groups/{groupId}/start-voting-timer")
     @ResponseStatus(HttpStatus.OK)
-    public void startVotingTimer(@PathVariable Long groupId, @RequestHeader("Authorization") String token) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void startVotingTimer(@PathVariable Long groupId, AuthenticatedUser principal) {
+        Long userId = principal.getUserId();
         groupService.startVotingTimer(groupId, userId);
     }
 
     @GetMapping("/groups/{groupId}/timer")
     @ResponseStatus(HttpStatus.OK)
-    public Integer getRemainingTime(@PathVariable Long groupId, @RequestHeader("Authorization") String token) {
-        token = AuthorizationUtil.extractToken(token);
-        userService.getUserByToken(token);
+    public Integer getRemainingTime(@PathVariable Long groupId, AuthenticatedUser principal) {
         // in seconds
         return groupService.getRemainingTime(groupId);
     }
 
+    /**
+     * GET /groups/{groupId}/events
+     * Stream (Server-Sent Events) of the group's changes, replacing the polling of /timer and /vote-state.
+     * Sends the current phase and phase deadline, then pushes "group" events on phase transitions,
+     * deadline updates, pool changes and first-time votes. The stream ends when the group is deleted.
+     */
+    @GetMapping(value = "/groups/{groupId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGroupEvents(AuthenticatedUser principal, @PathVariable Long groupId) {
+        Long userId = principal.getUserId();
+        return groupEventHub.subscribe(groupId, userId);
+    }
+
     // to check which users have already voted
     @GetMapping("/groups/{groupId}/voting-status")
-    public List<VotingStatusDTO> getVotingStatus(@RequestHeader("Authorization") String token, @PathVariable Long groupId) {
-    Long userId = userService.getUserByToken(AuthorizationUtil.extractToken(token)).getUserId();
+    public List<VotingStatusDTO> getVotingStatus(AuthenticatedUser principal, @PathVariable Long groupId) {
+    Long userId = principal.getUserId();
     return groupService.getVotingStatus(groupId, userId);
 }
 }
@@ -3,91 +3,86 @@ package ch.uzh.ifi.hase.soprafs25.controller;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import ch.uzh.ifi.hase.soprafs25.entity.GroupInvitation;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.GroupInvitationGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.mapper.DTOMapper;
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
 import ch.uzh.ifi.hase.soprafs25.service.GroupInvitationService;
-import ch.uzh.ifi.hase.soprafs25.service.UserService;
-import ch.uzh.ifi.hase.soprafs25.utils.AuthorizationUtil;
 
 @RestController
 @RequestMapping("/groups/invitations")
 public class GroupInvitationController {
 
     private final GroupInvitationService groupInvitationService;
-    private final UserService userService;
 
-    public GroupInvitationController(GroupInvitationService groupInvitationService, UserService userService) {
+    public GroupInvitationController(GroupInvitationService groupInvitationService) {
         this.groupInvitationService = groupInvitationService;
-        this.userService = userService;
     }
 
     @PostMapping("/send/{groupId}/{receiverId}")
     @ResponseStatus(HttpStatus.OK)
-    public GroupInvitationGetDTO sendGroupInvitation(@RequestHeader("Authorization") String token, 
+    public GroupInvitationGetDTO sendGroupInvitation(AuthenticatedUser principal, 
                                                 @PathVariable Long groupId, 
                                                 @PathVariable Long receiverId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long senderId = userService.getUserByToken(token).getUserId();
+        Long senderId = principal.getUserId();
         GroupInvitation groupInvitation = groupInvitationService.sendInvitation(groupId, senderId, receiverId);
         return DTOMapper.INSTANCE.convertEntityToGroupInvitationGetDTO(groupInvitation);
     }
 
     @PostMapping("/{invitationId}/accept")
     @ResponseStatus(HttpStatus.OK)
-    public GroupInvitationGetDTO acceptGroupInvitation(@RequestHeader("Authorization") String token, @PathVariable Long invitationId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public GroupInvitationGetDTO acceptGroupInvitation(AuthenticatedUser principal, @PathVariable Long invitationId) {
+        Long userId = principal.getUserId();
         GroupInvitation invitation = groupInvitationService.respondToInvitation(invitationId, userId, true);
         return DTOMapper.INSTANCE.convertEntityToGroupInvitationGetDTO(invitation);
     }
 
     @PostMapping("/{invitationId}/reject")
     @ResponseStatus(HttpStatus.OK)
-    public GroupInvitationGetDTO rejectGroupInvitation(@RequestHeader("Authorization") String token,
+    public GroupInvitationGetDTO rejectGroupInvitation(AuthenticatedUser principal,
                                                       @PathVariable Long invitationId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+        Long userId = principal.getUserId();
         GroupInvitation invitation = groupInvitationService.respondToInvitation(invitationId, userId, false);
         return DTOMapper.INSTANCE.convertEntityToGroupInvitationGetDTO(invitation);
     }
 
+    // one page of the pending invitations, ordered by invitation ID, see KeysetPageResponse
     @GetMapping("/sent")
-    @ResponseStatus(HttpStatus.OK)
-    public List<GroupInvitationGetDTO> getPendingSentGroupInvitations(@RequestHeader("Authorization") String token) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
-        return groupInvitationService.getPendingSentInvitations(userId).stream()
-                .map(DTOMapper.INSTANCE::convertEntityToGroupInvitationGetDTO)
-                .toList();
+    public ResponseEntity<List<GroupInvitationGetDTO>> getPendingSentGroupInvitations(
+            AuthenticatedUser principal,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        Long userId = principal.getUserId();
+        return KeysetPageResponse.of(groupInvitationService.getPendingSentInvitations(userId, after, limit)
+                .map(DTOMapper.INSTANCE::convertEntityToGroupInvitationGetDTO));
     }
 
     // remade to handle "pending"
     @GetMapping("/received")
-    @ResponseStatus(HttpStatus.OK)
-    public List<GroupInvitationGetDTO> getPendingReceivedGroupInvitations(@RequestHeader("Authorization") String token) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
-        return groupInvitationService.getPendingReceivedInvitations(userId).stream()
-                .map(DTOMapper.INSTANCE::convertEntityToGroupInvitationGetDTO)
-                .toList();
+    public ResponseEntity<List<GroupInvitationGetDTO>> getPendingReceivedGroupInvitations(
+            AuthenticatedUser principal,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        Long userId = principal.getUserId();
+        return KeysetPageResponse.of(groupInvitationService.getPendingReceivedInvitations(userId, after, limit)
+                .map(DTOMapper.INSTANCE::convertEntityToGroupInvitationGetDTO));
     }
 
     // additionally - I don't know whether we want to have it or not, but I though that it logically suits
     @DeleteMapping("/{invitationId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteGroupInvitation(@RequestHeader("Authorization") String token, @PathVariable Long invitationId) {
-        token = AuthorizationUtil.extractToken(token);
-        Long userId = userService.getUserByToken(token).getUserId();
+    public void deleteGroupInvitation(AuthenticatedUser principal, @PathVariable Long invitationId) {
+        Long userId = principal.getUserId();
         groupInvitationService.deleteInvitation(invitationId, userId);
     }
 }
\ No newline at end of file
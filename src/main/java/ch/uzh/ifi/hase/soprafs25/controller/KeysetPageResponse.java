@@ -0,0 +1,28 @@
+package ch.uzh.ifi.hase.soprafs25.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+import ch.uzh.ifi.hase.soprafs25.service.KeysetPage;
+
+/**
+ * Response of a paginated list endpoint: the items as JSON array, and the cursor of the next page in the
+ * X-Next-Cursor header (absent on the last page). The next page is requested with ?after=cursor,
+ * the page size with ?limit= (at most KeysetPage.MAX_LIMIT, KeysetPage.DEFAULT_LIMIT by default).
+ */
+public final class KeysetPageResponse {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPageResponse() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+}
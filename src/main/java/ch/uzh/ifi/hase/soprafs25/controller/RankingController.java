@@ -1,14 +1,21 @@
 package ch.uzh.ifi.hase.soprafs25.controller;
 
+import ch.uzh.ifi.hase.soprafs25.entity.RankingResultSnapshot;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.RankingSubmitDTO;
-import ch.uzh.ifi.hase.soprafs25.rest.dto.RankingResultsDTO;
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+import ch.uzh.ifi.hase.soprafs25.service.LiveLeaderboardService;
 import ch.uzh.ifi.hase.soprafs25.service.RankingService;
+
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 
@@ -17,10 +24,12 @@ import javax.validation.Valid;
 public class RankingController {
 
     private final RankingService rankingService;
+    private final LiveLeaderboardService liveLeaderboardService;
 
     @Autowired
-    public RankingController(RankingService rankingService) {
+    public RankingController(RankingService rankingService, LiveLeaderboardService liveLeaderboardService) {
         this.rankingService = rankingService;
+        this.liveLeaderboardService = liveLeaderboardService;
     }
 
     /**
@@ -45,10 +54,32 @@ public class RankingController {
         return ResponseEntity.noContent().build(); 
     }
 
+    /**
+     * GET /groups/{groupId}/rankings/results
+     * Serves the RankingResultsDTO snapshot taken when the group entered the RESULTS phase.
+     * The snapshot never changes, so it is sent with a strong ETag and requests with a
+     * matching If-None-Match header get 304 (Not Modified) without a body.
+     */
     @GetMapping("/groups/{groupId}/rankings/results")
-    public ResponseEntity<RankingResultsDTO> getRankingResults(@PathVariable Long groupId) {
-        RankingResultsDTO dto = rankingService.getRankingResults(groupId);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<String> getRankingResults(@PathVariable Long groupId) {
+        RankingResultSnapshot snapshot = rankingService.getRankingResultsSnapshot(groupId);
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8))
+                .body(snapshot.getPayload());
+    }
+
+    /**
+     * GET /groups/{groupId}/rankings/live
+     * Opt-in stream (Server-Sent Events) of the group's standings during the VOTING phase.
+     * Sends the current standings, then pushes "leaderboard" events while members submit rankings.
+     * The stream is completed once the group has left the VOTING phase.
+     */
+    @GetMapping(value = "/groups/{groupId}/rankings/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveLeaderboard(AuthenticatedUser principal, @PathVariable Long groupId) {
+        Long userId = principal.getUserId();
+        return liveLeaderboardService.subscribe(groupId, userId);
     }
 
     // TODO: Consider adding an endpoint to trigger calculation: POST /groups/{groupId}/rankings/calculate ?
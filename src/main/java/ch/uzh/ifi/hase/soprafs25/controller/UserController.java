@@ -3,6 +3,7 @@ package ch.uzh.ifi.hase.soprafs25.controller;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,7 +19,10 @@ import org.springframework.web.server.ResponseStatusException;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.UserGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.UserPostDTO;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.UserSummaryGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.mapper.DTOMapper;
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+import ch.uzh.ifi.hase.soprafs25.service.KeysetPage;
 import ch.uzh.ifi.hase.soprafs25.service.UserService;
 import ch.uzh.ifi.hase.soprafs25.utils.AuthorizationUtil;
 
@@ -38,18 +42,18 @@ public class UserController {
     this.userService = userService;
   }
 
+    // one page of the users, see KeysetPageResponse
     @GetMapping("/users/all")
-    @ResponseStatus(HttpStatus.OK)
-    public List<UserGetDTO> getAllUsers(@RequestHeader("Authorization") String token) {
-        // Extract and validate token
-        token = AuthorizationUtil.extractToken(token);
-        userService.getUserByToken(token); // Verify user is authenticated
+    public ResponseEntity<List<UserSummaryGetDTO>> getAllUsers(AuthenticatedUser principal,
+                                                        @RequestParam(required = false) Long after,
+                                                        @RequestParam(required = false) Integer limit) {
+        // principal: only authenticated users get the list
 
-        // Fetch all users
-        List<User> users = userService.getUsers();
+        // Fetch one page of users
+        KeysetPage<User> users = userService.getUsers(after, limit);
 
-        // Convert to DTO and return
-        return DTOMapper.INSTANCE.convertEntityListToUserGetDTOList(users);
+        // Convert to DTO without watchlist and watched movies and return
+        return KeysetPageResponse.of(users.map(DTOMapper.INSTANCE::convertEntityToUserSummaryGetDTO));
     }
 
 // registration
@@ -78,9 +82,8 @@ public class UserController {
   @PostMapping("/logout")
   @ResponseStatus(HttpStatus.OK)
   public void logoutUser(@RequestHeader("Authorization") String token) {
-    // just for safety
+    // the token itself is invalidated, so it is not resolved into a principal first
     token = AuthorizationUtil.extractToken(token);
-    User user = userService.getUserByToken(token);
     userService.logoutUser(token);
   }
   
@@ -102,13 +105,11 @@ public class UserController {
   @GetMapping("/users/{userId}/profile")
   @ResponseStatus(HttpStatus.OK)
   @Transactional(readOnly = true)
-  public UserGetDTO getUserProfile(@PathVariable("userId") Long userId, @RequestHeader("Authorization") String token) {
-    token = AuthorizationUtil.extractToken(token);
-    User user = userService.getUserByToken(token);
-
-    if (!user.getUserId().equals(userId)) {
+  public UserGetDTO getUserProfile(@PathVariable("userId") Long userId, AuthenticatedUser principal) {
+    if (!principal.getUserId().equals(userId)) {
         throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to view this profile");
     }
+    User user = userService.getUserById(userId);
     return DTOMapper.INSTANCE.convertEntityToUserGetDTO(user);
   }
   
@@ -121,18 +122,11 @@ public class UserController {
   public UserGetDTO updateUserProfile(
         @PathVariable("userId") Long userId,
         @RequestBody UserPostDTO userPostDTO,
-        @RequestParam(required = false) String token,
-        @RequestHeader(value = "Authorization", required = false) String authHeader) {
-    
-    // Extract token from Authorization header if present
-    String effectiveToken = token;
-    if (authHeader != null && authHeader.startsWith("Bearer ")) {
-        effectiveToken = authHeader.substring(7);
+        AuthenticatedUser principal) {
+    if (!principal.getUserId().equals(userId)) {
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to update this profile");
     }
     
-    // Check if the token matches the user
-    userService.checkUserToken(userId, effectiveToken);
-    
     // Convert DTO to entity
     User userInput = DTOMapper.INSTANCE.convertUserPostDTOtoEntity(userPostDTO);
     
@@ -146,9 +140,7 @@ public class UserController {
 
   @GetMapping("/users/search")
   @ResponseStatus(HttpStatus.OK)
-  public List<UserGetDTO> searchUsersByUsername(@RequestParam(required = false) String username, @RequestHeader("Authorization") String token) {
-      token = AuthorizationUtil.extractToken(token);
-      userService.getUserByToken(token);
+  public List<UserGetDTO> searchUsersByUsername(@RequestParam(required = false) String username, AuthenticatedUser principal) {
       List<User> users = userService.searchUsersByUsername(username);
       return DTOMapper.INSTANCE.convertEntityListToUserGetDTOList(users);
   }
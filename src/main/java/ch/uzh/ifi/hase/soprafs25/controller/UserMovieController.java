@@ -3,8 +3,10 @@ package ch.uzh.ifi.hase.soprafs25.controller;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.MovieGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.mapper.DTOMapper;
+import ch.uzh.ifi.hase.soprafs25.service.KeysetPage;
 import ch.uzh.ifi.hase.soprafs25.service.UserMovieService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
@@ -25,13 +27,14 @@ public class UserMovieController {
     }
     
     /**
-     * GET /users/{userId}/watchlist - Get all movies in a user's watchlist
+     * GET /users/{userId}/watchlist - Get one page of the movies in a user's watchlist (see KeysetPageResponse)
      */
     @GetMapping("/users/{userId}/watchlist")
-    @ResponseStatus(HttpStatus.OK)
-    public List<MovieGetDTO> getWatchlist(@PathVariable("userId") Long userId) {
-        List<Movie> watchlist = userMovieService.getWatchlist(userId);
-        return convertMovieListToDTOList(watchlist);
+    public ResponseEntity<List<MovieGetDTO>> getWatchlist(@PathVariable("userId") Long userId,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false) Integer limit) {
+        KeysetPage<Movie> watchlist = userMovieService.getWatchlist(userId, after, limit);
+        return KeysetPageResponse.of(watchlist.map(DTOMapper.INSTANCE::convertEntityToMovieGetDTO));
     }
     
     /**
@@ -77,13 +80,14 @@ public class UserMovieController {
     }
     
     /**
-     * GET /users/{userId}/watched - Get all movies in a user's watched list
+     * GET /users/{userId}/watched - Get one page of the movies in a user's watched list (see KeysetPageResponse)
      */
     @GetMapping("/users/{userId}/watched")
-    @ResponseStatus(HttpStatus.OK)
-    public List<MovieGetDTO> getWatchedMovies(@PathVariable("userId") Long userId) {
-        List<Movie> watchedMovies = userMovieService.getWatchedMovies(userId);
-        return convertMovieListToDTOList(watchedMovies);
+    public ResponseEntity<List<MovieGetDTO>> getWatchedMovies(@PathVariable("userId") Long userId,
+                                                              @RequestParam(required = false) Long after,
+                                                              @RequestParam(required = false) Integer limit) {
+        KeysetPage<Movie> watchedMovies = userMovieService.getWatchedMovies(userId, after, limit);
+        return KeysetPageResponse.of(watchedMovies.map(DTOMapper.INSTANCE::convertEntityToMovieGetDTO));
     }
     
     /**
@@ -0,0 +1,114 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Compact form of a user's ballot within a group: a single row holding the ranked movie IDs,
+ * best first, packed as 8-byte big-endian values. Replaces one UserMovieRanking row per ranked movie
+ * when sopra.ranking.compact-ballots is set (see RankingService).
+ */
+@Entity
+@Table(name = "BALLOT",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"group_id", "user_id"}))
+public class Ballot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // maximum number of movies on a ballot, bounded by the column length
+    public static final int MAX_MOVIES = 512;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    @NotNull
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @NotNull
+    private User user;
+
+    @Column(name = "movie_ids", nullable = false, length = MAX_MOVIES * Long.BYTES)
+    @NotNull
+    private byte[] movieIds;
+
+    @Version
+    private int version; // incremented on every resubmission
+
+    @Column(nullable = false)
+    @NotNull
+    private LocalDateTime submittedAt;
+
+    /**
+     * Returns the ranked movie IDs, best first (the movie at index i has rank i + 1).
+     */
+    public long[] getRankedMovieIds() {
+        if (movieIds == null) {
+            return new long[0];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(movieIds);
+        long[] ids = new long[movieIds.length / Long.BYTES];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getLong();
+        }
+        return ids;
+    }
+
+    /**
+     * Stores the ranked movie IDs, best first.
+     */
+    public void setRankedMovieIds(long[] ids) {
+        if (ids.length > MAX_MOVIES) {
+            throw new IllegalArgumentException("A ballot holds at most " + MAX_MOVIES + " movies");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ids.length * Long.BYTES);
+        for (long id : ids) {
+            buffer.putLong(id);
+        }
+        this.movieIds = buffer.array();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    public void setGroup(Group group) {
+        this.group = group;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+}
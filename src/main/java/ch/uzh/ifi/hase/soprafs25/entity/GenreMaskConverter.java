@@ -0,0 +1,25 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import java.util.List;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import ch.uzh.ifi.hase.soprafs25.constant.MovieGenre;
+
+/**
+ * Stores a list of genre names as a bitmask over the TMDb genre set (see MovieGenre).
+ */
+@Converter
+public class GenreMaskConverter implements AttributeConverter<List<String>, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(List<String> genres) {
+        return genres == null ? 0L : MovieGenre.toMask(genres);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(Long mask) {
+        return MovieGenre.fromMask(mask == null ? 0L : mask);
+    }
+}
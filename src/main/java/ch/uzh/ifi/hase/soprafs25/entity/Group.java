@@ -7,8 +7,11 @@ import java.util.List;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
@@ -17,7 +20,9 @@ import javax.persistence.OneToOne;
 import javax.persistence.Table;
 
 @Entity
-@Table(name = "USER_GROUP")
+@Table(name = "USER_GROUP",
+        // the phase timer tick only reads the groups whose deadline has passed
+        indexes = @Index(name = "idx_user_group_phase_deadline", columnList = "phase_deadline"))
 public class Group implements Serializable {
 
     public enum GroupPhase {
@@ -26,9 +31,22 @@ public class Group implements Serializable {
         RESULTS
     }
 
+    // how the rankings of the members are turned into the group's result
+    public enum VotingMethod {
+        ADJUSTED_AVERAGE, // average rank, unranked movies count as rank 6
+        BORDA,
+        SCHULZE,
+        INSTANT_RUNOFF,
+        KEMENY
+    }
+
     @Column(nullable = false)
     private GroupPhase phase = GroupPhase.POOLING; // default phase
 
+    @Column
+    @Enumerated(EnumType.STRING)
+    private VotingMethod votingMethod = VotingMethod.ADJUSTED_AVERAGE;
+
     
     @Id
     @GeneratedValue
@@ -45,7 +63,11 @@ public class Group implements Serializable {
     @JoinTable(
             name = "group_members",
             joinColumns = @JoinColumn(name = "group_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = {
+                    @Index(name = "idx_group_members_group_user", columnList = "group_id, user_id"),
+                    @Index(name = "idx_group_members_user", columnList = "user_id")
+            }
     )
     private List<User> members;
 
@@ -62,6 +84,15 @@ public class Group implements Serializable {
 
     @Column
     private LocalDateTime phaseStartTime;
+
+    // end of the running phase timer (phase start + duration of the current phase), null if no timer runs;
+    // kept up to date by the setters of the values it is computed from
+    @Column(name = "phase_deadline")
+    private LocalDateTime phaseDeadline;
+
+    // set when rankings are submitted, cleared when the winner is recalculated
+    @Column
+    private Boolean rankingsDirty = false;
     
     public Long getGroupId() {
         return groupId;
@@ -108,6 +139,7 @@ public class Group implements Serializable {
 
     public void setPhase(GroupPhase phase) {
         this.phase = phase;
+        updatePhaseDeadline();
     }
 
     public Integer getPoolPhaseDuration() {
@@ -116,6 +148,7 @@ public class Group implements Serializable {
 
     public void setPoolPhaseDuration(Integer poolPhaseDuration) {
         this.poolPhaseDuration = poolPhaseDuration;
+        updatePhaseDeadline();
     }
 
     public Integer getVotingPhaseDuration() {
@@ -124,6 +157,7 @@ public class Group implements Serializable {
 
     public void setVotingPhaseDuration(Integer votingPhaseDuration) {
         this.votingPhaseDuration = votingPhaseDuration;
+        updatePhaseDeadline();
     }
 
     public LocalDateTime getPhaseStartTime() {
@@ -132,5 +166,41 @@ public class Group implements Serializable {
 
     public void setPhaseStartTime(LocalDateTime phaseStartTime) {
         this.phaseStartTime = phaseStartTime;
+        updatePhaseDeadline();
+    }
+
+    public LocalDateTime getPhaseDeadline() {
+        return phaseDeadline;
+    }
+
+    /**
+     * Recomputes the phase deadline from the phase, its start time and its duration.
+     */
+    public void updatePhaseDeadline() {
+        Integer duration = null;
+        if (phase == GroupPhase.POOLING) {
+            duration = poolPhaseDuration;
+        }
+        else if (phase == GroupPhase.VOTING) {
+            duration = votingPhaseDuration;
+        }
+        this.phaseDeadline = phaseStartTime != null && duration != null ? phaseStartTime.plusSeconds(duration) : null;
+    }
+
+    public boolean isRankingsDirty() {
+        return Boolean.TRUE.equals(rankingsDirty);
+    }
+
+    public void setRankingsDirty(boolean rankingsDirty) {
+        this.rankingsDirty = rankingsDirty;
+    }
+
+    public VotingMethod getVotingMethod() {
+        // groups created before voting methods existed have no value
+        return votingMethod != null ? votingMethod : VotingMethod.ADJUSTED_AVERAGE;
+    }
+
+    public void setVotingMethod(VotingMethod votingMethod) {
+        this.votingMethod = votingMethod;
     }
 }
\ No newline at end of file
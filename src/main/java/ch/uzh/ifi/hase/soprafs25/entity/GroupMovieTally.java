@@ -0,0 +1,85 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * Running tally of the submitted ranks for one movie within one group.
+ * Kept up to date by RankingService.submitRankings, so results can be computed
+ * from one row per pool movie instead of scanning every UserMovieRanking of the group.
+ */
+@Entity
+@Table(name = "GROUP_MOVIE_TALLY",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"group_id", "movie_id"}))
+public class GroupMovieTally implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    @NotNull
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "movie_id", nullable = false)
+    @NotNull
+    private Movie movie;
+
+    @Column(nullable = false)
+    private long rankSum; // sum of all ranks submitted for this movie in this group
+
+    @Column(nullable = false)
+    private int voteCount; // number of users that ranked this movie in this group
+
+    // Adds (sign = 1) or removes (sign = -1) a single submitted rank
+    public void apply(int rank, int sign) {
+        this.rankSum += (long) sign * rank;
+        this.voteCount += sign;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    public void setGroup(Group group) {
+        this.group = group;
+    }
+
+    public Movie getMovie() {
+        return movie;
+    }
+
+    public void setMovie(Movie movie) {
+        this.movie = movie;
+    }
+
+    public long getRankSum() {
+        return rankSum;
+    }
+
+    public void setRankSum(long rankSum) {
+        this.rankSum = rankSum;
+    }
+
+    public int getVoteCount() {
+        return voteCount;
+    }
+
+    public void setVoteCount(int voteCount) {
+        this.voteCount = voteCount;
+    }
+}
@@ -0,0 +1,93 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a movie's spoken languages, a list of ISO 639-1 codes as TMDb delivers them ("en", "es"),
+ * as one comma-separated column ("en,es").
+ * toNames/toCodes translate between codes and the native language names the API shows ("English", "Español").
+ */
+@Converter
+public class LanguageCodeConverter implements AttributeConverter<List<String>, String> {
+
+    private static final String SEPARATOR = ",";
+    private static final String NO_LANGUAGE_CODE = "xx";
+    private static final String NO_LANGUAGE_NAME = "No Language";
+
+    private static final Set<String> CODES = new HashSet<>(Arrays.asList(Locale.getISOLanguages()));
+    private static final Map<String, String> NAME_TO_CODE = new HashMap<>();
+    static {
+        for (String code : CODES) {
+            Locale locale = new Locale(code);
+            NAME_TO_CODE.put(locale.getDisplayLanguage(locale).toLowerCase(Locale.ROOT), code);
+            NAME_TO_CODE.putIfAbsent(locale.getDisplayLanguage(Locale.ENGLISH).toLowerCase(Locale.ROOT), code);
+        }
+        NAME_TO_CODE.put(NO_LANGUAGE_NAME.toLowerCase(Locale.ROOT), NO_LANGUAGE_CODE);
+    }
+
+    /**
+     * @return the native name of the language, or the code itself if it is not an ISO 639-1 code
+     */
+    public static String toName(String code) {
+        if (NO_LANGUAGE_CODE.equals(code)) {
+            return NO_LANGUAGE_NAME;
+        }
+        if (!CODES.contains(code)) {
+            return code;
+        }
+        Locale locale = new Locale(code);
+        String name = locale.getDisplayLanguage(locale);
+        return name.substring(0, 1).toUpperCase(locale) + name.substring(1);
+    }
+
+    /**
+     * @return the code of a native or English language name, or the trimmed name if no code matches
+     */
+    public static String toCode(String name) {
+        return NAME_TO_CODE.getOrDefault(name.trim().toLowerCase(Locale.ROOT), name.trim());
+    }
+
+    public static List<String> toNames(List<String> codes) {
+        if (codes == null) return null;
+        List<String> names = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            names.add(toName(code));
+        }
+        return names;
+    }
+
+    public static List<String> toCodes(List<String> names) {
+        if (names == null) return null;
+        List<String> codes = new ArrayList<>(names.size());
+        for (String name : names) {
+            codes.add(toCode(name));
+        }
+        return codes;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(List<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return null;
+        }
+        return String.join(SEPARATOR, codes);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String codes) {
+        if (codes == null || codes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(codes.split(SEPARATOR)));
+    }
+}
@@ -4,14 +4,17 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.persistence.CollectionTable;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
-import javax.persistence.ElementCollection;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Id;
-import javax.persistence.JoinColumn;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Internal Movie Representation
  * This class composes the internal representation of the movie and defines how
@@ -21,51 +24,46 @@ import javax.persistence.Table;
  * - nullable = false -> this cannot be left empty
  * - unique = true -> this value must be unqiue across the database -> composes
  * the primary key
+ *
+ * Genres, actors, directors and spoken languages are stored in the MOVIE row itself
+ * (a genre bitmask, JSON arrays and ISO 639-1 codes), so a movie is read with a single row.
+ *
+ * Movies are not changed once saved, so they are kept in the second-level cache (region "movie");
+ * changes made with SQL must be followed by MovieCacheService.evict.
  */
 
 @Entity
 @Table(name = "MOVIE")
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = Movie.CACHE_REGION)
 public class Movie implements Serializable {
 
+    public static final String CACHE_REGION = "movie";
+
     @Id
     private long movieId; // corresponds to TMDB API movie_id
 
     @Column
     private String title;
 
-    @ElementCollection
-    @CollectionTable(
-            name = "MOVIE_GENRES",
-            joinColumns = @JoinColumn(name = "movie_id")
-    )
-    @Column(name = "genre")
+    @Convert(converter = GenreMaskConverter.class)
+    @Column(name = "genre_mask")
     private List<String> genres = new ArrayList<>();
 
     @Column
     private Integer year;
 
-    @ElementCollection
-    @CollectionTable(
-            name = "MOVIE_ACTORS",
-            joinColumns = @JoinColumn(name = "movie_id")
-    )
-    @Column(name = "actor")
+    @Convert(converter = StringListJsonConverter.class)
+    @Column(name = "actors", length = 2000)
     private List<String> actors = new ArrayList<>();
 
-    @ElementCollection
-    @CollectionTable(
-            name = "MOVIE_DIRECTORS",
-            joinColumns = @JoinColumn(name = "movie_id")
-    )
-    @Column(name = "director")
+    @Convert(converter = StringListJsonConverter.class)
+    @Column(name = "directors", length = 1000)
     private List<String> directors = new ArrayList<>();
 
-    @ElementCollection
-    @CollectionTable(
-            name = "MOVIE_SPOKENLANGUAGES",
-            joinColumns = @JoinColumn(name = "movie_id")
-    )
-    @Column(name = "spokenlanguages")
+    @Convert(converter = LanguageCodeConverter.class)
+    @Column(name = "spoken_languages", length = 500)
     private List<String> spokenlanguages = new ArrayList<>();
 
     @Column
@@ -3,21 +3,20 @@ package ch.uzh.ifi.hase.soprafs25.entity;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
-import javax.persistence.CollectionTable;
+import javax.persistence.CascadeType;
 import javax.persistence.Column;
-import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
-import javax.persistence.JoinTable;
-import javax.persistence.ManyToMany;
-import javax.persistence.MapKeyJoinColumn;
+import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.OrderBy;
 import javax.persistence.Table;
 
 @Entity
@@ -32,21 +31,10 @@ public class MoviePool implements Serializable {
     @JoinColumn(name = "group_id", nullable = false, unique = true)
     private Group group;
 
-    @ManyToMany
-    @JoinTable(
-        name = "movie_pool_movies",
-        joinColumns = @JoinColumn(name = "pool_id"),
-        inverseJoinColumns = @JoinColumn(name = "movie_id")
-    )
-    private List<Movie> movies = new ArrayList<>();
-
-    // for checking number of added movies
-    @ElementCollection
-    @CollectionTable(name = "moviepool_user_movies", 
-        joinColumns = @JoinColumn(name = "pool_id"))
-    @MapKeyJoinColumn(name = "movie_id")
-    @Column(name = "user_id")
-    private Map<Movie, Long> userAddedMovies = new HashMap<>();
+    // one row per movie, with the member who added it
+    @OneToMany(mappedBy = "pool", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("addedAt")
+    private List<PoolEntry> entries = new ArrayList<>();
 
     @Column
     private LocalDateTime lastUpdated;
@@ -67,12 +55,15 @@ public class MoviePool implements Serializable {
         this.group = group;
     }
 
-    public List<Movie> getMovies() {
-        return movies;
+    public List<PoolEntry> getEntries() {
+        return entries;
     }
 
-    public void setMovies(List<Movie> movies) {
-        this.movies = movies;
+    // the movies of the pool in the order they were added; change the pool with addMovie and removeMovie
+    public List<Movie> getMovies() {
+        return Collections.unmodifiableList(entries.stream()
+            .map(PoolEntry::getMovie)
+            .collect(Collectors.toList()));
     }
 
     public LocalDateTime getLastUpdated() {
@@ -83,29 +74,21 @@ public class MoviePool implements Serializable {
         this.lastUpdated = lastUpdated;
     }
 
-    public Map<Movie, Long> getUserAddedMovies() {
-        return userAddedMovies;
-    }
-
-    public void setUserAddedMovies(Map<Movie, Long> userAddedMovies) {
-        this.userAddedMovies = userAddedMovies;
-    }
-
-    // to restrict number of suggestions to 2
+    // to restrict number of suggestions to 2; MoviePoolService counts in the database instead
     public int getMoviesAddedByUser(Long userId) {
-        return (int) userAddedMovies.values().stream()
-            .filter(id -> id.equals(userId))
+        return (int) entries.stream()
+            .filter(entry -> userId.equals(entry.getAddedBy()))
             .count();
     }
 
-    public void addMovie(Movie movie, Long userId) {
-        this.movies.add(movie);
-        this.userAddedMovies.put(movie, userId);
+    public PoolEntry addMovie(Movie movie, Long userId) {
+        PoolEntry entry = new PoolEntry(this, movie, userId);
+        this.entries.add(entry);
+        return entry;
     }
 
     public void removeMovie(Movie movie) {
-        this.movies.remove(movie);
-        this.userAddedMovies.remove(movie);
+        this.entries.removeIf(entry -> Objects.equals(entry.getMovie().getMovieId(), movie.getMovieId()));
     }
 
 } 
@@ -0,0 +1,108 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.MapsId;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A movie in a group's movie pool, with the member who added it.
+ * Adding or removing a movie inserts or deletes a single row; the per-member limit is
+ * checked with an indexed count over (pool_id, added_by).
+ * The key is assigned rather than generated, so the entry tells Spring Data whether it is new:
+ * saving a new entry then inserts it instead of first selecting it for a merge.
+ */
+@Entity
+@Table(name = "POOL_ENTRY",
+        indexes = @Index(name = "idx_pool_entry_pool_added_by", columnList = "pool_id, added_by"))
+public class PoolEntry implements Serializable, Persistable<PoolEntryId> {
+
+    private static final long serialVersionUID = 1L;
+
+    @EmbeddedId
+    private PoolEntryId id = new PoolEntryId();
+
+    @MapsId("poolId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pool_id")
+    private MoviePool pool;
+
+    @MapsId("movieId")
+    @ManyToOne
+    @JoinColumn(name = "movie_id")
+    private Movie movie;
+
+    @Column(name = "added_by")
+    private Long addedBy;
+
+    @Column(name = "added_at")
+    private LocalDateTime addedAt;
+
+    @Transient
+    private boolean persisted;
+
+    public PoolEntry() {
+    }
+
+    public PoolEntry(MoviePool pool, Movie movie, Long addedBy) {
+        this.id = new PoolEntryId(pool.getPoolId(), movie.getMovieId());
+        this.pool = pool;
+        this.movie = movie;
+        this.addedBy = addedBy;
+        this.addedAt = LocalDateTime.now();
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    // Getters and Setters
+    @Override
+    public PoolEntryId getId() {
+        return id;
+    }
+
+    public MoviePool getPool() {
+        return pool;
+    }
+
+    public Movie getMovie() {
+        return movie;
+    }
+
+    public Long getAddedBy() {
+        return addedBy;
+    }
+
+    public void setAddedBy(Long addedBy) {
+        this.addedBy = addedBy;
+    }
+
+    public LocalDateTime getAddedAt() {
+        return addedAt;
+    }
+
+    public void setAddedAt(LocalDateTime addedAt) {
+        this.addedAt = addedAt;
+    }
+}
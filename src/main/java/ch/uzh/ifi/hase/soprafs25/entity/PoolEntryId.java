@@ -0,0 +1,55 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * Key of a PoolEntry: a movie is in a pool at most once.
+ */
+@Embeddable
+public class PoolEntryId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "pool_id")
+    private Long poolId;
+
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    public PoolEntryId() {
+    }
+
+    public PoolEntryId(Long poolId, Long movieId) {
+        this.poolId = poolId;
+        this.movieId = movieId;
+    }
+
+    public Long getPoolId() {
+        return poolId;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PoolEntryId)) {
+            return false;
+        }
+        PoolEntryId other = (PoolEntryId) o;
+        return Objects.equals(poolId, other.poolId) && Objects.equals(movieId, other.movieId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(poolId, movieId);
+    }
+}
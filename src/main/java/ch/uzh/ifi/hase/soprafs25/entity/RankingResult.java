@@ -6,7 +6,9 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "RANKING_RESULT")
+@Table(name = "RANKING_RESULT",
+        // the latest result of a group is a single index seek
+        indexes = @Index(name = "idx_ranking_result_group_timestamp", columnList = "group_id, calculation_timestamp DESC"))
 public class RankingResult implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -33,7 +35,7 @@ public class RankingResult implements Serializable {
     @NotNull
     private Double averageRank; // Store the calculated average rank
 
-    @Column(nullable = false)
+    @Column(name = "calculation_timestamp", nullable = false)
     @NotNull
     private LocalDateTime calculationTimestamp;
 
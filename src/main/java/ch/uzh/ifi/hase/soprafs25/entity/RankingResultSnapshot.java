@@ -0,0 +1,80 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized RankingResultsDTO of a group, taken when the group enters the RESULTS phase.
+ * Rankings can no longer change from then on, so the snapshot is served as is together with its ETag.
+ */
+@Entity
+@Table(name = "RANKING_RESULT_SNAPSHOT")
+public class RankingResultSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false, unique = true)
+    @NotNull
+    private Group group;
+
+    @Lob
+    @Column(nullable = false)
+    @NotNull
+    private String payload; // JSON of the RankingResultsDTO
+
+    @Column(nullable = false)
+    @NotNull
+    private String etag; // strong ETag (quoted SHA-256 of the payload)
+
+    @Column(nullable = false)
+    @NotNull
+    private LocalDateTime createdAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    public void setGroup(Group group) {
+        this.group = group;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
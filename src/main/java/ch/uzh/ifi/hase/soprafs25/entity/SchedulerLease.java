@@ -0,0 +1,67 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A lease on a named scheduled job (or job partition), held by one application instance until it expires.
+ * Every acquisition increments the fencing token, so work started under an older lease can be recognised
+ * and rejected once the lease has been taken over (see LeaseService).
+ * Live instances announce themselves with a lease named "node:" + their node ID.
+ */
+@Entity
+@Table(name = "SCHEDULER_LEASE")
+public class SchedulerLease implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 128)
+    private String name;
+
+    @Column(nullable = false)
+    @NotNull
+    private String owner;
+
+    @Column(nullable = false)
+    private long fencingToken;
+
+    @Column(nullable = false)
+    @NotNull
+    private LocalDateTime expiresAt;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public void setFencingToken(long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,56 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * Revokes all signed tokens of a user issued before a point in time, written on logout
+ * and when a new login replaces the previous token (see TokenRevocationService).
+ * A revocation is only needed until the tokens it covers have expired, so rows older than
+ * the token lifetime are deleted.
+ */
+@Entity
+@Table(name = "TOKEN_REVOCATION",
+        indexes = @Index(name = "idx_token_revocation_revoked_before", columnList = "revoked_before"))
+public class TokenRevocation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    @NotNull
+    private Long userId;
+
+    // epoch milliseconds, tokens issued before are revoked
+    @Column(nullable = false)
+    private long revokedBefore;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getRevokedBefore() {
+        return revokedBefore;
+    }
+
+    public void setRevokedBefore(long revokedBefore) {
+        this.revokedBefore = revokedBefore;
+    }
+}
@@ -4,6 +4,8 @@ import java.io.Serializable;
 import java.util.*;
 import javax.persistence.*;
 
+import org.hibernate.annotations.BatchSize;
+
 import ch.uzh.ifi.hase.soprafs25.constant.UserStatus;
 
 /**
@@ -18,6 +20,7 @@ import ch.uzh.ifi.hase.soprafs25.constant.UserStatus;
  */
 @Entity
 @Table(name = "APP_USER")
+@EntityListeners(UserTokenListener.class)
 public class User implements Serializable {
 
     // private static final long serialVersionUID = 1L;
@@ -49,26 +52,32 @@ public class User implements Serializable {
     @JoinColumn(name = "favorite_movie_id")
     private Movie favoriteMovie;
 
+    // the collections below are loaded for up to 50 users at once, e.g. for the creators of several groups
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "user_favorite_genres", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "genre")
     private List<String> favoriteGenres;
 
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "user_favorite_actors", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "actor")
     private List<String> favoriteActors;
 
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "user_favorite_directors", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "director_name")
     private List<String> favoriteDirectors;
 
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(name = "user_watchlist", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "movie_id"))
     private List<Movie> watchlist;
 
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(name = "user_watched_movies", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "movie_id"))
     private List<Movie> watchedMovies;;
 
@@ -11,8 +11,10 @@ public class UserMovieRanking implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Sequence instead of IDENTITY so Hibernate can batch the inserts of a ballot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_movie_ranking_seq")
+    @SequenceGenerator(name = "user_movie_ranking_seq", sequenceName = "user_movie_ranking_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,56 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ch.uzh.ifi.hase.soprafs25.service.PrincipalCache;
+
+/**
+ * Evicts the cached principals of a user whenever the user is stored or removed,
+ * in particular when login or logout changes its token.
+ * The principals are evicted at flush time and again once the transaction has completed, so a principal
+ * that a concurrent request cached from the old token before the commit is not kept.
+ * Created by Hibernate through the Spring bean container, so the cache is injected
+ * (it is absent in contexts without the service layer, e.g. repository tests).
+ */
+public class UserTokenListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public UserTokenListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PrePersist
+    @PreUpdate
+    @PreRemove
+    public void evictPrincipals(User user) {
+        principalCache.ifAvailable(cache -> {
+            String token = user.getToken();
+            Long userId = user.getUserId();
+            evict(cache, token, userId);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        evict(cache, token, userId);
+                    }
+                });
+            }
+        });
+    }
+
+    private static void evict(PrincipalCache cache, String token, Long userId) {
+        if (token != null) {
+            cache.evictToken(token);
+        }
+        if (userId != null) {
+            cache.evictUser(userId);
+        }
+    }
+}
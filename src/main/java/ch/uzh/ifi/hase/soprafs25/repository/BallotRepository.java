@@ -0,0 +1,35 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Ballot;
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository("ballotRepository")
+public interface BallotRepository extends JpaRepository<Ballot, Long> {
+
+    // Find the ballot of a user within a group
+    Optional<Ballot> findByUserAndGroup(User user, Group group);
+
+    // Find all ballots of a group
+    List<Ballot> findByGroup(Group group);
+
+    // Number of users that submitted a ballot for a group
+    long countByGroup(Group group);
+
+    // IDs of the users that submitted a ballot for a group
+    @Query("SELECT b.user.userId FROM Ballot b WHERE b.group = :group")
+    List<Long> findVoterIdsByGroup(@Param("group") Group group);
+
+    // Delete all ballots of a group in one statement (used when the group is deleted)
+    @Modifying
+    @Query("DELETE FROM Ballot b WHERE b.group = :group")
+    void deleteByGroup(@Param("group") Group group);
+}
@@ -1,5 +1,8 @@
 package ch.uzh.ifi.hase.soprafs25.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,4 +11,10 @@ import ch.uzh.ifi.hase.soprafs25.entity.FriendRequest;
 @Repository("friendRequestRepository")
 public interface FriendRequestRepository extends JpaRepository<FriendRequest, Long> {
 
+    // keyset pages (see KeysetPage) of the pending requests a user sent or received, after the given request ID
+    List<FriendRequest> findBySender_UserIdAndResponseTimeIsNullAndRequestIdGreaterThanOrderByRequestIdAsc(
+            Long senderId, Long after, Pageable pageable);
+    List<FriendRequest> findByReceiver_UserIdAndResponseTimeIsNullAndRequestIdGreaterThanOrderByRequestIdAsc(
+            Long receiverId, Long after, Pageable pageable);
+
 }
@@ -2,6 +2,7 @@ package ch.uzh.ifi.hase.soprafs25.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -25,9 +26,15 @@ public interface GroupInvitationRepository extends JpaRepository<GroupInvitation
     boolean existsByGroupAndReceiverAndResponseTimeIsNull(Group group, User receiver);
 
     // find pending invitations for deletion
-    List<GroupInvitation> findAllByGroupAndReceiverAndResponseTimeIsNull(Group group, User receiver);
+    List<GroupInvitation> findAllByGroup_GroupIdAndReceiver_UserIdAndResponseTimeIsNull(Long groupId, Long receiverId);
 
     // for handling "pending" requests
     List<GroupInvitation> findAllBySender_UserIdAndResponseTimeIsNull(Long senderId);
     List<GroupInvitation> findAllByReceiver_UserIdAndResponseTimeIsNull(Long receiverId);
+
+    // keyset pages (see KeysetPage) of the pending invitations, after the given invitation ID
+    List<GroupInvitation> findBySender_UserIdAndResponseTimeIsNullAndInvitationIdGreaterThanOrderByInvitationIdAsc(
+            Long senderId, Long after, Pageable pageable);
+    List<GroupInvitation> findByReceiver_UserIdAndResponseTimeIsNullAndInvitationIdGreaterThanOrderByInvitationIdAsc(
+            Long receiverId, Long after, Pageable pageable);
 } 
\ No newline at end of file
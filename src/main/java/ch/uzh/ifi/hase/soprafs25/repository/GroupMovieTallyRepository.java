@@ -0,0 +1,23 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.entity.GroupMovieTally;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository("groupMovieTallyRepository")
+public interface GroupMovieTallyRepository extends JpaRepository<GroupMovieTally, Long> {
+
+    // Find all tallies of a group (one per ranked movie)
+    List<GroupMovieTally> findByGroup(Group group);
+
+    // Delete all tallies of a group in one statement (used when the group is deleted)
+    @Modifying
+    @Query("DELETE FROM GroupMovieTally t WHERE t.group = :group")
+    void deleteByGroup(@Param("group") Group group);
+}
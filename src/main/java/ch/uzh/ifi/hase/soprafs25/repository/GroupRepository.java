@@ -1,14 +1,81 @@
 package ch.uzh.ifi.hase.soprafs25.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
 
 @Repository("groupRepository")
-public interface GroupRepository extends JpaRepository<Group, Long> {
+public interface GroupRepository extends JpaRepository<Group, Long>, GroupRepositoryCustom {
     Group findByGroupName(String groupName);
     List<Group> findAllByMembers_UserId(Long userId);
+
+    // membership check on the group_members index, without loading the members
+    boolean existsByGroupIdAndMembers_UserId(Long groupId, Long userId);
+
+    // number of members of a group, counted on group_members without loading the members
+    @Query(value = "SELECT COUNT(*) FROM group_members WHERE group_id = :groupId", nativeQuery = true)
+    long countMembers(@Param("groupId") Long groupId);
+
+    // keyset page (see KeysetPage) of the groups of a member, after the given group ID
+    @Query("SELECT g.groupId FROM Group g JOIN g.members m WHERE m.userId = :userId AND g.groupId > :after "
+            + "ORDER BY g.groupId")
+    List<Long> findGroupIdsByMemberIdAfter(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+
+    // the groups with their creator, members (and their favorite movies) and movie pool in one query
+    @Query("SELECT DISTINCT g FROM Group g JOIN FETCH g.creator c LEFT JOIN FETCH c.favoriteMovie "
+            + "LEFT JOIN FETCH g.members m LEFT JOIN FETCH m.favoriteMovie LEFT JOIN FETCH g.moviePool "
+            + "WHERE g.groupId IN :groupIds ORDER BY g.groupId")
+    List<Group> findAllWithDetailsByGroupIdIn(@Param("groupIds") Collection<Long> groupIds);
+
+    // loads the group and locks its row until the end of the transaction,
+    // so concurrent ranking submissions of one group update its tallies one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Group> findWithLockByGroupId(Long groupId);
+
+    // IDs of the groups in a scheduler partition (groupId mod partitions) whose rankings changed
+    // since their winner was last calculated
+    @Query("SELECT g.groupId FROM Group g WHERE g.rankingsDirty = true AND MOD(g.groupId, :partitions) = :partition")
+    List<Long> findDirtyGroupIds(@Param("partition") int partition, @Param("partitions") int partitions);
+
+    // (groupId, votingPhaseDuration) of the groups in a phase and scheduler partition whose timer has run out,
+    // read from the deadline index
+    @Query("SELECT g.groupId, g.votingPhaseDuration FROM Group g WHERE g.phaseDeadline <= :now AND g.phase = :phase "
+            + "AND MOD(g.groupId, :partitions) = :partition")
+    List<Object[]> findDueGroups(@Param("phase") Group.GroupPhase phase, @Param("now") LocalDateTime now,
+                                 @Param("partition") int partition, @Param("partitions") int partitions);
+
+    // moves groups from one phase to the next in one statement and restarts their timer,
+    // all given groups must share the same new deadline
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Group g SET g.phase = :to, g.phaseStartTime = :startTime, g.phaseDeadline = :deadline "
+            + "WHERE g.groupId IN :groupIds AND g.phase = :from")
+    int startPhase(@Param("groupIds") Collection<Long> groupIds, @Param("from") Group.GroupPhase from,
+                   @Param("to") Group.GroupPhase to, @Param("startTime") LocalDateTime startTime,
+                   @Param("deadline") LocalDateTime deadline);
+
+    // moves groups from one phase to the next in one statement, without a timer for the new phase
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Group g SET g.phase = :to, g.phaseDeadline = NULL WHERE g.groupId IN :groupIds AND g.phase = :from")
+    int endPhase(@Param("groupIds") Collection<Long> groupIds, @Param("from") Group.GroupPhase from,
+                 @Param("to") Group.GroupPhase to);
+
+    // (groupId, phaseDeadline) of every group with a running phase timer
+    @Query("SELECT g.groupId, g.phaseDeadline FROM Group g WHERE g.phaseDeadline IS NOT NULL")
+    List<Object[]> findRunningPhaseTimers();
+
+    // groups with a running timer but no deadline yet (stored before the deadline column existed)
+    List<Group> findByPhaseDeadlineIsNullAndPhaseStartTimeIsNotNullAndPhaseNot(Group.GroupPhase phase);
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+// statements on the group_members join table, which has no entity of its own (see GroupRepositoryCustomImpl)
+public interface GroupRepositoryCustom {
+
+    /**
+     * Deletes the single group_members row of the user, without loading the members of the group.
+     *
+     * @return the number of deleted rows, 0 if the user was not a member
+     */
+    int deleteMember(Group group, Long userId);
+}
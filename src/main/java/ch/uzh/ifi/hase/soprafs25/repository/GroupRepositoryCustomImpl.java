@@ -0,0 +1,39 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Hibernate;
+import org.hibernate.query.NativeQuery;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+/**
+ * Removing an element of the members bag would load all members and make Hibernate delete and re-insert
+ * every group_members row of the group, so a member is removed with one native DELETE instead.
+ * The statement declares group_members as its only query space, so Hibernate does not evict
+ * the second-level cache regions of unrelated entities (such as Movie) after it.
+ */
+public class GroupRepositoryCustomImpl implements GroupRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int deleteMember(Group group, Long userId) {
+        // pending changes of the group are written first, so refreshing it below does not drop them
+        entityManager.flush();
+        int deleted = entityManager
+                .createNativeQuery("DELETE FROM group_members WHERE group_id = :groupId AND user_id = :userId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("group_members")
+                .setParameter("groupId", group.getGroupId())
+                .setParameter("userId", userId)
+                .executeUpdate();
+        // a members list loaded before still contains the user
+        if (entityManager.contains(group) && Hibernate.isInitialized(group.getMembers())) {
+            entityManager.refresh(group);
+        }
+        return deleted;
+    }
+}
@@ -1,6 +1,11 @@
 package ch.uzh.ifi.hase.soprafs25.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
@@ -9,4 +14,8 @@ import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
 public interface MoviePoolRepository extends JpaRepository<MoviePool, Long> {
     
     MoviePool findByGroup_GroupId(Long groupId);
+
+    // initializes the entries and their movies of several pools in one query
+    @Query("SELECT DISTINCT p FROM MoviePool p LEFT JOIN FETCH p.entries e LEFT JOIN FETCH e.movie WHERE p.poolId IN :poolIds")
+    List<MoviePool> findWithMoviesByPoolIdIn(@Param("poolIds") Collection<Long> poolIds);
 } 
\ No newline at end of file
@@ -1,10 +1,13 @@
 package ch.uzh.ifi.hase.soprafs25.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import javax.persistence.QueryHint;
 import java.util.stream.Collectors;
 
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
@@ -12,10 +15,25 @@ import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 @Repository("movieRepository")
 public interface MovieRepository extends JpaRepository<Movie, Long> {
 
+    String QUERY_CACHE_REGION = "movie-queries";
+
+    // the result (the movie ID) is cached until the movie table changes, the movie itself comes from its region
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = QUERY_CACHE_REGION)
+    })
     Movie findByMovieId(long movieId);
 
     List<Movie> findByTitleContaining(String title);
 
+    // keyset pages (see KeysetPage) of the watchlist and watched movies of a user, after the given movie ID
+    @Query("SELECT m FROM User u JOIN u.watchlist m WHERE u.userId = :userId AND m.movieId > :after ORDER BY m.movieId")
+    List<Movie> findWatchlistAfter(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT m FROM User u JOIN u.watchedMovies m WHERE u.userId = :userId AND m.movieId > :after "
+            + "ORDER BY m.movieId")
+    List<Movie> findWatchedMoviesAfter(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+
     List<Movie> findByYearEquals(Integer year);
 
     @Query("SELECT DISTINCT m FROM Movie m WHERE " +
@@ -0,0 +1,18 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.PoolEntry;
+import ch.uzh.ifi.hase.soprafs25.entity.PoolEntryId;
+
+@Repository("poolEntryRepository")
+public interface PoolEntryRepository extends JpaRepository<PoolEntry, PoolEntryId> {
+
+    // number of movies a member has added to a pool, read from the (pool_id, added_by) index
+    long countByPool_PoolIdAndAddedBy(Long poolId, Long addedBy);
+
+    boolean existsByPool_PoolIdAndMovie_MovieId(Long poolId, Long movieId);
+
+    PoolEntry findByPool_PoolIdAndMovie_MovieId(Long poolId, Long movieId);
+}
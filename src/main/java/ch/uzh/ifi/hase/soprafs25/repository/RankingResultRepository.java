@@ -2,7 +2,11 @@ package ch.uzh.ifi.hase.soprafs25.repository;
 
 import ch.uzh.ifi.hase.soprafs25.entity.RankingResult;
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,5 +24,19 @@ public interface RankingResultRepository extends JpaRepository<RankingResult, Lo
     // Find all ranking results for a specific group
     List<RankingResult> findByGroup(Group group);
 
+    // Find the groups that have more results than the retention keeps
+    @Query("SELECT r.group.groupId FROM RankingResult r GROUP BY r.group.groupId HAVING COUNT(r) > :keep")
+    List<Long> findGroupIdsWithMoreResultsThan(@Param("keep") long keep);
+
+    // Find the result ids of a group, newest first (ids only, so no entities are loaded)
+    @Query("SELECT r.id FROM RankingResult r WHERE r.group.groupId = :groupId "
+            + "ORDER BY r.calculationTimestamp DESC, r.id DESC")
+    List<Long> findIdsByGroupIdNewestFirst(@Param("groupId") Long groupId, Pageable pageable);
+
+    // Delete a batch of results in one statement
+    @Modifying
+    @Query("DELETE FROM RankingResult r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
     // Could add methods to find results by rankingPeriodId if that's implemented
 }
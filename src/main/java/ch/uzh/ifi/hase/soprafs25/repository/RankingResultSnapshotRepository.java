@@ -0,0 +1,23 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.entity.RankingResultSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository("rankingResultSnapshotRepository")
+public interface RankingResultSnapshotRepository extends JpaRepository<RankingResultSnapshot, Long> {
+
+    // Find the results snapshot of a group without loading the group itself
+    Optional<RankingResultSnapshot> findByGroup_GroupId(Long groupId);
+
+    // Delete the results snapshot of a group (used when the group is deleted)
+    @Modifying
+    @Query("DELETE FROM RankingResultSnapshot s WHERE s.group = :group")
+    void deleteByGroup(@Param("group") Group group);
+}
@@ -0,0 +1,51 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository("schedulerLeaseRepository")
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // lease times are taken from the database clock, so the clocks of the instances do not matter
+    @Query(value = "SELECT CAST(CURRENT_TIMESTAMP AS TIMESTAMP)", nativeQuery = true)
+    Timestamp currentTimestamp();
+
+    // takes over an expired lease or renews an own one in one conditional statement,
+    // every acquisition increments the fencing token
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.expiresAt = :expiresAt, l.fencingToken = l.fencingToken + 1 "
+            + "WHERE l.name = :name AND (l.expiresAt <= :now OR l.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // lets a lease expire right away, unless it has been taken over meanwhile
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.expiresAt = CURRENT_TIMESTAMP "
+            + "WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :fencingToken")
+    int release(@Param("name") String name, @Param("owner") String owner,
+                @Param("fencingToken") long fencingToken);
+
+    // the lease if it is still held with the given fencing token; its row stays locked until the end of
+    // the transaction, so the lease cannot be taken over (acquire waits) while fenced work runs
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM SchedulerLease l WHERE l.name = :name AND l.owner = :owner "
+            + "AND l.fencingToken = :fencingToken AND l.expiresAt > CURRENT_TIMESTAMP")
+    Optional<SchedulerLease> findHeldWithLock(@Param("name") String name, @Param("owner") String owner,
+                                              @Param("fencingToken") long fencingToken);
+
+    // owners of the unexpired leases whose name starts with the prefix, e.g. the live nodes
+    @Query("SELECT l.owner FROM SchedulerLease l WHERE l.name LIKE CONCAT(:prefix, '%') "
+            + "AND l.expiresAt > CURRENT_TIMESTAMP ORDER BY l.owner")
+    List<String> findLiveOwners(@Param("prefix") String prefix);
+}
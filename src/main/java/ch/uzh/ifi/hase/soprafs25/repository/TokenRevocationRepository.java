@@ -0,0 +1,21 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository("tokenRevocationRepository")
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByRevokedBeforeGreaterThan(long since);
+
+    // revocations whose tokens have all expired
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.revokedBefore < :expiredBefore")
+    int deleteExpired(@Param("expiredBefore") long expiredBefore);
+}
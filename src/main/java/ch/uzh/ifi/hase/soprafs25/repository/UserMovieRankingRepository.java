@@ -3,7 +3,12 @@ package ch.uzh.ifi.hase.soprafs25.repository;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.entity.UserMovieRanking;
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.BallotEntryDTO;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.MovieRankAggregateDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,12 +31,32 @@ public interface UserMovieRankingRepository extends JpaRepository<UserMovieRanki
     @Transactional
     void deleteByUser(User user);
 
-    // Delete all rankings by a user for a specific group
+    // Delete all rankings by a user for a specific group in one statement
     @Transactional
-    void deleteByUserAndGroup(User user, Group group);
+    @Modifying
+    @Query("DELETE FROM UserMovieRanking r WHERE r.user = :user AND r.group = :group")
+    int deleteByUserAndGroup(@Param("user") User user, @Param("group") Group group);
 
     // Find rankings by user and group
     List<UserMovieRanking> findByUserAndGroup(User user, Group group);
 
+    // Sum and count of the submitted ranks per movie of a group, aggregated in the database
+    @Query("SELECT new ch.uzh.ifi.hase.soprafs25.rest.dto.MovieRankAggregateDTO(r.movie.movieId, SUM(r.rank), COUNT(r)) " +
+           "FROM UserMovieRanking r WHERE r.group = :group GROUP BY r.movie.movieId")
+    List<MovieRankAggregateDTO> aggregateRanksByGroup(@Param("group") Group group);
+
+    // Number of users that submitted rankings for a group
+    @Query("SELECT COUNT(DISTINCT r.user.userId) FROM UserMovieRanking r WHERE r.group = :group")
+    long countVotersByGroup(@Param("group") Group group);
+
+    // All rankings of a group as (user, movie, rank), ordered ballot by ballot from the best rank
+    @Query("SELECT new ch.uzh.ifi.hase.soprafs25.rest.dto.BallotEntryDTO(r.user.userId, r.movie.movieId, r.rank) " +
+           "FROM UserMovieRanking r WHERE r.group = :group ORDER BY r.user.userId, r.rank")
+    List<BallotEntryDTO> findBallotEntriesByGroup(@Param("group") Group group);
+
+    // IDs of the users that submitted rankings for a group
+    @Query("SELECT DISTINCT r.user.userId FROM UserMovieRanking r WHERE r.group = :group")
+    List<Long> findVoterIdsByGroup(@Param("group") Group group);
+
     // You might need more specific queries later, e.g., finding all rankings for a specific "ranking period" if you add that concept.
 }
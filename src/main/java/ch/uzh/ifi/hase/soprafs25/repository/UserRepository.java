@@ -2,10 +2,14 @@ package ch.uzh.ifi.hase.soprafs25.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ch.uzh.ifi.hase.soprafs25.entity.User;
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
 
 @Repository("userRepository")
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -15,7 +19,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
   User findByEmail(String email);
   User findByToken(String token);
 
+  // the principal of the user with the token, without loading the user entity
+  @Query("SELECT new ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser(u.userId) FROM User u WHERE u.token = :token")
+  AuthenticatedUser findPrincipalByToken(@Param("token") String token);
+
   // to find all matches when searching for a friend
   List<User> findByUsernameContainingIgnoreCase(String username);
 
+  // keyset pages (see KeysetPage): the users, the friends of a user after the given user ID
+  List<User> findByUserIdGreaterThanOrderByUserIdAsc(Long after, Pageable pageable);
+
+  @Query("SELECT f FROM User u JOIN u.friends f WHERE u.userId = :userId AND f.userId > :after ORDER BY f.userId")
+  List<User> findFriendsAfter(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+
 }
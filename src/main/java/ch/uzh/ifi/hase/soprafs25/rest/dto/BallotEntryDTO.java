@@ -0,0 +1,30 @@
+package ch.uzh.ifi.hase.soprafs25.rest.dto;
+
+/**
+ * Projection of one submitted ranking (see UserMovieRankingRepository.findBallotEntriesByGroup),
+ * used to build the ballots of a group without loading the ranking entities.
+ */
+public class BallotEntryDTO {
+
+    private Long userId;
+    private Long movieId;
+    private Integer rank;
+
+    public BallotEntryDTO(Long userId, Long movieId, Integer rank) {
+        this.userId = userId;
+        this.movieId = movieId;
+        this.rank = rank;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public Integer getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,80 @@
+package ch.uzh.ifi.hase.soprafs25.rest.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change within a group pushed to its members (GET /groups/{groupId}/events).
+ * Depending on the type, only some of the fields are set:
+ * PHASE (phase, phaseDeadline), POOL (movieId, userId, added), VOTED (userId) and DELETED.
+ */
+public class GroupEventDTO {
+
+    public static final String PHASE = "PHASE";
+    public static final String POOL = "POOL";
+    public static final String VOTED = "VOTED";
+    public static final String DELETED = "DELETED";
+
+    private String type;
+    private Long groupId;
+    private String phase;
+    private LocalDateTime phaseDeadline;
+    private Long movieId;
+    private Long userId;
+    private Boolean added;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public LocalDateTime getPhaseDeadline() {
+        return phaseDeadline;
+    }
+
+    public void setPhaseDeadline(LocalDateTime phaseDeadline) {
+        this.phaseDeadline = phaseDeadline;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public void setMovieId(Long movieId) {
+        this.movieId = movieId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Boolean getAdded() {
+        return added;
+    }
+
+    public void setAdded(Boolean added) {
+        this.added = added;
+    }
+}
@@ -14,6 +14,7 @@ public class GroupGetDTO {
     private List<Long> movieIds;
     private List<MovieGetDTO> movies;
     private String phase;
+    private String votingMethod;
     private Integer poolPhaseDuration;
     private Integer votingPhaseDuration;
     private LocalDateTime phaseStartTime;
@@ -114,4 +115,12 @@ public class GroupGetDTO {
     public void setRemainingTime(Long remainingTime) {
         this.remainingTime = remainingTime;
     }
-} 
\ No newline at end of file
+
+    public String getVotingMethod() {
+        return votingMethod;
+    }
+
+    public void setVotingMethod(String votingMethod) {
+        this.votingMethod = votingMethod;
+    }
+}
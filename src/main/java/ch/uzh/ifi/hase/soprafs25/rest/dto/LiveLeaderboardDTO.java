@@ -0,0 +1,29 @@
+package ch.uzh.ifi.hase.soprafs25.rest.dto;
+
+import java.util.List;
+
+/**
+ * Live standings of a group during the VOTING phase, pushed to subscribed members.
+ */
+public class LiveLeaderboardDTO {
+    private Long groupId;
+    private String phase;
+    private int numberOfVoters;
+    private int numberOfMembers;
+    private List<MovieAverageRankDTO> standings;
+
+    public Long getGroupId() { return groupId; }
+    public void setGroupId(Long groupId) { this.groupId = groupId; }
+
+    public String getPhase() { return phase; }
+    public void setPhase(String phase) { this.phase = phase; }
+
+    public int getNumberOfVoters() { return numberOfVoters; }
+    public void setNumberOfVoters(int numberOfVoters) { this.numberOfVoters = numberOfVoters; }
+
+    public int getNumberOfMembers() { return numberOfMembers; }
+    public void setNumberOfMembers(int numberOfMembers) { this.numberOfMembers = numberOfMembers; }
+
+    public List<MovieAverageRankDTO> getStandings() { return standings; }
+    public void setStandings(List<MovieAverageRankDTO> standings) { this.standings = standings; }
+}
@@ -0,0 +1,30 @@
+package ch.uzh.ifi.hase.soprafs25.rest.dto;
+
+/**
+ * Projection of the rankings submitted for one movie within a group,
+ * aggregated by the database (see UserMovieRankingRepository.aggregateRanksByGroup).
+ */
+public class MovieRankAggregateDTO {
+
+    private Long movieId;
+    private long rankSum; // sum of all ranks submitted for the movie
+    private long voteCount; // number of rankings submitted for the movie
+
+    public MovieRankAggregateDTO(Long movieId, Long rankSum, Long voteCount) {
+        this.movieId = movieId;
+        this.rankSum = rankSum != null ? rankSum : 0;
+        this.voteCount = voteCount != null ? voteCount : 0;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public long getRankSum() {
+        return rankSum;
+    }
+
+    public long getVoteCount() {
+        return voteCount;
+    }
+}
@@ -0,0 +1,43 @@
+package ch.uzh.ifi.hase.soprafs25.rest.dto;
+
+import ch.uzh.ifi.hase.soprafs25.constant.UserStatus;
+
+// a user in a listing, without the movie lists of UserGetDTO
+public class UserSummaryGetDTO {
+    private Long userId;
+    private String username;
+    private UserStatus status;
+    private String bio;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public UserStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(UserStatus status) {
+        this.status = status;
+    }
+
+    public String getBio() {
+        return bio;
+    }
+
+    public void setBio(String bio) {
+        this.bio = bio;
+    }
+}
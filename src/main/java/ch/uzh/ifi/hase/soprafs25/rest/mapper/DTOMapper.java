@@ -5,12 +5,14 @@ import java.util.stream.Collectors;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.mapstruct.ReportingPolicy;
 import org.mapstruct.factory.Mappers;
 
 import ch.uzh.ifi.hase.soprafs25.entity.FriendRequest;
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import ch.uzh.ifi.hase.soprafs25.entity.GroupInvitation;
+import ch.uzh.ifi.hase.soprafs25.entity.LanguageCodeConverter;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
 import ch.uzh.ifi.hase.soprafs25.entity.RankingResult;
@@ -28,6 +30,7 @@ import ch.uzh.ifi.hase.soprafs25.rest.dto.MovieRankGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.RankingResultGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.UserGetDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.UserPostDTO;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.UserSummaryGetDTO;
 
 /**
  * DTOMapper
@@ -69,13 +72,19 @@ public interface DTOMapper {
     // for friends search
     List<UserGetDTO> convertEntityListToUserGetDTOList(List<User> users);
 
+    @Mapping(source = "userId", target = "userId")
+    @Mapping(source = "username", target = "username")
+    @Mapping(source = "status", target = "status")
+    @Mapping(source = "bio", target = "bio")
+    UserSummaryGetDTO convertEntityToUserSummaryGetDTO(User user);
+
     @Mapping(source = "movieId", target = "movieId")
     @Mapping(source = "title", target = "title")
     @Mapping(source = "genres", target = "genres")
     @Mapping(source = "year", target = "year")
     @Mapping(source = "actors", target = "actors")
     @Mapping(source = "directors", target = "directors")
-    @Mapping(source = "spokenlanguages", target = "spokenlanguages")
+    @Mapping(source = "spokenlanguages", target = "spokenlanguages", qualifiedByName = "languageNamesToCodes")
     @Mapping(source = "originallanguage", target = "originallanguage")
     @Mapping(source = "trailerURL", target = "trailerURL")
     @Mapping(source = "posterURL", target = "posterURL")
@@ -88,7 +97,7 @@ public interface DTOMapper {
     @Mapping(source = "year", target = "year")
     @Mapping(source = "actors", target = "actors")
     @Mapping(source = "directors", target = "directors")
-    @Mapping(source = "spokenlanguages", target = "spokenlanguages")
+    @Mapping(source = "spokenlanguages", target = "spokenlanguages", qualifiedByName = "languageCodesToNames")
     @Mapping(source = "originallanguage", target = "originallanguage")
     @Mapping(source = "posterURL", target = "posterURL")
     @Mapping(source = "trailerURL", target = "trailerURL")
@@ -110,6 +119,7 @@ public interface DTOMapper {
     @Mapping(source = "members", target = "memberIds")
     @Mapping(source = "moviePool.movies", target = "movieIds")
     @Mapping(expression = "java(group.getPhase().name())", target = "phase")
+    @Mapping(expression = "java(group.getVotingMethod().name())", target = "votingMethod")
     @Mapping(source = "poolPhaseDuration", target = "poolPhaseDuration")
     @Mapping(source = "votingPhaseDuration", target = "votingPhaseDuration")
     @Mapping(source = "phaseStartTime", target = "phaseStartTime")
@@ -190,6 +200,17 @@ public interface DTOMapper {
                   .collect(Collectors.toList());
     }
 
+    // movies store ISO 639-1 codes, the API shows native language names
+    @Named("languageCodesToNames")
+    default List<String> languageCodesToNames(List<String> codes) {
+      return LanguageCodeConverter.toNames(codes);
+    }
+
+    @Named("languageNamesToCodes")
+    default List<String> languageNamesToCodes(List<String> names) {
+      return LanguageCodeConverter.toCodes(names);
+    }
+
     // for convenient transformation of list of movies to list of movieGetDTO
     default List<MovieGetDTO> convertEntityListToMovieGetDTOList(List<Movie> movies) {
       if (movies == null) return null;
@@ -0,0 +1,174 @@
+package ch.uzh.ifi.hase.soprafs25.scheduler;
+
+import ch.uzh.ifi.hase.soprafs25.service.GroupService;
+import ch.uzh.ifi.hase.soprafs25.service.LeaseService;
+import ch.uzh.ifi.hase.soprafs25.service.PartitionLease;
+import ch.uzh.ifi.hase.soprafs25.service.PhaseDeadlineChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires the phase transition (POOLING -> VOTING, VOTING -> RESULTS) of every group with a running timer
+ * at its deadline, instead of waiting for the next database poll.
+ * Timers are kept in memory in a delay queue: loaded from the database at startup and updated whenever
+ * GroupService changes a phase deadline. The database poll stays as a low-frequency safety net,
+ * e.g. for timers of another instance or timers lost on a restart.
+ * With several instances, a timer may fire on more than one of them: GroupService.advanceDuePhase locks
+ * the group and re-checks its deadline, so only the first one moves the group on. The poll is partitioned
+ * between the instances with leases (see LeaseService).
+ */
+@Component
+public class PhaseTimerScheduler implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(PhaseTimerScheduler.class);
+
+    static final String POLL_JOB = "phase-timers";
+
+    private final GroupService groupService;
+    private final LeaseService leaseService;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<Long, PhaseTimer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PhaseTimerScheduler(GroupService groupService, LeaseService leaseService) {
+        this.groupService = groupService;
+        this.leaseService = leaseService;
+        this.executor = new ScheduledThreadPoolExecutor(1);
+        // cancelled timers are removed from the queue right away instead of at their deadline
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Loads the running timers of all groups once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTimers() {
+        groupService.backfillPhaseDeadlines();
+        int loaded = 0;
+        for (Object[] timer : groupService.getRunningPhaseTimers()) {
+            schedule((Long) timer[0], (LocalDateTime) timer[1]);
+            loaded++;
+        }
+        log.info("Loaded {} phase timers.", loaded);
+    }
+
+    /**
+     * Safety net poll: moves on the due groups of every partition leased by this instance.
+     * Runs at a fixed rate (sopra.scheduling.phase-timers.safety-net-rate, in milliseconds).
+     */
+    @Scheduled(fixedRateString = "${sopra.scheduling.phase-timers.safety-net-rate:60000}")
+    public void pollDueGroups() {
+        List<PartitionLease> leases = leaseService.acquirePartitions(POLL_JOB);
+        try {
+            for (PartitionLease lease : leases) {
+                try {
+                    leaseService.runFenced(lease, () -> {
+                        groupService.checkPhaseTimers(lease.getPartition(), lease.getPartitionCount());
+                        return true;
+                    });
+                } catch (Exception e) {
+                    // Log error for specific partition but continue with others
+                    log.error("Error checking phase timers of partition {}: {}", lease.getPartition(), e.getMessage(), e);
+                }
+            }
+        } finally {
+            leases.forEach(leaseService::release);
+        }
+    }
+
+    /**
+     * (Re)schedules or cancels the transition of a group once the deadline change has been committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPhaseDeadlineChanged(PhaseDeadlineChangedEvent event) {
+        schedule(event.getGroupId(), event.getDeadline());
+    }
+
+    /**
+     * Schedules the transition of a group at the given deadline, replacing a previously scheduled one.
+     * A null deadline only cancels the scheduled transition.
+     */
+    public void schedule(Long groupId, LocalDateTime deadline) {
+        if (deadline == null) {
+            cancel(groupId);
+            return;
+        }
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), deadline).toMillis());
+        PhaseTimer timer = new PhaseTimer(groupId);
+        PhaseTimer previous = timers.put(groupId, timer);
+        if (previous != null) {
+            previous.cancel();
+        }
+        timer.future = executor.schedule(timer, delay, TimeUnit.MILLISECONDS);
+    }
+
+    public void cancel(Long groupId) {
+        PhaseTimer previous = timers.remove(groupId);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    int getScheduledCount() {
+        return timers.size();
+    }
+
+    private void fire(Long groupId) {
+        try {
+            LocalDateTime nextDeadline = groupService.advanceDuePhase(groupId);
+            if (nextDeadline != null) {
+                schedule(groupId, nextDeadline);
+            }
+        } catch (Exception e) {
+            // the safety net poll picks the group up later
+            log.error("Error advancing phase of group ID {}: {}", groupId, e.getMessage(), e);
+        }
+    }
+
+    private final class PhaseTimer implements Runnable {
+
+        private final Long groupId;
+        private volatile ScheduledFuture<?> future;
+
+        PhaseTimer(Long groupId) {
+            this.groupId = groupId;
+        }
+
+        @Override
+        public void run() {
+            // only fires if it has not been replaced meanwhile
+            if (timers.remove(groupId, this)) {
+                fire(groupId);
+            }
+        }
+
+        void cancel() {
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
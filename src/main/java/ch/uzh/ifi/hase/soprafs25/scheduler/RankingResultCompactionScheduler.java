@@ -0,0 +1,52 @@
+package ch.uzh.ifi.hase.soprafs25.scheduler;
+
+import ch.uzh.ifi.hase.soprafs25.service.RankingResultRetentionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class RankingResultCompactionScheduler {
+
+    private final Logger log = LoggerFactory.getLogger(RankingResultCompactionScheduler.class);
+
+    private final RankingResultRetentionService retentionService;
+
+    @Autowired
+    public RankingResultCompactionScheduler(RankingResultRetentionService retentionService) {
+        this.retentionService = retentionService;
+    }
+
+    /**
+     * Scheduled task to delete the ranking results that are no longer retained.
+     * Runs with a fixed delay (sopra.scheduling.ranking-compaction.delay, in milliseconds).
+     * Every batch is deleted in its own short transaction, so the table is never locked for long.
+     */
+    @Scheduled(fixedDelayString = "${sopra.scheduling.ranking-compaction.delay:3600000}",
+            initialDelayString = "${sopra.scheduling.ranking-compaction.initial-delay:60000}")
+    public void compactRankingResults() {
+        List<Long> groupIds = retentionService.findGroupsToCompact();
+        if (groupIds.isEmpty()) {
+            return;
+        }
+
+        long deleted = 0;
+        for (Long groupId : groupIds) {
+            try {
+                int batchDeleted;
+                do {
+                    batchDeleted = retentionService.compactGroup(groupId);
+                    deleted += batchDeleted;
+                } while (batchDeleted >= retentionService.getBatchSize());
+            } catch (Exception e) {
+                // Log error for specific group but continue with others
+                log.error("Error compacting ranking results of group ID {}: {}", groupId, e.getMessage(), e);
+            }
+        }
+        log.info("Ranking result compaction deleted {} results of {} groups.", deleted, groupIds.size());
+    }
+}
@@ -1,61 +1,117 @@
 package ch.uzh.ifi.hase.soprafs25.scheduler;
 
+import ch.uzh.ifi.hase.soprafs25.service.LeaseService;
+import ch.uzh.ifi.hase.soprafs25.service.PartitionLease;
 import ch.uzh.ifi.hase.soprafs25.service.RankingService;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
-import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Component
-public class RankingScheduler {
+public class RankingScheduler implements DisposableBean {
 
     private final Logger log = LoggerFactory.getLogger(RankingScheduler.class);
 
+    static final String JOB = "ranking-winner";
+
     private final RankingService rankingService;
     private final GroupRepository groupRepository;
+    private final LeaseService leaseService;
+    private final ExecutorService executor;
 
     /**
      * Constructor for dependency injection.
      * @param rankingService The service responsible for ranking logic.
      * @param groupRepository Repository to access group data.
+     * @param leaseService Service leasing the partitions of groups this instance calculates.
+     * @param threads Number of groups calculated in parallel (sopra.scheduling.ranking.threads).
      */
     @Autowired
-    public RankingScheduler(RankingService rankingService, GroupRepository groupRepository) {
+    public RankingScheduler(RankingService rankingService, GroupRepository groupRepository, LeaseService leaseService,
+                            @Value("${sopra.scheduling.ranking.threads:4}") int threads) {
         this.rankingService = rankingService;
         this.groupRepository = groupRepository;
+        this.leaseService = leaseService;
+        this.executor = Executors.newFixedThreadPool(threads);
     }
 
     /**
      * Scheduled task to calculate the ranking winner.
      * Runs periodically based on the cron expression defined in application.properties 
      * (sopra.scheduling.ranking.cron).
-     * Fetches all groups and calculates the winner for each.
+     * Only groups with rankings submitted since their last calculation are processed, in parallel.
+     * Every group is calculated in its own transaction, so a failing group does not affect the others.
+     * With several instances, each one only calculates the groups of the partitions it has leased,
+     * and only while it still holds the lease (see LeaseService).
      */
     @Scheduled(cron = "${sopra.scheduling.ranking.cron:0 0 0 * * ?}") // Default to midnight daily if property not set
     public void calculateWinner() {
         log.info("Ranking calculation scheduler started.");
-        List<Group> allGroups = groupRepository.findAll();
+        List<PartitionLease> leases = leaseService.acquirePartitions(JOB);
+        try {
+            calculateWinners(leases);
+        } finally {
+            leases.forEach(leaseService::release);
+        }
+    }
 
-        if (allGroups.isEmpty()) {
-            log.info("No groups found. Skipping ranking calculation.");
+    private void calculateWinners(List<PartitionLease> leases) {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (PartitionLease lease : leases) {
+            for (Long groupId : groupRepository.findDirtyGroupIds(lease.getPartition(), lease.getPartitionCount())) {
+                tasks.add(() -> {
+                    try {
+                        log.debug("Calculating winner for group ID: {}", groupId);
+                        return leaseService.runFenced(lease, () -> rankingService.recalculateWinnerIfDirty(groupId))
+                                .orElse(false);
+                    } catch (Exception e) {
+                        // Log error for specific group but continue with others
+                        log.error("Error calculating winner for group ID {}: {}", groupId, e.getMessage(), e);
+                        return false;
+                    }
+                });
+            }
+        }
+
+        if (tasks.isEmpty()) {
+            log.info("No groups with new rankings. Skipping ranking calculation.");
             return;
         }
 
-        log.info("Calculating ranking winners for {} groups.", allGroups.size());
-        for (Group group : allGroups) {
-            try {
-                log.debug("Calculating winner for group ID: {}", group.getGroupId());
-                rankingService.calculateAndSaveWinner(group.getGroupId());
-            } catch (Exception e) {
-                // Log error for specific group but continue with others
-                log.error("Error calculating winner for group ID {}: {}", group.getGroupId(), e.getMessage(), e);
+        log.info("Calculating ranking winners for {} groups.", tasks.size());
+        int saved = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (Boolean.TRUE.equals(result.get())) {
+                    saved++;
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Ranking calculation scheduler interrupted.");
+            return;
+        } catch (ExecutionException e) {
+            // tasks catch their own exceptions, so this should not happen
+            log.error("Ranking calculation failed: {}", e.getMessage(), e);
         }
-        log.info("Ranking calculation scheduler finished.");
+        log.info("Ranking calculation scheduler finished, {} new results saved.", saved);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
     }
 }
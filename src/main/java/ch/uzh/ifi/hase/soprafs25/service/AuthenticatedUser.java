@@ -0,0 +1,24 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.io.Serializable;
+
+/**
+ * The authenticated user of a request: the immutable part of a user needed to authorize it.
+ * Resolved once per request from the Authorization token (see TokenAuthenticationFilter)
+ * and passed to controller methods that declare a parameter of this type.
+ * A signed token carries only the user ID, so the principal holds nothing else.
+ */
+public final class AuthenticatedUser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+
+    public AuthenticatedUser(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
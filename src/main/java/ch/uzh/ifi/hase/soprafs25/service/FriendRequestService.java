@@ -1,7 +1,6 @@
 package ch.uzh.ifi.hase.soprafs25.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -97,23 +96,36 @@ public class FriendRequestService {
         return friendRequestRepository.save(request);
     }
 
-    public List<FriendRequest> getPendingReceivedRequests(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
-        return user.getReceivedFriendRequests().stream()
-        // check if Responsetime is set which happens only after actual Response
-            .filter(req -> req.getResponseTime() == null)
-            .collect(Collectors.toList());
+    // one page of the friends of a user, ordered by user ID (see KeysetPage)
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getFriends(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        checkUserExists(userId);
+        List<User> friends = userRepository.findFriendsAfter(userId, KeysetPage.after(after),
+            KeysetPage.fetch(pageSize));
+        return KeysetPage.of(friends, pageSize, User::getUserId);
     }
 
-    public List<FriendRequest> getPendingSentRequests(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    // one page of the pending requests a user received, ordered by request ID (see KeysetPage)
+    @Transactional(readOnly = true)
+    public KeysetPage<FriendRequest> getPendingReceivedRequests(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        checkUserExists(userId);
+        List<FriendRequest> requests = friendRequestRepository
+            .findByReceiver_UserIdAndResponseTimeIsNullAndRequestIdGreaterThanOrderByRequestIdAsc(
+                userId, KeysetPage.after(after), KeysetPage.fetch(pageSize));
+        return KeysetPage.of(requests, pageSize, FriendRequest::getRequestId);
+    }
 
-        return user.getSentFriendRequests().stream()
-            .filter(req -> req.getResponseTime() == null)
-            .collect(Collectors.toList());
+    // one page of the pending requests a user sent, ordered by request ID (see KeysetPage)
+    @Transactional(readOnly = true)
+    public KeysetPage<FriendRequest> getPendingSentRequests(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        checkUserExists(userId);
+        List<FriendRequest> requests = friendRequestRepository
+            .findBySender_UserIdAndResponseTimeIsNullAndRequestIdGreaterThanOrderByRequestIdAsc(
+                userId, KeysetPage.after(after), KeysetPage.fetch(pageSize));
+        return KeysetPage.of(requests, pageSize, FriendRequest::getRequestId);
     }
 
     public User removeFriend(Long userId, Long friendId) {
@@ -157,4 +169,10 @@ public class FriendRequestService {
         return receiver.getReceivedFriendRequests().stream()
             .anyMatch(req -> req.getSender().equals(sender) && req.getResponseTime() == null);
     }
-} 
\ No newline at end of file
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+    }
+}
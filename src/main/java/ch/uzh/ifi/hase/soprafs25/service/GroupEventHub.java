@@ -0,0 +1,311 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.GroupEventDTO;
+
+/**
+ * Group Event Hub
+ * Pushes the changes of a group to its subscribed members (Server-Sent Events): phase transitions and
+ * deadline updates, pool changes and first-time votes. Clients no longer need to poll the timer and
+ * vote state endpoints to learn about them.
+ * All connections share one fan-out: events are put into a bounded buffer per connection
+ * (sopra.group-events.buffer-size) and sent by a small shared pool of sender threads, so a slow client
+ * never blocks the publisher. A client whose buffer overflows is disconnected and is expected to reconnect,
+ * which sends it the current state again. Idle connections get a heartbeat comment
+ * (sopra.group-events.heartbeat-interval), which also detects closed connections.
+ * The connections of a user who leaves or is removed from a group are closed once the change has committed.
+ */
+@Service
+public class GroupEventHub implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(GroupEventHub.class);
+
+    static final String EVENT_NAME = "group";
+
+    // marker for a heartbeat in a connection's buffer
+    private static final GroupEventDTO HEARTBEAT = new GroupEventDTO();
+
+    private final GroupService groupService;
+    private final long emitterTimeout;
+    private final int bufferSize;
+    private final ExecutorService sender;
+
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GroupEventHub(GroupService groupService,
+                         @Value("${sopra.group-events.emitter-timeout:1800000}") long emitterTimeout,
+                         @Value("${sopra.group-events.buffer-size:32}") int bufferSize,
+                         @Value("${sopra.group-events.sender-threads:2}") int senderThreads) {
+        this(groupService, emitterTimeout, bufferSize, Executors.newFixedThreadPool(senderThreads));
+    }
+
+    GroupEventHub(GroupService groupService, long emitterTimeout, int bufferSize, ExecutorService sender) {
+        this.groupService = groupService;
+        this.emitterTimeout = emitterTimeout;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.sender = sender;
+    }
+
+    /**
+     * Subscribes a group member to the events of the group.
+     * The current phase and phase deadline are sent immediately. They are read once the connection is registered,
+     * so a phase change committed in between is either part of that state or delivered as an event.
+     *
+     * @param groupId the group ID
+     * @param userId  the ID of the subscribing user
+     * @return the emitter streaming the events
+     * @throws org.springframework.web.server.ResponseStatusException 404 if the group does not exist,
+     *         403 if the user is not a member
+     */
+    public SseEmitter subscribe(Long groupId, Long userId) {
+        if (!groupService.isUserMemberOfGroup(groupId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not a member of this group");
+        }
+
+        Connection connection = new Connection(groupId, userId, new SseEmitter(emitterTimeout), bufferSize);
+        connections.compute(groupId, (id, groupConnections) -> {
+            List<Connection> updated = groupConnections != null ? groupConnections : new CopyOnWriteArrayList<>();
+            updated.add(connection);
+            return updated;
+        });
+        connection.emitter.onCompletion(() -> remove(connection));
+        connection.emitter.onTimeout(() -> remove(connection));
+        connection.emitter.onError(e -> remove(connection));
+
+        Group group;
+        try {
+            group = groupService.getGroup(groupId, userId);
+        } catch (RuntimeException e) {
+            // deleted, or the user left, since the membership check
+            close(connection);
+            throw e;
+        }
+        offer(connection, phaseEvent(groupId, group.getPhase(), group.getPhaseDeadline()));
+        log.debug("User {} subscribed to the events of group {}", userId, groupId);
+        return connection.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPhaseDeadlineChanged(PhaseDeadlineChangedEvent event) {
+        if (event.getPhase() == null) {
+            GroupEventDTO deleted = new GroupEventDTO();
+            deleted.setType(GroupEventDTO.DELETED);
+            deleted.setGroupId(event.getGroupId());
+            publish(event.getGroupId(), deleted);
+        }
+        else {
+            publish(event.getGroupId(), phaseEvent(event.getGroupId(), event.getPhase(), event.getDeadline()));
+        }
+    }
+
+    /**
+     * A user who left or was removed no longer receives the events of the group.
+     * Joining publishes the event as well, but a user has no connections to a group before being a member.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        List<Connection> groupConnections = connections.get(event.getGroupId());
+        if (groupConnections == null || event.getUserId() == null) {
+            // a deleted group is closed by its DELETED event
+            return;
+        }
+        for (Connection connection : groupConnections) {
+            if (event.getUserId().equals(connection.userId)) {
+                log.debug("Closing the group {} events of former member {}", event.getGroupId(), event.getUserId());
+                close(connection);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPoolChanged(PoolChangedEvent event) {
+        GroupEventDTO pool = new GroupEventDTO();
+        pool.setType(GroupEventDTO.POOL);
+        pool.setGroupId(event.getGroupId());
+        pool.setMovieId(event.getMovieId());
+        pool.setUserId(event.getUserId());
+        pool.setAdded(event.isAdded());
+        publish(event.getGroupId(), pool);
+    }
+
+    /**
+     * Only a user's first ballot changes the set of voters; resubmissions are not pushed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRankingsSubmitted(RankingsSubmittedEvent event) {
+        if (!event.isFirstSubmission()) {
+            return;
+        }
+        GroupEventDTO voted = new GroupEventDTO();
+        voted.setType(GroupEventDTO.VOTED);
+        voted.setGroupId(event.getGroupId());
+        voted.setUserId(event.getUserId());
+        publish(event.getGroupId(), voted);
+    }
+
+    /**
+     * Sends a heartbeat to every idle connection.
+     * Runs at a fixed rate (sopra.group-events.heartbeat-interval, in milliseconds).
+     */
+    @Scheduled(fixedRateString = "${sopra.group-events.heartbeat-interval:15000}")
+    public void sendHeartbeats() {
+        for (List<Connection> groupConnections : connections.values()) {
+            for (Connection connection : groupConnections) {
+                if (connection.buffer.isEmpty()) {
+                    offer(connection, HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    private void publish(Long groupId, GroupEventDTO event) {
+        List<Connection> groupConnections = connections.get(groupId);
+        if (groupConnections == null) {
+            return;
+        }
+        for (Connection connection : groupConnections) {
+            offer(connection, event);
+        }
+    }
+
+    // Buffers the event and makes sure a sender drains the connection; a full buffer drops the connection
+    private void offer(Connection connection, GroupEventDTO event) {
+        if (!connection.buffer.offer(event)) {
+            log.debug("Dropping slow subscriber of group {}", connection.groupId);
+            close(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    // Sends the buffered events of a connection in order; at most one sender drains a connection at a time
+    private void drain(Connection connection) {
+        try {
+            GroupEventDTO event;
+            while ((event = connection.buffer.poll()) != null) {
+                if (!send(connection.emitter, event)) {
+                    close(connection);
+                    return;
+                }
+                if (GroupEventDTO.DELETED.equals(event.getType())) {
+                    close(connection);
+                    return;
+                }
+            }
+        } finally {
+            connection.draining.set(false);
+        }
+        // an event buffered after the last poll, but before draining was reset, is sent now
+        if (!connection.buffer.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private boolean send(SseEmitter emitter, GroupEventDTO event) {
+        try {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            else {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(event, MediaType.APPLICATION_JSON));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // client disconnected or emitter already completed
+            log.debug("Dropping group event subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void close(Connection connection) {
+        remove(connection);
+        connection.buffer.clear();
+        connection.emitter.complete();
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.groupId, (id, groupConnections) -> {
+            groupConnections.remove(connection);
+            return groupConnections.isEmpty() ? null : groupConnections;
+        });
+    }
+
+    private GroupEventDTO phaseEvent(Long groupId, Group.GroupPhase phase, LocalDateTime deadline) {
+        GroupEventDTO event = new GroupEventDTO();
+        event.setType(GroupEventDTO.PHASE);
+        event.setGroupId(groupId);
+        event.setPhase(phase.name());
+        event.setPhaseDeadline(deadline);
+        return event;
+    }
+
+    int getConnectionCount(Long groupId) {
+        List<Connection> groupConnections = connections.get(groupId);
+        return groupConnections != null ? groupConnections.size() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+        for (List<Connection> groupConnections : new ArrayList<>(connections.values())) {
+            groupConnections.forEach(connection -> connection.emitter.complete());
+        }
+        connections.clear();
+    }
+
+    private static final class Connection {
+
+        private final Long groupId;
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<GroupEventDTO> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(Long groupId, Long userId, SseEmitter emitter, int bufferSize) {
+            this.groupId = groupId;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
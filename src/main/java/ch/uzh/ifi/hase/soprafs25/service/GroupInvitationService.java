@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,12 +24,17 @@ public class GroupInvitationService {
     private final GroupInvitationRepository groupInvitationRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final MembershipService membershipService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public GroupInvitationService(GroupInvitationRepository groupInvitationRepository, GroupRepository groupRepository, UserRepository userRepository) {
+    public GroupInvitationService(GroupInvitationRepository groupInvitationRepository, GroupRepository groupRepository, UserRepository userRepository,
+                                  MembershipService membershipService, ApplicationEventPublisher eventPublisher) {
         this.groupInvitationRepository = groupInvitationRepository;
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
+        this.membershipService = membershipService;
+        this.eventPublisher = eventPublisher;
     }
 
     public GroupInvitation sendInvitation(Long groupId, Long senderId, Long receiverId) {
@@ -43,12 +49,12 @@ public class GroupInvitationService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Receiver not found"));
 
         // Check if the sender is a member of the group
-        if (!group.getMembers().contains(sender)) {
+        if (!membershipService.isMember(groupId, senderId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only group members can send invitations");
         }
 
         // Check if the receiver is already a member
-        if (group.getMembers().contains(receiver)) {
+        if (membershipService.isMember(groupId, receiverId)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "User is already a member of the group");
         }
 
@@ -93,6 +99,34 @@ public class GroupInvitationService {
         return groupInvitationRepository.findAllByReceiver_UserIdAndResponseTimeIsNull(userId);
     }
 
+    // one page of the pending invitations a user sent, ordered by invitation ID (see KeysetPage)
+    @Transactional(readOnly = true)
+    public KeysetPage<GroupInvitation> getPendingSentInvitations(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        checkUserExists(userId);
+        List<GroupInvitation> invitations = groupInvitationRepository
+                .findBySender_UserIdAndResponseTimeIsNullAndInvitationIdGreaterThanOrderByInvitationIdAsc(
+                        userId, KeysetPage.after(after), KeysetPage.fetch(pageSize));
+        return KeysetPage.of(invitations, pageSize, GroupInvitation::getInvitationId);
+    }
+
+    // one page of the pending invitations a user received, ordered by invitation ID (see KeysetPage)
+    @Transactional(readOnly = true)
+    public KeysetPage<GroupInvitation> getPendingReceivedInvitations(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        checkUserExists(userId);
+        List<GroupInvitation> invitations = groupInvitationRepository
+                .findByReceiver_UserIdAndResponseTimeIsNullAndInvitationIdGreaterThanOrderByInvitationIdAsc(
+                        userId, KeysetPage.after(after), KeysetPage.fetch(pageSize));
+        return KeysetPage.of(invitations, pageSize, GroupInvitation::getInvitationId);
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+    }
+
     // instead of reject/accept one fucntion
     public GroupInvitation respondToInvitation(Long invitationId, Long userId, boolean accept) {
 
@@ -113,6 +147,7 @@ public class GroupInvitationService {
             Group group = invitation.getGroup();
             group.getMembers().add(invitation.getReceiver());
             groupRepository.save(group);
+            eventPublisher.publishEvent(new MembershipChangedEvent(group.getGroupId(), userId));
         }
 
         return groupInvitationRepository.save(invitation);
@@ -3,14 +3,20 @@ package ch.uzh.ifi.hase.soprafs25.service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -21,10 +27,13 @@ import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
 import ch.uzh.ifi.hase.soprafs25.entity.RankingResult;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.entity.UserMovieRanking;
+import ch.uzh.ifi.hase.soprafs25.repository.BallotRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupInvitationRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.GroupMovieTallyRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.MovieRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.RankingResultRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.RankingResultSnapshotRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.UserMovieRankingRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.UserRepository;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.VotingStatusDTO;
@@ -43,13 +52,23 @@ public class GroupService {
     private final UserMovieRankingRepository userMovieRankingRepository;
     private final RankingResultRepository rankingResultRepository;
     private final GroupInvitationRepository groupInvitationRepository;
+    private final GroupMovieTallyRepository groupMovieTallyRepository;
+    private final RankingResultSnapshotRepository rankingResultSnapshotRepository;
+    private final BallotRepository ballotRepository;
+    private final MembershipService membershipService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public GroupService(GroupRepository groupRepository, UserRepository userRepository,
                             MovieRepository movieRepository, MoviePoolService moviePoolService,
                             UserMovieRankingRepository userMovieRankingRepository,
                             RankingResultRepository rankingResultRepository,
-                            GroupInvitationRepository groupInvitationRepository){
+                            GroupInvitationRepository groupInvitationRepository,
+                            GroupMovieTallyRepository groupMovieTallyRepository,
+                            RankingResultSnapshotRepository rankingResultSnapshotRepository,
+                            BallotRepository ballotRepository,
+                            MembershipService membershipService,
+                            ApplicationEventPublisher eventPublisher){
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.movieRepository = movieRepository;
@@ -57,6 +76,11 @@ public class GroupService {
         this.userMovieRankingRepository = userMovieRankingRepository;
         this.rankingResultRepository = rankingResultRepository;
         this.groupInvitationRepository = groupInvitationRepository;
+        this.groupMovieTallyRepository = groupMovieTallyRepository;
+        this.rankingResultSnapshotRepository = rankingResultSnapshotRepository;
+        this.ballotRepository = ballotRepository;
+        this.membershipService = membershipService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Group createGroup(String groupName, Long creatorId){
@@ -131,6 +155,12 @@ public class GroupService {
         if (!groupRankings.isEmpty()) {
             userMovieRankingRepository.deleteAll(groupRankings);
         }
+        // Remove the compact ballots of this group
+        ballotRepository.deleteByGroup(group);
+        // Remove the ranking tallies of this group
+        groupMovieTallyRepository.deleteByGroup(group);
+        // Remove the results snapshot of this group
+        rankingResultSnapshotRepository.deleteByGroup(group);
         // Remove ranking results associated with this group
         List<RankingResult> results = rankingResultRepository.findByGroup(group);
         if (!results.isEmpty()) {
@@ -142,17 +172,24 @@ public class GroupService {
             groupInvitationRepository.deleteAll(invites);
         }
         groupRepository.delete(group);
+        eventPublisher.publishEvent(new PhaseDeadlineChangedEvent(groupId, null, null));
+        eventPublisher.publishEvent(new MembershipChangedEvent(groupId, null));
     }
 
     public boolean isUserMemberOfGroup(Long groupId, Long userId) {
-        Group group = groupRepository.findById(groupId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
-        return group.getMembers().stream()
-                .anyMatch(member -> member.getUserId().equals(userId));
+        if (membershipService.isMember(groupId, userId)) {
+            return true;
+        }
+        // only members are cached as existing groups, so a non-member check tells a missing group apart
+        if (!groupRepository.existsById(groupId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found");
+        }
+        return false;
     }
 
     public Group getGroup(Long groupId, Long userId){
         Group group = groupRepository.findById(groupId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
-        boolean isMember = isUserMemberOfGroup(groupId, userId);
+        boolean isMember = membershipService.isMember(groupId, userId);
         if(isMember){
             return group;
         }
@@ -165,28 +202,50 @@ public class GroupService {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
         // check if provided user is actually member of provided group
-        if (!group.getMembers().contains(user)) {
+        if (!membershipService.isMember(groupId, userId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not a member of this group");
         }
 
-        group.getMembers().remove(user);
-        groupRepository.save(group);
+        // deletes the one group_members row, without loading the members
+        groupRepository.deleteMember(group, userId);
+        eventPublisher.publishEvent(new MembershipChangedEvent(groupId, userId));
 
         // Clean up any pending invitations for this user in this group
-        List<GroupInvitation> pendingInvites = groupInvitationRepository.findAllByGroupAndReceiverAndResponseTimeIsNull(group, user);
+        List<GroupInvitation> pendingInvites =
+                groupInvitationRepository.findAllByGroup_GroupIdAndReceiver_UserIdAndResponseTimeIsNull(groupId, userId);
         if (!pendingInvites.isEmpty()) {
             groupInvitationRepository.deleteAll(pendingInvites);
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Group> getGroupsByUserId(Long userId) {
         return groupRepository.findAllByMembers_UserId(userId);
     }
 
+    /**
+     * One page of the groups of a user for display, ordered by group ID (see KeysetPage): the group IDs of
+     * the page are looked up on the group_members index, then the groups are loaded for display: creators,
+     * members, movie pools and pool movies are fetched up front, in two queries independent of the page size.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Group> getGroupsWithPoolsByUserId(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        KeysetPage<Long> groupIds = KeysetPage.of(
+                groupRepository.findGroupIdsByMemberIdAfter(userId, KeysetPage.after(after), KeysetPage.fetch(pageSize)),
+                pageSize, groupId -> groupId);
+        if (groupIds.getItems().isEmpty()) {
+            return new KeysetPage<>(Collections.emptyList(), null);
+        }
+        List<Group> groups = groupRepository.findAllWithDetailsByGroupIdIn(groupIds.getItems());
+        moviePoolService.loadMovies(groups.stream()
+                .map(Group::getMoviePool)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        return new KeysetPage<>(groups, groupIds.getNextCursor());
+    }
+
     public Group updateGroupName(Long groupId, Long userId, String newName) {
         Group group = groupRepository.findById(groupId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
@@ -209,16 +268,15 @@ public class GroupService {
         if (!group.getCreator().getUserId().equals(adminUserId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the group creator can remove members");
         }
-        User member = userRepository.findById(memberId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        if (!group.getMembers().contains(member)) {
+        if (!membershipService.isMember(groupId, memberId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User is not a member of this group");
         }
-        group.getMembers().remove(member);
-        groupRepository.save(group);
+        groupRepository.deleteMember(group, memberId);
+        eventPublisher.publishEvent(new MembershipChangedEvent(groupId, memberId));
 
         // Clean up any pending invitations for this user in this group
-        List<GroupInvitation> pendingInvitesRm = groupInvitationRepository.findAllByGroupAndReceiverAndResponseTimeIsNull(group, member);
+        List<GroupInvitation> pendingInvitesRm =
+                groupInvitationRepository.findAllByGroup_GroupIdAndReceiver_UserIdAndResponseTimeIsNull(groupId, memberId);
         if (!pendingInvitesRm.isEmpty()) {
             groupInvitationRepository.deleteAll(pendingInvitesRm);
         }
@@ -236,6 +294,7 @@ public class GroupService {
         group.setPhase(Group.GroupPhase.POOLING);
         group.setPhaseStartTime(LocalDateTime.now());
         groupRepository.save(group);
+        publishPhaseDeadline(group);
     }
     
     public void startVotingPhase(Long groupId, Long userId) {
@@ -253,6 +312,7 @@ public class GroupService {
         // for timer handling
         group.setPhaseStartTime(LocalDateTime.now());
         groupRepository.save(group);
+        publishPhaseDeadline(group);
     }
     // for timer handling
     public void startPoolTimer(Long groupId, Long userId) {
@@ -272,6 +332,7 @@ public class GroupService {
         // group.setPhase(Group.GroupPhase.POOLING);
         group.setPhaseStartTime(LocalDateTime.now());
         groupRepository.save(group);
+        publishPhaseDeadline(group);
     }
 
     public void startVotingTimer(Long groupId, Long userId) {
@@ -291,6 +352,7 @@ public class GroupService {
         // for timer handling
         group.setPhaseStartTime(LocalDateTime.now());
         groupRepository.save(group);
+        publishPhaseDeadline(group);
     }
 
     public void showResultsPhase(Long groupId, Long userId) {
@@ -304,35 +366,96 @@ public class GroupService {
         }
         group.setPhase(Group.GroupPhase.RESULTS);
         groupRepository.save(group);
+        // rankings are final now, the results are snapshotted once this commits (see ResultsSnapshotListener)
+        publishPhaseDeadline(group);
     }
 
-    // fixed rate is in ms
-    @Scheduled(fixedRate = 5000) // check every 5 sec
-    public void checkPhaseTimers() {
-        // get all currenct groups and iterate over them
-        List<Group> activeGroups = groupRepository.findAll();
-        for (Group group : activeGroups) {
-
-            if (group.getPhaseStartTime() != null) {
-                int passedSeconds = (int) Duration.between(group.getPhaseStartTime(), LocalDateTime.now()).getSeconds();
-                
-                if (group.getPhase() == Group.GroupPhase.POOLING && group.getPoolPhaseDuration() != null && passedSeconds >= group.getPoolPhaseDuration()) {
-                    // switch to voting phase
-                    group.setPhase(Group.GroupPhase.VOTING);
-                    group.setPhaseStartTime(LocalDateTime.now());
-                    groupRepository.save(group);
-                } 
-
-                else if (group.getPhase() == Group.GroupPhase.VOTING && group.getVotingPhaseDuration() != null && 
-                passedSeconds >= group.getVotingPhaseDuration()) {
-                    // switch to results phase
-                    group.setPhase(Group.GroupPhase.RESULTS);
-                    groupRepository.save(group);
-                }
+    /**
+     * Safety net for the PhaseTimerScheduler, which fires the transitions at their deadline:
+     * only the groups of one scheduler partition whose phase deadline has passed are read (deadline index),
+     * and moved on with bulk updates. Called by the PhaseTimerScheduler for every partition it has leased.
+     *
+     * @param partition  the partition, groups with groupId mod partitions == partition
+     * @param partitions the number of partitions
+     */
+    public void checkPhaseTimers(int partition, int partitions) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // POOLING -> VOTING: one update per distinct voting duration, as it determines the new deadline
+        Map<Integer, List<Long>> dueByVotingDuration = new HashMap<>();
+        for (Object[] due : groupRepository.findDueGroups(Group.GroupPhase.POOLING, now, partition, partitions)) {
+            dueByVotingDuration.computeIfAbsent((Integer) due[1], duration -> new ArrayList<>()).add((Long) due[0]);
+        }
+        dueByVotingDuration.forEach((duration, groupIds) -> {
+            LocalDateTime deadline = duration != null ? now.plusSeconds(duration) : null;
+            groupRepository.startPhase(groupIds, Group.GroupPhase.POOLING, Group.GroupPhase.VOTING, now, deadline);
+            for (Long groupId : groupIds) {
+                eventPublisher.publishEvent(new PhaseDeadlineChangedEvent(groupId, Group.GroupPhase.VOTING, deadline));
+            }
+        });
+
+        // VOTING -> RESULTS
+        List<Long> votingDue = groupRepository.findDueGroups(Group.GroupPhase.VOTING, now, partition, partitions).stream()
+                .map(due -> (Long) due[0])
+                .collect(Collectors.toList());
+        if (!votingDue.isEmpty()) {
+            groupRepository.endPhase(votingDue, Group.GroupPhase.VOTING, Group.GroupPhase.RESULTS);
+            for (Long groupId : votingDue) {
+                eventPublisher.publishEvent(new PhaseDeadlineChangedEvent(groupId, Group.GroupPhase.RESULTS, null));
             }
         }
     }
 
+    /**
+     * Moves a group to its next phase if its phase deadline has passed.
+     * Called by the PhaseTimerScheduler at the deadline.
+     *
+     * @param groupId the group ID
+     * @return the deadline of the group's current phase after the call, or null if no timer runs
+     */
+    public LocalDateTime advanceDuePhase(Long groupId) {
+        Optional<Group> found = groupRepository.findWithLockByGroupId(groupId);
+        if (found.isEmpty()) {
+            return null; // deleted meanwhile
+        }
+        Group group = found.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (group.getPhaseDeadline() == null || group.getPhaseDeadline().isAfter(now)) {
+            return group.getPhaseDeadline(); // timer was stopped or moved meanwhile
+        }
+        if (group.getPhase() == Group.GroupPhase.POOLING) {
+            group.setPhase(Group.GroupPhase.VOTING);
+            group.setPhaseStartTime(now);
+            groupRepository.save(group);
+            publishPhaseDeadline(group);
+        }
+        else if (group.getPhase() == Group.GroupPhase.VOTING) {
+            group.setPhase(Group.GroupPhase.RESULTS);
+            groupRepository.save(group);
+            publishPhaseDeadline(group);
+        }
+        return group.getPhaseDeadline();
+    }
+
+    // groups stored before the phase deadline existed get it computed once (called at startup)
+    public void backfillPhaseDeadlines() {
+        List<Group> groups = groupRepository.findByPhaseDeadlineIsNullAndPhaseStartTimeIsNotNullAndPhaseNot(Group.GroupPhase.RESULTS);
+        for (Group group : groups) {
+            group.updatePhaseDeadline();
+        }
+        groupRepository.saveAll(groups);
+    }
+
+    // (id, deadline) of every group with a running phase timer
+    @Transactional(readOnly = true)
+    public List<Object[]> getRunningPhaseTimers() {
+        return groupRepository.findRunningPhaseTimers();
+    }
+
+    private void publishPhaseDeadline(Group group) {
+        eventPublisher.publishEvent(new PhaseDeadlineChangedEvent(group.getGroupId(), group.getPhase(), group.getPhaseDeadline()));
+    }
+
     // to get time left
     public int getRemainingTime(Long groupId) {
 
@@ -365,6 +488,7 @@ public class GroupService {
         }
         group.setPoolPhaseDuration(duration);
         groupRepository.save(group);
+        publishPhaseDeadline(group);
     }
     // setting votting duration
     public void setVotingPhaseDuration(Long groupId, Long userId, Integer duration) {
@@ -375,6 +499,24 @@ public class GroupService {
         }
         group.setVotingPhaseDuration(duration);
         groupRepository.save(group);
+        publishPhaseDeadline(group);
+    }
+
+    // setting the voting method, only before voting starts so all ballots are counted the same way
+    public void setVotingMethod(Long groupId, Long userId, Group.VotingMethod votingMethod) {
+        Group group = groupRepository.findById(groupId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
+        if (!group.getCreator().getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the group creator can set the voting method");
+        }
+        if (group.getPhase() != Group.GroupPhase.POOLING) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Voting method can only be changed in POOLING phase");
+        }
+        if (votingMethod == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Provide a voting method");
+        }
+        group.setVotingMethod(votingMethod);
+        groupRepository.save(group);
     }
 
     // for check which users have already submitted voting and which not
@@ -388,10 +530,8 @@ public class GroupService {
     }
 
     // get all users who have submitted rankings, thus - voted
-    Set<Long> usersWhoVoted = userMovieRankingRepository.findByGroup(group)
-        .stream()
-        .map(ranking -> ranking.getUser().getUserId())
-        .collect(Collectors.toSet());
+    Set<Long> usersWhoVoted = new HashSet<>(userMovieRankingRepository.findVoterIdsByGroup(group));
+    usersWhoVoted.addAll(ballotRepository.findVoterIdsByGroup(group));
 
     // return list of VotingStatusDTO objects 
     return group.getMembers().stream().map(user -> new VotingStatusDTO(
@@ -0,0 +1,84 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * One page of a list paginated by keyset (seek): the items with an ID greater than the cursor of the request,
+ * in ascending ID order, and the cursor of the next page (the ID of the last item), null on the last page.
+ * Unlike offsets, a cursor stays valid while items are added or removed, and each page is one index range scan.
+ */
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final List<T> items;
+    private final Long nextCursor;
+
+    public KeysetPage(List<T> items, Long nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the ID after which the requested page starts; IDs are positive, so without a cursor the first page
+     */
+    public static long after(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    /**
+     * @return the requested page size, DEFAULT_LIMIT if none was requested
+     */
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * One item more than the page size is fetched, so the last page is recognized without counting.
+     */
+    public static Pageable fetch(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * @param fetched the items fetched with fetch(limit), in ascending ID order
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int limit, Function<T, Long> id) {
+        if (fetched.size() <= limit) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> items = new ArrayList<>(fetched.subList(0, limit));
+        return new KeysetPage<>(items, id.apply(items.get(limit - 1)));
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(items.size());
+        for (T item : items) {
+            mapped.add(mapper.apply(item));
+        }
+        return new KeysetPage<>(mapped, nextCursor);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,153 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.uzh.ifi.hase.soprafs25.entity.SchedulerLease;
+import ch.uzh.ifi.hase.soprafs25.repository.SchedulerLeaseRepository;
+
+/**
+ * Lease Service
+ * Makes scheduled jobs safe to run on several instances at once. The groups of a job are split into
+ * sopra.scheduling.partitions partitions (groupId mod partitions); on every tick each live instance leases
+ * its share of the partitions from the SCHEDULER_LEASE table and only processes the groups in them,
+ * so every group is processed by exactly one instance per tick.
+ * A lease expires after sopra.scheduling.lease-ttl seconds, so the partitions of a crashed instance are
+ * taken over by the remaining ones. Work on a group is fenced: it only runs if the lease is still held with
+ * the fencing token it was acquired with, and the lease row stays locked until the work has committed, so the
+ * lease cannot be taken over in between. Expiry is measured with the database clock, not the instances' clocks.
+ */
+@Service
+public class LeaseService {
+
+    private final Logger log = LoggerFactory.getLogger(LeaseService.class);
+
+    static final String NODE_PREFIX = "node:";
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final TransactionTemplate workTransaction;
+    private final String nodeId;
+    private final long leaseTtl;
+    private final int partitionCount;
+
+    @Autowired
+    public LeaseService(SchedulerLeaseRepository schedulerLeaseRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${sopra.scheduling.node-id:}") String nodeId,
+                        @Value("${sopra.scheduling.lease-ttl:300}") long leaseTtl,
+                        @Value("${sopra.scheduling.partitions:16}") int partitionCount) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        // leases are taken and released in their own short transactions, visible to the other instances at once
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workTransaction = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.leaseTtl = leaseTtl;
+        this.partitionCount = Math.max(1, partitionCount);
+    }
+
+    /**
+     * Announces this instance as live and leases its share of the partitions of a job:
+     * with n live instances, the instance at position i (ordered by node ID) takes the partitions p
+     * with p mod n == i. Partitions still leased by another instance are skipped for this tick.
+     *
+     * @param job the name of the scheduled job
+     * @return the leased partitions, to be released after the tick
+     */
+    public List<PartitionLease> acquirePartitions(String job) {
+        tryAcquire(NODE_PREFIX + nodeId);
+        List<String> liveNodes = schedulerLeaseRepository.findLiveOwners(NODE_PREFIX);
+        int nodeCount = Math.max(1, liveNodes.size());
+        int nodeIndex = Math.max(0, liveNodes.indexOf(nodeId));
+
+        List<PartitionLease> leases = new ArrayList<>();
+        for (int partition = nodeIndex; partition < partitionCount; partition += nodeCount) {
+            String name = job + ":" + partition;
+            Optional<Long> fencingToken = tryAcquire(name);
+            if (fencingToken.isPresent()) {
+                leases.add(new PartitionLease(name, partition, partitionCount, fencingToken.get()));
+            }
+        }
+        log.debug("Node {} leased {} of {} partitions of job {} ({} live nodes).",
+                nodeId, leases.size(), partitionCount, job, nodeCount);
+        return leases;
+    }
+
+    /**
+     * Acquires or renews a lease for this instance.
+     *
+     * @param name the lease name
+     * @return the new fencing token, or empty if the lease is held by another instance
+     */
+    public Optional<Long> tryAcquire(String name) {
+        try {
+            return Optional.ofNullable(leaseTransaction.execute(status -> {
+                LocalDateTime now = schedulerLeaseRepository.currentTimestamp().toLocalDateTime();
+                LocalDateTime expiresAt = now.plusSeconds(leaseTtl);
+                if (schedulerLeaseRepository.acquire(name, nodeId, now, expiresAt) > 0) {
+                    return schedulerLeaseRepository.findById(name)
+                            .map(SchedulerLease::getFencingToken)
+                            .orElse(null);
+                }
+                if (schedulerLeaseRepository.existsById(name)) {
+                    return null; // held by another instance
+                }
+                SchedulerLease lease = new SchedulerLease();
+                lease.setName(name);
+                lease.setOwner(nodeId);
+                lease.setFencingToken(1);
+                lease.setExpiresAt(expiresAt);
+                schedulerLeaseRepository.saveAndFlush(lease);
+                return lease.getFencingToken();
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // another instance created the lease first
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Lets a lease expire right away, so it can be taken over before its TTL runs out.
+     */
+    public void release(PartitionLease lease) {
+        leaseTransaction.execute(status -> schedulerLeaseRepository.release(
+                lease.getName(), nodeId, lease.getFencingToken()));
+    }
+
+    /**
+     * Runs the work in a transaction, but only if the lease is still held with its fencing token.
+     * The lease row is locked for the whole transaction, so another instance can only take the lease over
+     * once the work has committed. Service methods called by the work join that transaction.
+     *
+     * @return the result of the work, or empty if the lease has expired or been taken over
+     */
+    public <T> Optional<T> runFenced(PartitionLease lease, Supplier<T> work) {
+        return workTransaction.execute(status -> {
+            if (schedulerLeaseRepository.findHeldWithLock(lease.getName(), nodeId, lease.getFencingToken()).isEmpty()) {
+                log.warn("Lease {} with fencing token {} is no longer held, skipping work.",
+                        lease.getName(), lease.getFencingToken());
+                return Optional.empty();
+            }
+            return Optional.ofNullable(work.get());
+        });
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,177 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.LiveLeaderboardDTO;
+
+/**
+ * Live Leaderboard Service
+ * Streams the standings of a group in the VOTING phase to its subscribed members (Server-Sent Events).
+ * Submissions only mark their group as changed; the standings are computed from the group's tallies and
+ * pushed once per push interval (sopra.leaderboard.push-interval), so a burst of submissions results in
+ * a single push per group and interval. When voting ends, the final standings are pushed and the streams complete.
+ */
+@Service
+public class LiveLeaderboardService {
+
+    private final Logger log = LoggerFactory.getLogger(LiveLeaderboardService.class);
+
+    static final String EVENT_NAME = "leaderboard";
+
+    private final RankingService rankingService;
+    private final long emitterTimeout;
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> changedGroups = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LiveLeaderboardService(RankingService rankingService,
+                                  @Value("${sopra.leaderboard.emitter-timeout:1800000}") long emitterTimeout) {
+        this.rankingService = rankingService;
+        this.emitterTimeout = emitterTimeout;
+    }
+
+    /**
+     * Subscribes a group member to the live standings of the group.
+     * The current standings are sent immediately.
+     *
+     * @param groupId the group ID
+     * @param userId  the ID of the subscribing user
+     * @return the emitter streaming the standings
+     * @throws org.springframework.web.server.ResponseStatusException 403 if the user is not a member,
+     *         409 if the group is not in the VOTING phase
+     */
+    public SseEmitter subscribe(Long groupId, Long userId) {
+        LiveLeaderboardDTO current = rankingService.getLiveLeaderboard(groupId, userId);
+
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        subscribers.compute(groupId, (id, groupSubscribers) -> {
+            List<SseEmitter> updated = groupSubscribers != null ? groupSubscribers : new CopyOnWriteArrayList<>();
+            updated.add(emitter);
+            return updated;
+        });
+        emitter.onCompletion(() -> unsubscribe(groupId, emitter));
+        emitter.onTimeout(() -> unsubscribe(groupId, emitter));
+        emitter.onError(e -> unsubscribe(groupId, emitter));
+
+        if (!send(emitter, current)) {
+            unsubscribe(groupId, emitter);
+        }
+        log.debug("User {} subscribed to the live leaderboard of group {}", userId, groupId);
+        return emitter;
+    }
+
+    /**
+     * Marks the group as changed once a submission has committed. Groups without subscribers are ignored.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRankingsSubmitted(RankingsSubmittedEvent event) {
+        if (subscribers.containsKey(event.getGroupId())) {
+            changedGroups.add(event.getGroupId());
+        }
+    }
+
+    /**
+     * Marks the group as changed once a phase change has committed, so its subscribers get the final standings
+     * when voting ends and their streams complete. The streams of a deleted group complete right away.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPhaseDeadlineChanged(PhaseDeadlineChangedEvent event) {
+        Long groupId = event.getGroupId();
+        if (event.getPhase() == null) {
+            changedGroups.remove(groupId);
+            List<SseEmitter> groupSubscribers = subscribers.remove(groupId);
+            if (groupSubscribers != null) {
+                groupSubscribers.forEach(SseEmitter::complete);
+            }
+            return;
+        }
+        if (subscribers.containsKey(groupId)) {
+            changedGroups.add(groupId);
+        }
+    }
+
+    /**
+     * Pushes the standings of every group that changed since the last run to its subscribers.
+     * Runs with a fixed delay (sopra.leaderboard.push-interval, in milliseconds), which bounds
+     * the number of pushes per group and second.
+     */
+    @Scheduled(fixedDelayString = "${sopra.leaderboard.push-interval:500}")
+    public void pushChangedLeaderboards() {
+        Iterator<Long> it = changedGroups.iterator();
+        while (it.hasNext()) {
+            Long groupId = it.next();
+            it.remove();
+            List<SseEmitter> groupSubscribers = subscribers.get(groupId);
+            if (groupSubscribers == null || groupSubscribers.isEmpty()) {
+                continue;
+            }
+            try {
+                push(groupId, groupSubscribers, rankingService.getLiveLeaderboard(groupId));
+            } catch (Exception e) {
+                // Log error for specific group but continue with others
+                log.error("Error pushing live leaderboard of group ID {}: {}", groupId, e.getMessage(), e);
+            }
+        }
+    }
+
+    // Sends the standings once to every subscriber; the stream ends when voting is over
+    private void push(Long groupId, List<SseEmitter> groupSubscribers, LiveLeaderboardDTO leaderboard) {
+        boolean votingOver = !Group.GroupPhase.VOTING.name().equals(leaderboard.getPhase());
+        for (SseEmitter emitter : new ArrayList<>(groupSubscribers)) {
+            if (!send(emitter, leaderboard)) {
+                unsubscribe(groupId, emitter);
+            }
+            else if (votingOver) {
+                emitter.complete();
+                unsubscribe(groupId, emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, LiveLeaderboardDTO leaderboard) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(leaderboard, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // client disconnected or emitter already completed
+            log.debug("Dropping live leaderboard subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void unsubscribe(Long groupId, SseEmitter emitter) {
+        subscribers.computeIfPresent(groupId, (id, groupSubscribers) -> {
+            groupSubscribers.remove(emitter);
+            return groupSubscribers.isEmpty() ? null : groupSubscribers;
+        });
+    }
+
+    int getSubscriberCount(Long groupId) {
+        List<SseEmitter> groupSubscribers = subscribers.get(groupId);
+        return groupSubscribers != null ? groupSubscribers.size() : 0;
+    }
+
+    boolean isChanged(Long groupId) {
+        return changedGroups.contains(groupId);
+    }
+}
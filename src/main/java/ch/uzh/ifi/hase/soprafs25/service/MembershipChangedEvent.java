@@ -0,0 +1,23 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+/**
+ * Published whenever a user joins or leaves a group, or a group is deleted.
+ */
+public class MembershipChangedEvent {
+
+    private final Long groupId;
+    private final Long userId; // null if the whole group changed, e.g. it was deleted
+
+    public MembershipChangedEvent(Long groupId, Long userId) {
+        this.groupId = groupId;
+        this.userId = userId;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,139 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ch.uzh.ifi.hase.soprafs25.config.ReplicaRoutingDataSource;
+import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
+
+/**
+ * Membership Service
+ * Answers whether a user is a member of a group with an indexed existence query on group_members,
+ * instead of loading the member list of the group.
+ * Answers are cached per instance for sopra.groups.membership-cache.ttl milliseconds; at most
+ * sopra.groups.membership-cache.max-size answers are cached, the least recently used one is dropped first.
+ * Checks run in the caller's transaction, so they do not take a second connection; answers read from the read replica
+ * (see ReplicaRoutingDataSource) are not cached, as the replica may not have replayed a membership change yet.
+ * Joining or leaving a group publishes a MembershipChangedEvent, which evicts the cached answers right away,
+ * so later checks of the same transaction see the change, and again once the transaction has completed,
+ * so answers loaded before the commit (or of a rolled back change) are not kept. Other instances keep
+ * their answer until it expires, so a removed member may keep access there for at most one TTL.
+ * A TTL of 0 disables the cache.
+ */
+@Service
+public class MembershipService {
+
+    private final GroupRepository groupRepository;
+    private final long ttl;
+    private final Map<String, Entry> entries;
+
+    // incremented on every eviction, so an answer loaded during a membership change is not cached
+    private long evictions;
+
+    @Autowired
+    public MembershipService(@Qualifier("groupRepository") GroupRepository groupRepository,
+                             @Value("${sopra.groups.membership-cache.ttl:30000}") long ttl,
+                             @Value("${sopra.groups.membership-cache.max-size:10000}") int maxSize) {
+        this.groupRepository = groupRepository;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Joins the caller's transaction, or runs in a read-only one of its own, so the transaction the query used
+     * is still open when deciding whether to cache the answer.
+     *
+     * @return whether the user is a member of the group; false if the group does not exist
+     */
+    @Transactional(readOnly = true)
+    public boolean isMember(Long groupId, Long userId) {
+        String key = key(groupId, userId);
+        long evictionsBefore;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                return entry.member;
+            }
+            evictionsBefore = evictions;
+        }
+        boolean member = groupRepository.existsByGroupIdAndMembers_UserId(groupId, userId);
+        if (ReplicaRoutingDataSource.isReadingReplica()) {
+            return member;
+        }
+        synchronized (this) {
+            if (ttl > 0 && evictions == evictionsBefore) {
+                entries.put(key, new Entry(groupId, member, System.currentTimeMillis() + ttl));
+            }
+        }
+        return member;
+    }
+
+    @EventListener
+    public void onMembershipChanging(MembershipChangedEvent event) {
+        evict(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        evict(event);
+    }
+
+    private void evict(MembershipChangedEvent event) {
+        if (event.getUserId() == null) {
+            evictGroup(event.getGroupId());
+        } else {
+            evict(event.getGroupId(), event.getUserId());
+        }
+    }
+
+    public synchronized void evict(Long groupId, Long userId) {
+        evictions++;
+        entries.remove(key(groupId, userId));
+    }
+
+    public synchronized void evictGroup(Long groupId) {
+        evictions++;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (groupId.equals(it.next().groupId)) {
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static String key(Long groupId, Long userId) {
+        return groupId + ":" + userId;
+    }
+
+    private static final class Entry {
+
+        private final Long groupId;
+        private final boolean member;
+        private final long expiresAt;
+
+        Entry(Long groupId, boolean member, long expiresAt) {
+            this.groupId = groupId;
+            this.member = member;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
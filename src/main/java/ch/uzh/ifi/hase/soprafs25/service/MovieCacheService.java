@@ -0,0 +1,100 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.lang.management.ManagementFactory;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Movie;
+import ch.uzh.ifi.hase.soprafs25.repository.MovieRepository;
+
+/**
+ * Movie Cache Service
+ * Eviction hooks and statistics of the second-level cache of movies.
+ * Movies saved, changed or deleted through JPA keep the cache up to date by themselves; after a movie
+ * row was changed with SQL (e.g. by a schema migration), evict it here so it is read from the database again.
+ * The hit ratios of the movie regions are logged every sopra.cache.stats-interval milliseconds and are
+ * exported as JCache statistics MXBeans (javax.cache:type=CacheStatistics).
+ */
+@Service
+public class MovieCacheService {
+
+    private final Logger log = LoggerFactory.getLogger(MovieCacheService.class);
+
+    private static final String[] REGIONS = {Movie.CACHE_REGION, MovieRepository.QUERY_CACHE_REGION};
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public MovieCacheService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Drops a movie (and all cached findByMovieId results) from the second-level cache.
+     */
+    public void evict(long movieId) {
+        entityManagerFactory.getCache().evict(Movie.class, movieId);
+        sessionFactory().getCache().evictQueryRegion(MovieRepository.QUERY_CACHE_REGION);
+    }
+
+    /**
+     * Drops all movies (and all cached findByMovieId results) from the second-level cache.
+     */
+    public void evictAll() {
+        entityManagerFactory.getCache().evict(Movie.class);
+        sessionFactory().getCache().evictQueryRegion(MovieRepository.QUERY_CACHE_REGION);
+    }
+
+    @Scheduled(fixedRateString = "${sopra.cache.stats-interval:300000}",
+            initialDelayString = "${sopra.cache.stats-interval:300000}")
+    public void logStatistics() {
+        for (String region : REGIONS) {
+            CacheStatisticsMXBean statistics = getStatistics(region);
+            if (statistics != null) {
+                log.info("Cache region {}: {} hits, {} misses, hit ratio {}%", region,
+                        statistics.getCacheHits(), statistics.getCacheMisses(),
+                        String.format("%.1f", statistics.getCacheHitPercentage()));
+            }
+        }
+    }
+
+    /**
+     * @return the statistics of a cache region, null if the region does not exist or the cache is disabled
+     */
+    public CacheStatisticsMXBean getStatistics(String region) {
+        RegionFactory regionFactory = sessionFactory().getCache().getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory)) {
+            return null;
+        }
+        String cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager().getURI().toString();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(
+                    "javax.cache:type=CacheStatistics,CacheManager=" + cacheManager + ",Cache=" + region);
+            if (!server.isRegistered(name)) {
+                return null;
+            }
+            return JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class);
+        } catch (MalformedObjectNameException e) {
+            return null;
+        }
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
@@ -1,9 +1,12 @@
 package ch.uzh.ifi.hase.soprafs25.service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,9 +15,11 @@ import org.springframework.web.server.ResponseStatusException;
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
+import ch.uzh.ifi.hase.soprafs25.entity.PoolEntry;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.MoviePoolRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.MovieRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.PoolEntryRepository;
 
 @Service
 @Transactional
@@ -24,14 +29,22 @@ public class MoviePoolService {
     private final MoviePoolRepository moviePoolRepository;
     private final GroupRepository groupRepository;
     private final MovieRepository movieRepository;
+    private final PoolEntryRepository poolEntryRepository;
+    private final MembershipService membershipService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Autowired
-    public MoviePoolService(MoviePoolRepository moviePoolRepository, GroupRepository groupRepository, MovieRepository movieRepository) {
+    public MoviePoolService(MoviePoolRepository moviePoolRepository, GroupRepository groupRepository, MovieRepository movieRepository,
+                            PoolEntryRepository poolEntryRepository, MembershipService membershipService,
+                            ApplicationEventPublisher eventPublisher) {
         
         this.moviePoolRepository = moviePoolRepository;
         this.groupRepository = groupRepository;
         this.movieRepository = movieRepository;
+        this.poolEntryRepository = poolEntryRepository;
+        this.membershipService = membershipService;
+        this.eventPublisher = eventPublisher;
         // this.groupService = groupService;
     }
 
@@ -39,12 +52,12 @@ public class MoviePoolService {
 
         MoviePool moviePool = new MoviePool();
         moviePool.setGroup(group);
-        moviePool.setMovies(new ArrayList<>());
         moviePool.setLastUpdated(LocalDateTime.now());
 
         return moviePoolRepository.save(moviePool);
     }
 
+    @Transactional(readOnly = true)
     public MoviePool getMoviePool(Long groupId, Long userId) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
@@ -65,6 +78,18 @@ public class MoviePoolService {
     }
 
 
+    /**
+     * Initializes the entries of the given pools with a single query,
+     * instead of one query per pool once the lists are accessed.
+     */
+    public void loadMovies(Collection<MoviePool> moviePools) {
+        if (moviePools.isEmpty()) {
+            return;
+        }
+        moviePoolRepository.findWithMoviesByPoolIdIn(
+                moviePools.stream().map(MoviePool::getPoolId).collect(Collectors.toList()));
+    }
+
     public MoviePool addMovie(Long groupId, Long movieId, Long userId) {
     Group group = groupRepository.findById(groupId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
@@ -87,19 +112,22 @@ public class MoviePoolService {
         }
 
         // check if user has already added 2 movies
-        if (moviePool.getMoviesAddedByUser(userId) >= 2) {
+        if (poolEntryRepository.countByPool_PoolIdAndAddedBy(moviePool.getPoolId(), userId) >= 2) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User has already added maximum number of movies (2) - delete at least one before adding one more");
         }
 
         // check if movie is already in the pool
         // I'm not sure what has to be done if a movie is already in the pool - exception or just a message
-        if (moviePool.getMovies().contains(movie)) {
+        if (poolEntryRepository.existsByPool_PoolIdAndMovie_MovieId(moviePool.getPoolId(), movieId)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Movie is already in the pool");
         }
 
-        moviePool.addMovie(movie, userId);
+        // a single insert into POOL_ENTRY
+        poolEntryRepository.save(moviePool.addMovie(movie, userId));
         moviePool.setLastUpdated(LocalDateTime.now());
-        return moviePoolRepository.save(moviePool);
+        MoviePool saved = moviePoolRepository.save(moviePool);
+        eventPublisher.publishEvent(new PoolChangedEvent(groupId, movieId, userId, true));
+        return saved;
     }
 
     // i decided that anyhow user will click "add" button separately for each movie
@@ -160,24 +188,35 @@ public class MoviePoolService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not a member of this group");
         }
 
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Movie not found"));
-
         MoviePool moviePool = moviePoolRepository.findByGroup_GroupId(groupId);
         if (moviePool == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Movie pool not found for this group");
         }
 
+        // an unknown movie is not in the pool either
+        PoolEntry entry = poolEntryRepository.findByPool_PoolIdAndMovie_MovieId(moviePool.getPoolId(), movieId);
+        if (entry == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Movie is not in the pool");
+        }
+
         // check if the movie was added by this user
-        if (!moviePool.getUserAddedMovies().get(movie).equals(userId)) {
+        if (!userId.equals(entry.getAddedBy())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only remove movies that you added");
         }
-        moviePool.removeMovie(movie);
+        // delete the single POOL_ENTRY row; drop it from the entries if they are already loaded, so the cascade
+        // does not save it again, but do not load every entry of the pool for that
+        poolEntryRepository.delete(entry);
+        if (Hibernate.isInitialized(moviePool.getEntries())) {
+            moviePool.getEntries().remove(entry);
+        }
         moviePool.setLastUpdated(LocalDateTime.now());
-        return moviePoolRepository.save(moviePool);
+        // flushed, so entries loaded from the returned pool no longer contain the removed movie
+        MoviePool saved = moviePoolRepository.saveAndFlush(moviePool);
+        eventPublisher.publishEvent(new PoolChangedEvent(groupId, movieId, userId, false));
+        return saved;
     }
 
     private Boolean isMemberOfGroup(Group group, Long userId){
-        return group.getMembers().stream().anyMatch(member -> member.getUserId().equals(userId));
+        return membershipService.isMember(group.getGroupId(), userId);
     }
 } 
\ No newline at end of file
@@ -37,6 +37,10 @@ public class MovieService {
     private final MovieRepository movieRepository;
     private final TMDbService tmdbService;
     private final UserRepository userRepository;
+    private final SearchQueryPlanner searchQueryPlanner = new SearchQueryPlanner();
+
+    // Maximum number of API calls to prevent excessive requests
+    private static final int MAX_API_CALLS = 200;
 
     @Autowired
     public MovieService(@Qualifier("movieRepository") MovieRepository movieRepository, TMDbService tmdbService, UserRepository userRepository) {
@@ -150,8 +154,6 @@ public class MovieService {
         List<String> favoriteDirectorIds = HelperMethodFindDirectorIds(favoriteDirectorNames);
         log.info("getMovieSuggestions: Favorite directorid's are {}", favoriteDirectorIds);
 
-        // Maximum number of API calls to prevent excessive requests
-        final int MAX_API_CALLS = 200;
         int apiCallCount = 0;
 
         // Resulting list of suggested movies
@@ -162,17 +164,76 @@ public class MovieService {
 
         log.info("Generated {} search permutations for user {}: {}", searchQueries.size(), userId, searchQueries);
 
-        int remainingQueries = searchQueries.size();
-        int remainingLimit = limit;
+        // Drop permutations predicted to be empty and only plan as many queries as needed to fill the limit
+        SearchQueryPlanner.QueryPlan plan = searchQueryPlanner.plan(searchQueries, limit, excludedMovieIds.size());
+
+        apiCallCount = executeSearchQueries(plan, plan.getPrimary(), suggestions, excludedMovieIds, limit, apiCallCount);
+
+        // The prediction was too optimistic, fall back to the remaining permutations
+        if (suggestions.size() < limit && !plan.getReserve().isEmpty()) {
+            log.info("Executing {} reserve queries, {} suggestions so far", plan.getReserve().size(), suggestions.size());
+            apiCallCount = executeSearchQueries(plan, plan.getReserve(), suggestions, excludedMovieIds, limit, apiCallCount);
+        }
+
+        // If we still don't have enough suggestions, try a search with empty params
+        if (suggestions.size() < limit && apiCallCount < MAX_API_CALLS) {
+            Movie emptySearch = new Movie();
+            log.info("Count of suggested Movies before empty search {}", suggestions.size());
+            List<Movie> results = tmdbService.searchMovies(emptySearch);
+
+            apiCallCount++;
+
+            for (Movie movie : results) {
+                if (!excludedMovieIds.contains(movie.getMovieId())) {
+                    suggestions.add(movie);
+
+                    if (suggestions.size() >= limit) {
+                        log.info("Count of suggested Movies including empty search {}", suggestions.size());
+                        break;
+                    }
+                }
+            }
+        }
+
+        log.info("Generated {} movie suggestions for user {} using {} API calls",
+                suggestions.size(), userId, apiCallCount);
+
+        // Convert to list and return
+        return new ArrayList<>(suggestions);
+    }
+
+    /**
+     * Executes the given search queries in order until enough suggestions are collected or the API call limit
+     * is reached. The remaining limit is distributed evenly among the remaining queries.
+     * Queries covered by an already exhausted broader query are skipped without calling TMDb.
+     *
+     * @param plan The plan the queries belong to, tracks which queries are exhausted
+     * @param queries The queries to execute
+     * @param suggestions The suggestions collected so far, new movies are added to it
+     * @param excludedMovieIds IDs of movies that must not be suggested
+     * @param limit Maximum number of suggestions
+     * @param apiCallCount Number of API calls made so far
+     * @return The number of API calls made so far, including the ones made by this method
+     */
+    private int executeSearchQueries(SearchQueryPlanner.QueryPlan plan, List<Movie> queries, Set<Movie> suggestions,
+                                     Set<Long> excludedMovieIds, int limit, int apiCallCount) {
+        int remainingQueries = queries.size();
+        int remainingLimit = limit - suggestions.size();
 
         // Execute searches in order until we have enough suggestions or reach API call limit
-        for (Movie searchParams : searchQueries) {
-            log.info("Processing search query {} of {}", (searchQueries.size() - remainingQueries + 1), searchQueries.size());
+        for (Movie searchParams : queries) {
+            log.info("Processing search query {} of {}", (queries.size() - remainingQueries + 1), queries.size());
 
             if (suggestions.size() >= limit || apiCallCount >= MAX_API_CALLS) {
                 break;
             }
 
+            if (plan.isCovered(searchParams)) {
+                log.info("Skipping search query, results are covered by an exhausted broader query: {}", searchParams);
+                remainingQueries--;
+                continue;
+            }
+
             // Calculate quota for current query - distribute remaining limit evenly among remaining queries
             // Round up to ensure we use at least 1 movie per query
             int currentQueryQuota = (int) Math.ceil((double) remainingLimit / remainingQueries);
@@ -181,6 +242,7 @@ public class MovieService {
 
             List<Movie> results = tmdbService.searchMovies(searchParams);
             apiCallCount++;
+            searchQueryPlanner.recordResult(searchParams, results.size());
 
             // Track how many movies we've added from this query
             int moviesAddedFromCurrentQuery = 0;
@@ -201,6 +263,17 @@ public class MovieService {
                 }
             }
 
+            // A complete result set whose movies are all suggested or excluded cannot contribute anymore,
+            // neither can any narrower query
+            if (results.size() < SearchQueryPlanner.UPSTREAM_RESULT_CAP) {
+                Set<Long> suggestedMovieIds = suggestions.stream().map(Movie::getMovieId).collect(Collectors.toSet());
+                boolean exhausted = results.stream().allMatch(movie ->
+                        excludedMovieIds.contains(movie.getMovieId()) || suggestedMovieIds.contains(movie.getMovieId()));
+                if (exhausted) {
+                    plan.markExhausted(searchParams);
+                }
+            }
+
             // Update remaining limit and queries for next iteration
             remainingLimit = limit - suggestions.size();
             remainingQueries--;
@@ -208,32 +281,7 @@ public class MovieService {
             log.info("Added {} movies from current query. Total suggestions so far: {}",
                     moviesAddedFromCurrentQuery, suggestions.size());
         }
-
-        // If we still don't have enough suggestions, try a search with empty params
-        if (suggestions.size() < limit && apiCallCount < MAX_API_CALLS) {
-            Movie emptySearch = new Movie();
-            log.info("Count of suggested Movies before empty search {}", suggestions.size());
-            List<Movie> results = tmdbService.searchMovies(emptySearch);
-
-            apiCallCount++;
-
-            for (Movie movie : results) {
-                if (!excludedMovieIds.contains(movie.getMovieId())) {
-                    suggestions.add(movie);
-
-                    if (suggestions.size() >= limit) {
-                        log.info("Count of suggested Movies including empty search {}", suggestions.size());
-                        break;
-                    }
-                }
-            }
-        }
-
-        log.info("Generated {} movie suggestions for user {} using {} API calls",
-                suggestions.size(), userId, apiCallCount);
-
-        // Convert to list and return
-        return new ArrayList<>(suggestions);
+        return apiCallCount;
     }
 
     /**
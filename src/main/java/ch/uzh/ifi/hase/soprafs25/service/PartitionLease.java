@@ -0,0 +1,36 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+/**
+ * A job partition leased by this instance: the groups with groupId mod partitionCount == partition,
+ * together with the fencing token of the lease.
+ */
+public class PartitionLease {
+
+    private final String name;
+    private final int partition;
+    private final int partitionCount;
+    private final long fencingToken;
+
+    public PartitionLease(String name, int partition, int partitionCount, long fencingToken) {
+        this.name = name;
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+        this.fencingToken = fencingToken;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+}
@@ -0,0 +1,35 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.time.LocalDateTime;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+/**
+ * Published by GroupService whenever the phase or the phase deadline of a group is set, moved or cleared,
+ * so the PhaseTimerScheduler can (re)schedule or cancel the group's phase transition
+ * and the GroupEventHub can push the change to the group's members.
+ */
+public class PhaseDeadlineChangedEvent {
+
+    private final Long groupId;
+    private final Group.GroupPhase phase; // null if the group has been deleted
+    private final LocalDateTime deadline; // null if no timer runs anymore
+
+    public PhaseDeadlineChangedEvent(Long groupId, Group.GroupPhase phase, LocalDateTime deadline) {
+        this.groupId = groupId;
+        this.phase = phase;
+        this.deadline = deadline;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Group.GroupPhase getPhase() {
+        return phase;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,35 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+/**
+ * Published by MoviePoolService whenever a movie is added to or removed from the pool of a group.
+ */
+public class PoolChangedEvent {
+
+    private final Long groupId;
+    private final Long movieId;
+    private final Long userId;
+    private final boolean added; // false if the movie was removed
+
+    public PoolChangedEvent(Long groupId, Long movieId, Long userId, boolean added) {
+        this.groupId = groupId;
+        this.movieId = movieId;
+        this.userId = userId;
+        this.added = added;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public boolean isAdded() {
+        return added;
+    }
+}
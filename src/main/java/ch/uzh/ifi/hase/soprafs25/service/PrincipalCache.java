@@ -0,0 +1,86 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Principal Cache
+ * Caches the principal of a token, so authenticating a request does not need a database lookup.
+ * Entries expire after sopra.auth.principal-cache.ttl milliseconds; at most
+ * sopra.auth.principal-cache.max-size tokens are cached, the least recently used one is dropped first.
+ * The principals of a user are evicted whenever the user is stored, e.g. when login or logout
+ * changes the token (see UserTokenListener). A TTL of 0 disables the cache.
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttl;
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    public PrincipalCache(@Value("${sopra.auth.principal-cache.ttl:60000}") long ttl,
+                          @Value("${sopra.auth.principal-cache.max-size:10000}") int maxSize) {
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached principal of the token, or null if it is not cached or has expired
+     */
+    public synchronized AuthenticatedUser get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    public synchronized void put(String token, AuthenticatedUser principal) {
+        if (ttl > 0) {
+            entries.put(token, new Entry(principal, System.currentTimeMillis() + ttl));
+        }
+    }
+
+    public synchronized void evictToken(String token) {
+        entries.remove(token);
+    }
+
+    // a user's token is not known anymore once it has changed, so the user's entries are looked up by ID
+    public synchronized void evictUser(Long userId) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (userId.equals(it.next().principal.getUserId())) {
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        private final AuthenticatedUser principal;
+        private final long expiresAt;
+
+        Entry(AuthenticatedUser principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
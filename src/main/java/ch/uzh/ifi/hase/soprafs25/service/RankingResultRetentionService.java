@@ -0,0 +1,73 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import ch.uzh.ifi.hase.soprafs25.repository.RankingResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Ranking Result Retention Service
+ * Every calculation appends a RankingResult, but only the latest one per group is ever read.
+ * This service keeps the latest result of each group plus a configurable number of older ones
+ * (sopra.ranking.result-history-depth) and deletes the rest in bounded batches.
+ */
+@Service
+@Transactional
+public class RankingResultRetentionService {
+
+    private final Logger log = LoggerFactory.getLogger(RankingResultRetentionService.class);
+
+    private final RankingResultRepository rankingResultRepository;
+    private final int resultsToKeep;
+    private final int batchSize;
+
+    @Autowired
+    public RankingResultRetentionService(@Qualifier("rankingResultRepository") RankingResultRepository rankingResultRepository,
+                                         @Value("${sopra.ranking.result-history-depth:0}") int historyDepth,
+                                         @Value("${sopra.ranking.compaction-batch-size:500}") int batchSize) {
+        this.rankingResultRepository = rankingResultRepository;
+        this.resultsToKeep = 1 + Math.max(0, historyDepth); // the latest result is always kept
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Returns the IDs of the groups that have more results than are retained.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findGroupsToCompact() {
+        return rankingResultRepository.findGroupIdsWithMoreResultsThan(resultsToKeep);
+    }
+
+    /**
+     * Deletes at most one batch of the expired results of a group.
+     * Runs in its own transaction, so callers repeat it until fewer than a full batch was deleted.
+     *
+     * @param groupId The ID of the group to compact.
+     * @return the number of deleted results
+     */
+    public int compactGroup(Long groupId) {
+        List<Long> newestFirst = rankingResultRepository.findIdsByGroupIdNewestFirst(groupId,
+                PageRequest.of(0, resultsToKeep + batchSize));
+        if (newestFirst.size() <= resultsToKeep) {
+            return 0;
+        }
+        List<Long> expired = newestFirst.subList(resultsToKeep, newestFirst.size());
+        int deleted = rankingResultRepository.deleteByIdIn(expired);
+        log.debug("Deleted {} expired ranking results of group {}", deleted, groupId);
+        return deleted;
+    }
+
+    /**
+     * Returns the number of results deleted per batch.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
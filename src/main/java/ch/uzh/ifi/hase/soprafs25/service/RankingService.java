@@ -1,11 +1,16 @@
 package ch.uzh.ifi.hase.soprafs25.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -16,30 +21,48 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Ballot;
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.entity.GroupMovieTally;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
 import ch.uzh.ifi.hase.soprafs25.entity.RankingResult;
+import ch.uzh.ifi.hase.soprafs25.entity.RankingResultSnapshot;
 import ch.uzh.ifi.hase.soprafs25.entity.RankingSubmissionLog;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.entity.UserMovieRanking;
 import ch.uzh.ifi.hase.soprafs25.exceptions.GroupNotFoundException;
 import ch.uzh.ifi.hase.soprafs25.exceptions.InvalidRankingException;
 import ch.uzh.ifi.hase.soprafs25.exceptions.UserNotFoundException;
+import ch.uzh.ifi.hase.soprafs25.repository.BallotRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.GroupMovieTallyRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.RankingResultRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.RankingResultSnapshotRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.RankingSubmissionLogRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.UserMovieRankingRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.UserRepository;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.BallotEntryDTO;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.LiveLeaderboardDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.MovieAverageRankDTO;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.MovieRankAggregateDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.RankingResultsDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.RankingSubmitDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.mapper.DTOMapper;
+import ch.uzh.ifi.hase.soprafs25.service.voting.Ballots;
+import ch.uzh.ifi.hase.soprafs25.service.voting.VotingRule;
+import ch.uzh.ifi.hase.soprafs25.service.voting.VotingRules;
 
 @Service
 @Transactional
@@ -52,18 +75,43 @@ public class RankingService {
     private final RankingSubmissionLogRepository rankingSubmissionLogRepository;
     private final RankingResultRepository rankingResultRepository;
     private final GroupRepository groupRepository;
+    private final GroupMovieTallyRepository groupMovieTallyRepository;
+    private final RankingResultSnapshotRepository rankingResultSnapshotRepository;
+    private final BallotRepository ballotRepository;
+    private final MembershipService membershipService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // update resubmitted ballots in place instead of deleting and re-inserting them
+    @Value("${sopra.ranking.upsert-submissions:false}")
+    private boolean upsertSubmissions;
+
+    // store new ballots as one compact Ballot row instead of one UserMovieRanking row per movie;
+    // reads always consider both forms, so existing ballots stay valid when this is switched
+    @Value("${sopra.ranking.compact-ballots:false}")
+    private boolean compactBallots;
 
     @Autowired
     public RankingService(@Qualifier("userRepository") UserRepository userRepository,
                           @Qualifier("userMovieRankingRepository") UserMovieRankingRepository userMovieRankingRepository,
                           @Qualifier("rankingSubmissionLogRepository") RankingSubmissionLogRepository rankingSubmissionLogRepository,
                           @Qualifier("rankingResultRepository") RankingResultRepository rankingResultRepository,
-                          @Qualifier("groupRepository") GroupRepository groupRepository) {
+                          @Qualifier("groupRepository") GroupRepository groupRepository,
+                          @Qualifier("groupMovieTallyRepository") GroupMovieTallyRepository groupMovieTallyRepository,
+                          @Qualifier("rankingResultSnapshotRepository") RankingResultSnapshotRepository rankingResultSnapshotRepository,
+                          @Qualifier("ballotRepository") BallotRepository ballotRepository,
+                          MembershipService membershipService,
+                          ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userMovieRankingRepository = userMovieRankingRepository;
         this.rankingSubmissionLogRepository = rankingSubmissionLogRepository;
         this.rankingResultRepository = rankingResultRepository;
         this.groupRepository = groupRepository;
+        this.groupMovieTallyRepository = groupMovieTallyRepository;
+        this.rankingResultSnapshotRepository = rankingResultSnapshotRepository;
+        this.ballotRepository = ballotRepository;
+        this.membershipService = membershipService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -73,7 +121,10 @@ public class RankingService {
      * - Rank all if < 5 movies available.
      * - Movies must exist in the available pool.
      * - Ranks must be unique and sequential from 1.
-     * Allows users to re-submit rankings (deletes old ones for the specific group).
+     * Allows users to re-submit rankings (deletes old ones for the specific group, or updates them
+     * in place if sopra.ranking.upsert-submissions is set).
+     * The group's per-movie tallies are updated in the same transaction: the old ballot is subtracted
+     * and the new one is added.
      *
      * @param userId   The ID of the user submitting rankings.
      * @param groupId  The ID of the group for which rankings are submitted.
@@ -83,7 +134,8 @@ public class RankingService {
      * @throws InvalidRankingException If the rankings are invalid or the movie pool is empty/null.
      */
     public void submitRankings(Long userId, Long groupId, List<RankingSubmitDTO> rankings) {
-    Group group = groupRepository.findById(groupId)
+    // Lock the group so concurrent submissions of its members update the tallies one after another
+    Group group = groupRepository.findWithLockByGroupId(groupId)
             .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
     if (group.getPhase() != Group.GroupPhase.VOTING) {
         throw new ResponseStatusException(HttpStatus.CONFLICT, "Group is not in voting phase");
@@ -105,27 +157,51 @@ public class RankingService {
         validateRankings(rankings, availableMovies, requiredRankings);
 
         // --- Process Valid Rankings ---
-        // Delete existing rankings for this user *in this group*
-        userMovieRankingRepository.deleteByUserAndGroup(user, group);
+        // Load the tallies before touching the ballots, so aggregating stored rankings still sees the old ballot;
+        // tallies aggregated for a group without tally rows are stored below, under the group lock
+        Map<Long, GroupMovieTally> tallies = getTalliesByMovieId(group);
 
-        List<UserMovieRanking> newRankings = new ArrayList<>();
-        for (RankingSubmitDTO dto : rankings) {
-            Movie movie = availableMovies.stream()
-                    .filter(m -> m.getMovieId() == dto.getMovieId()) // Use == for long/Long comparison
-                    .findFirst()
-                    .orElseThrow(() -> new InvalidRankingException("Error retrieving movie details for ID: " + dto.getMovieId())); // Should not happen due to validation
+        Map<Long, Movie> availableMoviesById = new HashMap<>();
+        for (Movie movie : availableMovies) {
+            availableMoviesById.put(movie.getMovieId(), movie);
+        }
 
-            UserMovieRanking ranking = new UserMovieRanking();
-            ranking.setUser(user);
-            ranking.setMovie(movie);
-            ranking.setRank(dto.getRank());
-            ranking.setGroup(group); // Set the group
-            newRankings.add(ranking);
+        // The previous ballot is stored either compact or as one row per movie
+        Optional<Ballot> previousBallot = ballotRepository.findByUserAndGroup(user, group);
+        List<UserMovieRanking> previousRankings = previousBallot.isPresent()
+                ? toRankings(previousBallot.get(), availableMoviesById)
+                : userMovieRankingRepository.findByUserAndGroup(user, group);
+
+        // Replace the old ballot by the new one in the tallies (before the upsert changes the old ranks)
+        for (UserMovieRanking previous : previousRankings) {
+            getOrCreateTally(tallies, group, previous.getMovie()).apply(previous.getRank(), -1);
         }
 
-        userMovieRankingRepository.saveAll(newRankings);
+        List<UserMovieRanking> newRankings;
+        if (compactBallots) {
+            if (previousBallot.isEmpty() && !previousRankings.isEmpty()) {
+                userMovieRankingRepository.deleteByUserAndGroup(user, group); // stored as rows before
+            }
+            newRankings = saveCompactBallot(user, group, previousBallot.orElse(null), rankings, availableMoviesById);
+        }
+        else {
+            previousBallot.ifPresent(ballotRepository::delete); // stored compact before
+            List<UserMovieRanking> previousRows = previousBallot.isPresent() ? Collections.emptyList() : previousRankings;
+            newRankings = upsertSubmissions
+                    ? updateRankingsInPlace(user, group, previousRows, rankings, availableMoviesById)
+                    : replaceRankings(user, group, rankings, availableMoviesById);
+        }
         log.info("User {} submitted {} rankings for group {}", userId, newRankings.size(), groupId);
 
+        for (UserMovieRanking ranking : newRankings) {
+            getOrCreateTally(tallies, group, ranking.getMovie()).apply(ranking.getRank(), 1);
+        }
+        groupMovieTallyRepository.saveAll(tallies.values());
+
+        // the nightly scheduler only recalculates groups marked dirty
+        group.setRankingsDirty(true);
+        groupRepository.save(group);
+
         // Log the submission
         RankingSubmissionLog submissionLog = new RankingSubmissionLog();
         submissionLog.setUser(user);
@@ -133,28 +209,195 @@ public class RankingService {
         submissionLog.setSubmissionTime(LocalDateTime.now());
         submissionLog.setNumberOfMoviesRanked(newRankings.size());
         rankingSubmissionLogRepository.save(submissionLog);
+
+        // live leaderboard and group event subscribers are notified once the transaction has committed
+        eventPublisher.publishEvent(new RankingsSubmittedEvent(groupId, userId, previousRankings.isEmpty()));
     }
 
-    private Map<Movie, Double> calculateAdjustedAverageRanks(Group group, List<UserMovieRanking> groupRankings) {
-        int totalUsers = group.getMembers().size();
+    // Deletes the old ballot with one bulk statement and inserts the new one as a JDBC batch
+    private List<UserMovieRanking> replaceRankings(User user, Group group, List<RankingSubmitDTO> rankings,
+                                                   Map<Long, Movie> availableMoviesById) {
+        userMovieRankingRepository.deleteByUserAndGroup(user, group);
+
+        List<UserMovieRanking> newRankings = new ArrayList<>();
+        for (RankingSubmitDTO dto : rankings) {
+            newRankings.add(createRanking(user, group, getAvailableMovie(availableMoviesById, dto.getMovieId()), dto.getRank()));
+        }
+        userMovieRankingRepository.saveAll(newRankings);
+        return newRankings;
+    }
+
+    // Updates the ranks of movies that stay on the ballot, deletes dropped movies and inserts new ones
+    private List<UserMovieRanking> updateRankingsInPlace(User user, Group group, List<UserMovieRanking> previousRankings,
+                                                         List<RankingSubmitDTO> rankings, Map<Long, Movie> availableMoviesById) {
+        Map<Long, UserMovieRanking> previousByMovieId = new HashMap<>();
+        for (UserMovieRanking previous : previousRankings) {
+            previousByMovieId.put(previous.getMovie().getMovieId(), previous);
+        }
+
+        List<UserMovieRanking> ballot = new ArrayList<>();
+        List<UserMovieRanking> inserted = new ArrayList<>();
+        for (RankingSubmitDTO dto : rankings) {
+            UserMovieRanking ranking = previousByMovieId.remove(dto.getMovieId());
+            if (ranking != null) {
+                ranking.setRank(dto.getRank()); // flushed as batched update
+            }
+            else {
+                ranking = createRanking(user, group, getAvailableMovie(availableMoviesById, dto.getMovieId()), dto.getRank());
+                inserted.add(ranking);
+            }
+            ballot.add(ranking);
+        }
+        if (!previousByMovieId.isEmpty()) {
+            userMovieRankingRepository.deleteAll(previousByMovieId.values());
+        }
+        userMovieRankingRepository.saveAll(inserted);
+        return ballot;
+    }
+
+    // Writes the ballot as a single row: an insert for the first submission, one update afterwards
+    private List<UserMovieRanking> saveCompactBallot(User user, Group group, Ballot ballot, List<RankingSubmitDTO> rankings,
+                                                     Map<Long, Movie> availableMoviesById) {
+        long[] movieIds = new long[rankings.size()];
+        List<UserMovieRanking> newRankings = new ArrayList<>();
+        for (RankingSubmitDTO dto : rankings) {
+            // ranks are validated to be unique and sequential from 1
+            movieIds[dto.getRank() - 1] = dto.getMovieId();
+            newRankings.add(createRanking(user, group, getAvailableMovie(availableMoviesById, dto.getMovieId()), dto.getRank()));
+        }
+        if (ballot == null) {
+            ballot = new Ballot();
+            ballot.setUser(user);
+            ballot.setGroup(group);
+        }
+        ballot.setRankedMovieIds(movieIds);
+        ballot.setSubmittedAt(LocalDateTime.now());
+        ballotRepository.save(ballot);
+        return newRankings;
+    }
+
+    // Read adapter: the compact ballot as (unsaved) rankings, movies missing from the pool are skipped
+    private List<UserMovieRanking> toRankings(Ballot ballot, Map<Long, Movie> moviesById) {
+        long[] movieIds = ballot.getRankedMovieIds();
+        List<UserMovieRanking> rankings = new ArrayList<>();
+        for (int i = 0; i < movieIds.length; i++) {
+            Movie movie = moviesById.get(movieIds[i]);
+            if (movie != null) {
+                rankings.add(createRanking(ballot.getUser(), ballot.getGroup(), movie, i + 1));
+            }
+        }
+        return rankings;
+    }
+
+    private Movie getAvailableMovie(Map<Long, Movie> availableMoviesById, Long movieId) {
+        Movie movie = availableMoviesById.get(movieId);
+        if (movie == null) {
+            // Should not happen due to validation
+            throw new InvalidRankingException("Error retrieving movie details for ID: " + movieId);
+        }
+        return movie;
+    }
+
+    private UserMovieRanking createRanking(User user, Group group, Movie movie, int rank) {
+        UserMovieRanking ranking = new UserMovieRanking();
+        ranking.setUser(user);
+        ranking.setMovie(movie);
+        ranking.setRank(rank);
+        ranking.setGroup(group);
+        return ranking;
+    }
+
+    /**
+     * Returns the group's tallies keyed by movie ID.
+     * Groups whose rankings were submitted before tallies existed have no tally rows: their tallies are
+     * aggregated from the stored rankings without storing them, so read paths (also read-only transactions
+     * on the replica) never write. The next submission, which holds the group lock, stores them.
+     */
+    private Map<Long, GroupMovieTally> getTalliesByMovieId(Group group) {
+        List<GroupMovieTally> tallies = groupMovieTallyRepository.findByGroup(group);
+        if (tallies.isEmpty()) {
+            tallies = aggregateTallies(group);
+        }
+        Map<Long, GroupMovieTally> talliesByMovieId = new HashMap<>();
+        for (GroupMovieTally tally : tallies) {
+            talliesByMovieId.put(tally.getMovie().getMovieId(), tally);
+        }
+        return talliesByMovieId;
+    }
+
+    private List<GroupMovieTally> aggregateTallies(Group group) {
+        // rows are aggregated in the database, so no ranking entities are loaded
+        List<MovieRankAggregateDTO> aggregates = new ArrayList<>(userMovieRankingRepository.aggregateRanksByGroup(group));
+        aggregates.addAll(aggregateCompactBallots(group));
+        if (aggregates.isEmpty() || group.getMoviePool() == null) {
+            return new ArrayList<>();
+        }
+        Map<Long, Movie> poolMoviesById = new HashMap<>();
+        for (Movie movie : group.getMoviePool().getMovies()) {
+            poolMoviesById.put(movie.getMovieId(), movie);
+        }
+        Map<Long, GroupMovieTally> talliesByMovieId = new LinkedHashMap<>();
+        for (MovieRankAggregateDTO aggregate : aggregates) {
+            Movie movie = poolMoviesById.get(aggregate.getMovieId());
+            if (movie == null) {
+                // rankings are only accepted for pool movies, anything else does not count
+                continue;
+            }
+            // a movie can have an aggregate from both ballot forms
+            GroupMovieTally tally = getOrCreateTally(talliesByMovieId, group, movie);
+            tally.setRankSum(tally.getRankSum() + aggregate.getRankSum());
+            tally.setVoteCount(tally.getVoteCount() + (int) aggregate.getVoteCount());
+        }
+        return new ArrayList<>(talliesByMovieId.values());
+    }
+
+    private List<MovieRankAggregateDTO> aggregateCompactBallots(Group group) {
+        Map<Long, long[]> sumAndCountByMovieId = new HashMap<>();
+        for (Ballot ballot : ballotRepository.findByGroup(group)) {
+            long[] movieIds = ballot.getRankedMovieIds();
+            for (int i = 0; i < movieIds.length; i++) {
+                long[] sumAndCount = sumAndCountByMovieId.computeIfAbsent(movieIds[i], id -> new long[2]);
+                sumAndCount[0] += i + 1;
+                sumAndCount[1]++;
+            }
+        }
+        List<MovieRankAggregateDTO> aggregates = new ArrayList<>();
+        sumAndCountByMovieId.forEach((movieId, sumAndCount) ->
+                aggregates.add(new MovieRankAggregateDTO(movieId, sumAndCount[0], sumAndCount[1])));
+        return aggregates;
+    }
+
+    private GroupMovieTally getOrCreateTally(Map<Long, GroupMovieTally> talliesByMovieId, Group group, Movie movie) {
+        return talliesByMovieId.computeIfAbsent(movie.getMovieId(), movieId -> {
+            GroupMovieTally tally = new GroupMovieTally();
+            tally.setGroup(group);
+            tally.setMovie(movie);
+            return tally;
+        });
+    }
+
+    private boolean hasVotes(Map<Long, GroupMovieTally> tallies) {
+        return tallies.values().stream().anyMatch(tally -> tally.getVoteCount() > 0);
+    }
+
+    private Map<Movie, Double> calculateAdjustedAverageRanks(Group group, Map<Long, GroupMovieTally> tallies) {
+        return calculateAdjustedAverageRanks(group, tallies, group.getMembers().size());
+    }
+
+    private Map<Movie, Double> calculateAdjustedAverageRanks(Group group, Map<Long, GroupMovieTally> tallies, int totalUsers) {
         int maxRank = 5;
         int penaltyRank = maxRank + 1;
-    
-        // group rankings by movie
-        Map<Movie, List<UserMovieRanking>> rankingsByMovie = groupRankings.stream()
-                .collect(Collectors.groupingBy(UserMovieRanking::getMovie));
-    
+
         // calculate adjusted average rank 
         Map<Movie, Double> adjustedAverageRanks = new HashMap<>();
         for (Movie movie : group.getMoviePool().getMovies()) {
-            List<UserMovieRanking> ranks = rankingsByMovie.getOrDefault(movie, new ArrayList<>());
-
-            int actualVotes = ranks.size();
+            GroupMovieTally tally = tallies.get(movie.getMovieId());
+            long rankSum = tally != null ? tally.getRankSum() : 0;
+            int actualVotes = tally != null ? tally.getVoteCount() : 0;
             int missingVotes = totalUsers - actualVotes;
 
             // adjusted total score
-            double totalScore = ranks.stream().mapToInt(UserMovieRanking::getRank).sum()
-                                 + missingVotes * penaltyRank;
+            double totalScore = rankSum + missingVotes * penaltyRank;
     
             // adjusted average rank
             double average = totalScore / totalUsers;
@@ -163,45 +406,64 @@ public class RankingService {
     
         return adjustedAverageRanks;
     }
+    /**
+     * Recalculates the winner of a group if its rankings changed since the last calculation.
+     * The group row stays locked until the end of the transaction, so a submission arriving meanwhile
+     * waits and marks the group dirty again for the next run instead of being lost.
+     *
+     * @param groupId The ID of the group.
+     * @return true if a new result was saved
+     * @throws GroupNotFoundException If the group does not exist.
+     */
+    public boolean recalculateWinnerIfDirty(Long groupId) {
+        Group group = groupRepository.findWithLockByGroupId(groupId)
+                .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
+        if (!group.isRankingsDirty()) {
+            return false;
+        }
+        group.setRankingsDirty(false);
+        groupRepository.save(group);
+        return calculateAndSaveWinner(groupId);
+    }
+
     /**
      * Calculates the movie with the lowest average rank from all submissions within a specific group
      * and saves the result for that group. If no rankings exist for the group,
-     * it logs a warning.
+     * it logs a warning. Nothing is saved if the winner and its average rank equal the latest result.
      * Handles ties by picking the first movie encountered with the minimum average rank.
      *
      * @param groupId The ID of the group for which to calculate the winner.
+     * @return true if a new result was saved
      * @throws GroupNotFoundException If the group does not exist.
      */
-    public void calculateAndSaveWinner(Long groupId) {
+    public boolean calculateAndSaveWinner(Long groupId) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
 
-        List<UserMovieRanking> groupRankings = userMovieRankingRepository.findByGroup(group);
+        Map<Long, GroupMovieTally> tallies = getTalliesByMovieId(group);
 
-        if (groupRankings.isEmpty()) {
+        if (!hasVotes(tallies)) {
             log.warn("Cannot calculate winner for group {}: No rankings have been submitted yet.", groupId);
-            return;
+            return false;
         }
 
-        Map<Movie, Double> adjustedAverageRanks = calculateAdjustedAverageRanks(group, groupRankings);
-
+        Map<Movie, Double> adjustedAverageRanks = calculateAdjustedAverageRanks(group, tallies);
 
-        // Find the movie with the minimum average rank and highest TMDB ranking
-        Optional<Movie> winnerMovie = adjustedAverageRanks.entrySet().stream()
-        .min(Comparator
-            .comparingDouble(Map.Entry<Movie, Double>::getValue)
-            .thenComparing(
-                entry -> entry.getKey().getTmdbRating() != null 
-                    ? -entry.getKey().getTmdbRating()  // Higher rating wins
-                    : Double.MAX_VALUE
-            )
-        )
-        .map(Map.Entry::getKey);
+        // Find the best movie by the group's voting method, ties go to the highest TMDB rating
+        Optional<Movie> winnerMovie = orderMovies(group, group.getMoviePool().getMovies(), adjustedAverageRanks)
+                .stream().findFirst();
 
         if (winnerMovie.isPresent()) {
             Movie winningMovie = winnerMovie.get();
             Double winningAverageRank = adjustedAverageRanks.get(winningMovie);
 
+            Optional<RankingResult> latest = rankingResultRepository.findTopByGroupOrderByCalculationTimestampDesc(group);
+            if (latest.isPresent() && latest.get().getWinningMovie().getMovieId() == winningMovie.getMovieId()
+                    && winningAverageRank.equals(latest.get().getAverageRank())) {
+                log.debug("Winner of group {} is unchanged, no new result saved", groupId);
+                return false;
+            }
+
             RankingResult result = new RankingResult();
             result.setWinningMovie(winningMovie);
             result.setAverageRank(winningAverageRank);
@@ -211,14 +473,16 @@ public class RankingService {
             // Consider clearing previous results for this group or handling multiple results per period if needed
             // For now, just saves the latest calculation for this group
             rankingResultRepository.save(result);
-            log.info("Calculated and saved ranking winner for group {}: Movie ID {}, Average Rank: {}", groupId, winningMovie.getMovieId(), winningAverageRank);
+            log.info("Calculated and saved ranking winner for group {} ({}): Movie ID {}, Average Rank: {}", groupId, group.getVotingMethod(), winningMovie.getMovieId(), winningAverageRank);
 
             // TODO: Implement notification system (Task 3) - call notification service here, potentially group-specific
             // Example: notificationService.notifyGroupWinner(group, result);
+            return true;
 
         } else {
-            // Should not happen if groupRankings is not empty, but good to handle
+            // Should not happen if rankings were submitted, but good to handle
             log.error("Could not determine a winner for group {} even though rankings exist.", groupId);
+            return false;
         }
     }
 
@@ -250,8 +514,22 @@ public class RankingService {
             .orElseThrow(() -> new UserNotFoundException("User not found"));
         Group group = groupRepository.findById(groupId)
             .orElseThrow(() -> new GroupNotFoundException("Group not found"));
-        // Fetch and map
-        return userMovieRankingRepository.findByUserAndGroup(user, group).stream()
+        // Fetch and map, compact ballots are read through the adapter
+        Optional<Ballot> ballot = ballotRepository.findByUserAndGroup(user, group);
+        List<UserMovieRanking> rankings;
+        if (ballot.isPresent()) {
+            Map<Long, Movie> poolMoviesById = new HashMap<>();
+            if (group.getMoviePool() != null) {
+                for (Movie movie : group.getMoviePool().getMovies()) {
+                    poolMoviesById.put(movie.getMovieId(), movie);
+                }
+            }
+            rankings = toRankings(ballot.get(), poolMoviesById);
+        }
+        else {
+            rankings = userMovieRankingRepository.findByUserAndGroup(user, group);
+        }
+        return rankings.stream()
             .map(umr -> {
                 RankingSubmitDTO dto = new RankingSubmitDTO();
                 dto.setMovieId(umr.getMovie().getMovieId());
@@ -261,6 +539,77 @@ public class RankingService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the live standings of a group for one of its members.
+     * Only available during the VOTING phase.
+     *
+     * @param groupId the group ID
+     * @param userId  the ID of the requesting user
+     * @return the current standings
+     * @throws ResponseStatusException 403 if the user is not a member, 409 if the group is not voting
+     */
+    @Transactional(readOnly = true)
+    public LiveLeaderboardDTO getLiveLeaderboard(Long groupId, Long userId) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
+        if (!membershipService.isMember(groupId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not a member of this group");
+        }
+        if (group.getPhase() != Group.GroupPhase.VOTING) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Live standings are only available during the voting phase");
+        }
+        return buildLiveLeaderboard(group);
+    }
+
+    /**
+     * Returns the live standings of a group, without access checks (used for pushes to subscribers).
+     *
+     * @param groupId the group ID
+     * @return the current standings, the phase tells subscribers when voting is over
+     */
+    @Transactional(readOnly = true)
+    public LiveLeaderboardDTO getLiveLeaderboard(Long groupId) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
+        return buildLiveLeaderboard(group);
+    }
+
+    // Standings always use the adjusted average rank of the tallies: the other voting methods need
+    // every ballot, so they are only applied to the final results
+    private LiveLeaderboardDTO buildLiveLeaderboard(Group group) {
+        LiveLeaderboardDTO dto = new LiveLeaderboardDTO();
+        dto.setGroupId(group.getGroupId());
+        dto.setPhase(group.getPhase() != null ? group.getPhase().name() : null);
+        // counted on group_members, the standings are pushed on every ballot and do not need the members
+        int numberOfMembers = (int) groupRepository.countMembers(group.getGroupId());
+        dto.setNumberOfMembers(numberOfMembers);
+
+        List<Movie> moviesInPool = group.getMoviePool() != null ? group.getMoviePool().getMovies() : Collections.emptyList();
+        Map<Long, GroupMovieTally> tallies = moviesInPool.isEmpty() ? Collections.emptyMap() : getTalliesByMovieId(group);
+        if (!hasVotes(tallies)) {
+            dto.setNumberOfVoters(0);
+            dto.setStandings(Collections.emptyList());
+            return dto;
+        }
+
+        // every ballot ranks exactly min(5, pool size) movies, so the voters follow from the tallies
+        long totalVotes = tallies.values().stream().mapToLong(GroupMovieTally::getVoteCount).sum();
+        dto.setNumberOfVoters((int) (totalVotes / Math.min(5, moviesInPool.size())));
+
+        Map<Movie, Double> adjustedAverageRanks = calculateAdjustedAverageRanks(group, tallies, numberOfMembers);
+        dto.setStandings(moviesInPool.stream()
+                .sorted(Comparator.comparing((Movie movie) -> adjustedAverageRanks.get(movie),
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(movie -> {
+                    MovieAverageRankDTO rank = new MovieAverageRankDTO();
+                    rank.setMovie(DTOMapper.INSTANCE.convertEntityToMovieGetDTO(movie));
+                    rank.setAverageRank(adjustedAverageRanks.get(movie));
+                    return rank;
+                })
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
     /**
      * Retrieves the detailed ranking results for all movies in a specific group's movie pool.
      * Calculates the average rank for each movie based on all submitted user rankings for that group.
@@ -284,9 +633,9 @@ public class RankingService {
             return Collections.emptyList();
         }
 
-        // Fetch all rankings submitted for this group
-        List<UserMovieRanking> groupRankings = userMovieRankingRepository.findByGroup(group);
-        if (groupRankings.isEmpty()) {
+        // Fetch the ranking tallies of this group
+        Map<Long, GroupMovieTally> tallies = getTalliesByMovieId(group);
+        if (!hasVotes(tallies)) {
             log.warn("No rankings submitted yet for group {}. Returning empty ranking details.", groupId);
             // Return DTOs with null ranks for all movies in the pool
             return moviesInPool.stream()
@@ -300,26 +649,90 @@ public class RankingService {
                     .collect(Collectors.toList());
         }
 
-        Map<Movie, Double> adjustedAverageRanks = calculateAdjustedAverageRanks(group, groupRankings);
+        Map<Movie, Double> adjustedAverageRanks = calculateAdjustedAverageRanks(group, tallies);
 
-        // create DTOs and sort by adjusted average rank and TMDB rating
+        // create DTOs in the order of the group's voting method
         // same logic as for winner, but now return list
-        return moviesInPool.stream().map(movie -> {
+        return orderMovies(group, moviesInPool, adjustedAverageRanks).stream().map(movie -> {
             MovieAverageRankDTO dto = new MovieAverageRankDTO();
             dto.setMovie(DTOMapper.INSTANCE.convertEntityToMovieGetDTO(movie));
             dto.setAverageRank(adjustedAverageRanks.get(movie));
             return dto;
         })
-        .sorted(Comparator
-            .comparing(MovieAverageRankDTO::getAverageRank, Comparator.nullsLast(Comparator.naturalOrder()))
-            .thenComparing(dto -> dto.getMovie().getTmdbRating() != null 
-                ? -dto.getMovie().getTmdbRating()
-                : Double.MAX_VALUE
-            )
-        )
         .collect(Collectors.toList());
     }
 
+    /**
+     * Orders the pool movies of a group best first using the group's voting method.
+     * ADJUSTED_AVERAGE orders by the adjusted average rank, the other methods run their VotingRule
+     * over the ballots. Ties are broken by the higher TMDB rating, then by pool order.
+     */
+    private List<Movie> orderMovies(Group group, List<Movie> moviesInPool, Map<Movie, Double> adjustedAverageRanks) {
+        VotingRule rule = VotingRules.forMethod(group.getVotingMethod());
+        Map<Movie, Double> scores;
+        if (rule == null) {
+            scores = adjustedAverageRanks;
+        }
+        else {
+            double[] ruleScores = rule.score(loadBallots(group, moviesInPool));
+            scores = new HashMap<>();
+            for (int i = 0; i < moviesInPool.size(); i++) {
+                scores.put(moviesInPool.get(i), ruleScores[i]);
+            }
+        }
+
+        return moviesInPool.stream()
+                .sorted(Comparator
+                    .comparing((Movie movie) -> scores.get(movie), Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(movie -> movie.getTmdbRating() != null
+                        ? -movie.getTmdbRating()  // Higher rating wins
+                        : Double.MAX_VALUE
+                    )
+                )
+                .collect(Collectors.toList());
+    }
+
+    // Builds the int-encoded ballots of a group; candidate i is the i-th movie of the pool
+    private Ballots loadBallots(Group group, List<Movie> moviesInPool) {
+        Map<Long, Integer> candidateByMovieId = new HashMap<>();
+        for (int i = 0; i < moviesInPool.size(); i++) {
+            candidateByMovieId.put(moviesInPool.get(i).getMovieId(), i);
+        }
+
+        Ballots.Builder builder = Ballots.builder(moviesInPool.size());
+        List<Integer> ballot = new ArrayList<>();
+        Long currentUserId = null;
+        // entries are ordered by user, then by rank
+        for (BallotEntryDTO entry : userMovieRankingRepository.findBallotEntriesByGroup(group)) {
+            if (!entry.getUserId().equals(currentUserId)) {
+                addBallot(builder, ballot);
+                currentUserId = entry.getUserId();
+            }
+            Integer candidate = candidateByMovieId.get(entry.getMovieId());
+            if (candidate != null) {
+                ballot.add(candidate);
+            }
+        }
+        addBallot(builder, ballot);
+        for (Ballot compact : ballotRepository.findByGroup(group)) {
+            for (long movieId : compact.getRankedMovieIds()) {
+                Integer candidate = candidateByMovieId.get(movieId);
+                if (candidate != null) {
+                    ballot.add(candidate);
+                }
+            }
+            addBallot(builder, ballot);
+        }
+        return builder.build();
+    }
+
+    private void addBallot(Ballots.Builder builder, List<Integer> ballot) {
+        if (!ballot.isEmpty()) {
+            builder.addBallot(ballot.stream().mapToInt(Integer::intValue).toArray());
+            ballot.clear();
+        }
+    }
+
     public RankingResultsDTO getRankingResults(Long groupId) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
@@ -338,13 +751,92 @@ public class RankingService {
         dto.setGroupId(groupId);
         dto.setCalculatedAt(result.getCalculationTimestamp().toString());
         dto.setWinningMovie(DTOMapper.INSTANCE.convertEntityToMovieRankGetDTO(result.getWinningMovie()));
-        long voters = userMovieRankingRepository.findByGroup(group).stream()
-                .map(umr -> umr.getUser().getUserId()).distinct().count();
+        long voters = userMovieRankingRepository.countVotersByGroup(group) + ballotRepository.countByGroup(group);
         dto.setNumberOfVoters((int) voters);
         dto.setDetailedResults(getCompleteRankingResult(groupId));
         return dto;
     }
 
+    /**
+     * Stores the ranking results of a group that just entered the RESULTS phase as snapshot.
+     * Called by the ResultsSnapshotListener once the phase transition has committed, in a transaction of its own;
+     * failures leave the group without snapshot, in which case getRankingResultsSnapshot takes it on the first request.
+     *
+     * @param groupId the group ID
+     * @return the snapshot, or empty if no rankings were submitted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<RankingResultSnapshot> createResultsSnapshot(Long groupId) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
+        Optional<RankingResultSnapshot> existing = rankingResultSnapshotRepository.findByGroup_GroupId(groupId);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        if (group.getPhase() != Group.GroupPhase.RESULTS || group.getMoviePool() == null
+                || !hasVotes(getTalliesByMovieId(group))) {
+            log.warn("No results snapshot taken for group {}: no rankings have been submitted.", groupId);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(saveSnapshot(group, getRankingResults(groupId)));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize ranking results of group {}: {}", groupId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the ranking results snapshot of a group.
+     * Groups that reached RESULTS without a snapshot get it taken here, once.
+     * @param groupId the group ID
+     * @return the snapshot holding the serialized RankingResultsDTO and its ETag
+     */
+    public RankingResultSnapshot getRankingResultsSnapshot(Long groupId) {
+        Optional<RankingResultSnapshot> snapshot = rankingResultSnapshotRepository.findByGroup_GroupId(groupId);
+        if (snapshot.isPresent()) {
+            return snapshot.get();
+        }
+        // Lock the group so concurrent first requests take the snapshot only once
+        Group group = groupRepository.findWithLockByGroupId(groupId)
+                .orElseThrow(() -> new GroupNotFoundException("Group with ID " + groupId + " not found."));
+        if (group.getPhase() != Group.GroupPhase.RESULTS) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Results can only be viewed after the RESULTS phase.");
+        }
+        snapshot = rankingResultSnapshotRepository.findByGroup_GroupId(groupId);
+        if (snapshot.isPresent()) {
+            return snapshot.get();
+        }
+        try {
+            return saveSnapshot(group, getRankingResults(groupId));
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not serialize ranking results");
+        }
+    }
+
+    private RankingResultSnapshot saveSnapshot(Group group, RankingResultsDTO results) throws JsonProcessingException {
+        String payload = objectMapper.writeValueAsString(results);
+        RankingResultSnapshot snapshot = new RankingResultSnapshot();
+        snapshot.setGroup(group);
+        snapshot.setPayload(payload);
+        snapshot.setEtag(computeEtag(payload));
+        snapshot.setCreatedAt(LocalDateTime.now());
+        log.info("Stored ranking results snapshot for group {}", group.getGroupId());
+        return rankingResultSnapshotRepository.save(snapshot);
+    }
+
+    // strong ETag: identical payloads, and only those, get the same tag
+    private String computeEtag(String payload) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(payload.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM ships SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Retrieves the most recently calculated ranking result for a specific group.
      * @param groupId the group ID
@@ -0,0 +1,30 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+/**
+ * Published by RankingService.submitRankings. Listeners that need the new tallies
+ * should use a transactional event listener, so they only see committed submissions.
+ */
+public class RankingsSubmittedEvent {
+
+    private final Long groupId;
+    private final Long userId;
+    private final boolean firstSubmission; // false if the user replaced an earlier ballot
+
+    public RankingsSubmittedEvent(Long groupId, Long userId, boolean firstSubmission) {
+        this.groupId = groupId;
+        this.userId = userId;
+        this.firstSubmission = firstSubmission;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public boolean isFirstSubmission() {
+        return firstSubmission;
+    }
+}
@@ -0,0 +1,42 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+/**
+ * Takes the ranking results snapshot of a group once its move to the RESULTS phase has committed.
+ * The snapshot runs in a transaction of its own, so a failing snapshot cannot roll back the phase transition,
+ * which the phase timers commit for all due groups of a partition at once. A failed snapshot is logged,
+ * getRankingResultsSnapshot then takes it on the first request.
+ */
+@Component
+public class ResultsSnapshotListener {
+
+    private final Logger log = LoggerFactory.getLogger(ResultsSnapshotListener.class);
+
+    private final RankingService rankingService;
+
+    @Autowired
+    public ResultsSnapshotListener(RankingService rankingService) {
+        this.rankingService = rankingService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPhaseDeadlineChanged(PhaseDeadlineChangedEvent event) {
+        if (event.getPhase() != Group.GroupPhase.RESULTS) {
+            return;
+        }
+        try {
+            rankingService.createResultsSnapshot(event.getGroupId());
+        } catch (RuntimeException e) {
+            log.error("Could not take the results snapshot of group {}, it is taken on the first request: {}",
+                    event.getGroupId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Movie;
+
+/**
+ * Search Query Planner
+ * Remembers how many results each shape of suggestion query (set of genres, actors and directors)
+ * returned from TMDb and uses this to decide which of the generated search permutations are worth
+ * sending upstream:
+ * - permutations predicted to be empty (they are at least as specific as a query known to be empty) are dropped
+ * - duplicate permutations are dropped
+ * - only the shortest prefix of permutations expected to fill the requested limit is planned,
+ *   the remaining ones are kept as reserve in case the prediction was too optimistic
+ * While a plan is executed, permutations fully covered by an already exhausted broader query are skipped.
+ */
+public class SearchQueryPlanner {
+
+    private final Logger log = LoggerFactory.getLogger(SearchQueryPlanner.class);
+
+    // TMDbService.searchMovies stops paging once it has collected this many movies
+    public static final int UPSTREAM_RESULT_CAP = 100;
+
+    private static final int MAX_REMEMBERED_SHAPES = 1000;
+    private static final long CARDINALITY_TTL = 86400000; // 24 hours in milliseconds
+    // empty results may also come from a failed upstream call, so trust them for a shorter time
+    private static final long EMPTY_CARDINALITY_TTL = 3600000; // 1 hour in milliseconds
+
+    // access-ordered so the least recently used shapes are evicted first
+    private final Map<QueryShape, Cardinality> cardinalities = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<QueryShape, Cardinality> eldest) {
+            return size() > MAX_REMEMBERED_SHAPES;
+        }
+    };
+
+    /**
+     * Plans which search permutations should be sent to TMDb.
+     *
+     * @param permutations  search permutations ordered by priority (most specific first)
+     * @param limit         number of suggestions requested
+     * @param excludedCount number of movies that will be filtered out of the results (watched, watchlist)
+     * @return the plan, containing the primary queries and the reserve queries in priority order
+     */
+    public synchronized QueryPlan plan(List<Movie> permutations, int limit, int excludedCount) {
+        long now = System.currentTimeMillis();
+        List<Movie> primary = new ArrayList<>();
+        List<Movie> reserve = new ArrayList<>();
+        Set<QueryShape> plannedShapes = new HashSet<>();
+
+        long predictedResults = 0;
+        long requiredResults = (long) limit + excludedCount;
+
+        for (Movie query : permutations) {
+            QueryShape shape = QueryShape.of(query);
+
+            if (!plannedShapes.add(shape)) {
+                log.debug("Dropping duplicate search permutation {}", shape);
+                continue;
+            }
+            if (isPredictedEmpty(shape, now)) {
+                log.debug("Dropping search permutation {} predicted to be empty", shape);
+                continue;
+            }
+            if (predictedResults >= requiredResults) {
+                reserve.add(query);
+                continue;
+            }
+
+            primary.add(query);
+            Cardinality known = lookup(shape, now);
+            if (known != null) {
+                predictedResults += known.getCount();
+            }
+        }
+
+        log.info("Planned {} primary and {} reserve queries out of {} search permutations",
+                primary.size(), reserve.size(), permutations.size());
+        return new QueryPlan(primary, reserve);
+    }
+
+    /**
+     * Remembers the number of results a query returned from TMDb.
+     *
+     * @param query       the search parameters that were sent
+     * @param resultCount number of movies returned
+     */
+    public synchronized void recordResult(Movie query, int resultCount) {
+        cardinalities.put(QueryShape.of(query), new Cardinality(resultCount, System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns the remembered number of results for a query, or null if unknown or expired.
+     */
+    public synchronized Integer getKnownCardinality(Movie query) {
+        Cardinality known = lookup(QueryShape.of(query), System.currentTimeMillis());
+        return known != null ? known.getCount() : null;
+    }
+
+    private Cardinality lookup(QueryShape shape, long now) {
+        Cardinality known = cardinalities.get(shape);
+        if (known != null && known.isExpired(now)) {
+            cardinalities.remove(shape);
+            return null;
+        }
+        return known;
+    }
+
+    // a query is empty if it is at least as specific as a query known to return nothing
+    private boolean isPredictedEmpty(QueryShape shape, long now) {
+        Iterator<Map.Entry<QueryShape, Cardinality>> it = cardinalities.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<QueryShape, Cardinality> entry = it.next();
+            if (entry.getValue().isExpired(now)) {
+                it.remove();
+            }
+            else if (entry.getValue().getCount() == 0 && shape.isNarrowerOrEqual(entry.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Result of planning: the queries to execute and the per-request execution state.
+     */
+    public static class QueryPlan {
+
+        private final List<Movie> primary;
+        private final List<Movie> reserve;
+        private final Set<QueryShape> exhaustedShapes = new HashSet<>();
+
+        QueryPlan(List<Movie> primary, List<Movie> reserve) {
+            this.primary = primary;
+            this.reserve = reserve;
+        }
+
+        public List<Movie> getPrimary() {
+            return primary;
+        }
+
+        public List<Movie> getReserve() {
+            return reserve;
+        }
+
+        /**
+         * Marks a query as exhausted: its complete (not truncated) result set has been fetched
+         * and every movie in it is already suggested or excluded.
+         */
+        public void markExhausted(Movie query) {
+            exhaustedShapes.add(QueryShape.of(query));
+        }
+
+        /**
+         * A query is covered if it is at least as specific as an exhausted query,
+         * because its results are then a subset of movies that can no longer be suggested.
+         */
+        public boolean isCovered(Movie query) {
+            QueryShape shape = QueryShape.of(query);
+            return exhaustedShapes.stream().anyMatch(shape::isNarrowerOrEqual);
+        }
+    }
+
+    /**
+     * Canonical form of the search parameters used for suggestions.
+     * TMDb combines multiple values of the same criterion with AND, so a shape with more values is narrower.
+     */
+    static final class QueryShape {
+
+        private final Set<String> genres;
+        private final Set<String> actors;
+        private final Set<String> directors;
+
+        private QueryShape(Set<String> genres, Set<String> actors, Set<String> directors) {
+            this.genres = genres;
+            this.actors = actors;
+            this.directors = directors;
+        }
+
+        static QueryShape of(Movie query) {
+            return new QueryShape(toSortedSet(query.getGenres()), toSortedSet(query.getActors()),
+                    toSortedSet(query.getDirectors()));
+        }
+
+        private static Set<String> toSortedSet(List<String> values) {
+            if (values == null) {
+                return Collections.emptySet();
+            }
+            return Collections.unmodifiableSet(new TreeSet<>(values));
+        }
+
+        boolean isNarrowerOrEqual(QueryShape broader) {
+            return genres.containsAll(broader.genres)
+                    && actors.containsAll(broader.actors)
+                    && directors.containsAll(broader.directors);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryShape)) {
+                return false;
+            }
+            QueryShape other = (QueryShape) o;
+            return genres.equals(other.genres) && actors.equals(other.actors) && directors.equals(other.directors);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(genres, actors, directors);
+        }
+
+        @Override
+        public String toString() {
+            return "genres=" + genres + ", actors=" + actors + ", directors=" + directors;
+        }
+    }
+
+    private static final class Cardinality {
+
+        private final int count;
+        private final long recordedAt;
+
+        Cardinality(int count, long recordedAt) {
+            this.count = count;
+            this.recordedAt = recordedAt;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        boolean isExpired(long now) {
+            long ttl = count == 0 ? EMPTY_CARDINALITY_TTL : CARDINALITY_TTL;
+            return now - recordedAt >= ttl;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ch.uzh.ifi.hase.soprafs25.config.TMDbConfig;
+import ch.uzh.ifi.hase.soprafs25.constant.MovieGenre;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.ActorDTO;
 import ch.uzh.ifi.hase.soprafs25.rest.dto.DirectorDTO;
@@ -43,52 +44,14 @@ public class TMDbService {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
-    // Map to convert genre IDs to strings
+    // Maps between TMDb genre IDs and names, derived from the genre set
     private static final Map<Integer, String> GENRE_ID_TO_NAME = new HashMap<>();
-    static {
-        GENRE_ID_TO_NAME.put(28, "Action");
-        GENRE_ID_TO_NAME.put(12, "Adventure");
-        GENRE_ID_TO_NAME.put(16, "Animation");
-        GENRE_ID_TO_NAME.put(35, "Comedy");
-        GENRE_ID_TO_NAME.put(80, "Crime");
-        GENRE_ID_TO_NAME.put(99, "Documentary");
-        GENRE_ID_TO_NAME.put(18, "Drama");
-        GENRE_ID_TO_NAME.put(10751, "Family");
-        GENRE_ID_TO_NAME.put(14, "Fantasy");
-        GENRE_ID_TO_NAME.put(36, "History");
-        GENRE_ID_TO_NAME.put(27, "Horror");
-        GENRE_ID_TO_NAME.put(10402, "Music");
-        GENRE_ID_TO_NAME.put(9648, "Mystery");
-        GENRE_ID_TO_NAME.put(10749, "Romance");
-        GENRE_ID_TO_NAME.put(878, "Science Fiction");
-        GENRE_ID_TO_NAME.put(10770, "TV Movie");
-        GENRE_ID_TO_NAME.put(53, "Thriller");
-        GENRE_ID_TO_NAME.put(10752, "War");
-        GENRE_ID_TO_NAME.put(37, "Western");
-    }
-
-    // Map to convert genre names to IDs
     private static final Map<String, String> GENRE_NAME_TO_ID = new HashMap<>();
     static {
-        GENRE_NAME_TO_ID.put("Action", "28");
-        GENRE_NAME_TO_ID.put("Adventure", "12");
-        GENRE_NAME_TO_ID.put("Animation", "16");
-        GENRE_NAME_TO_ID.put("Comedy", "35");
-        GENRE_NAME_TO_ID.put("Crime", "80");
-        GENRE_NAME_TO_ID.put("Documentary", "99");
-        GENRE_NAME_TO_ID.put("Drama", "18");
-        GENRE_NAME_TO_ID.put("Family", "10751");
-        GENRE_NAME_TO_ID.put("Fantasy", "14");
-        GENRE_NAME_TO_ID.put("History", "36");
-        GENRE_NAME_TO_ID.put("Horror", "27");
-        GENRE_NAME_TO_ID.put("Music", "10402");
-        GENRE_NAME_TO_ID.put("Mystery", "9648");
-        GENRE_NAME_TO_ID.put("Romance", "10749");
-        GENRE_NAME_TO_ID.put("Science Fiction", "878");
-        GENRE_NAME_TO_ID.put("TV Movie", "10770");
-        GENRE_NAME_TO_ID.put("Thriller", "53");
-        GENRE_NAME_TO_ID.put("War", "10752");
-        GENRE_NAME_TO_ID.put("Western", "37");
+        for (MovieGenre genre : MovieGenre.values()) {
+            GENRE_ID_TO_NAME.put(genre.getTmdbId(), genre.getDisplayName());
+            GENRE_NAME_TO_ID.put(genre.getDisplayName(), String.valueOf(genre.getTmdbId()));
+        }
     }
 
     // Map to convert language IDs to strings
@@ -526,8 +489,9 @@ public class TMDbService {
             List<String> spokenlanguages = new ArrayList<>();
             if (spokenlanguagesNode.isArray()) {
                 for (JsonNode languageNode : spokenlanguagesNode) {
-                    if (languageNode.has("name")) {
-                        spokenlanguages.add(languageNode.get("name").asText().trim());
+                    String code = languageNode.path("iso_639_1").asText("").trim();
+                    if (!code.isEmpty()) {
+                        spokenlanguages.add(code);
                     }
                 }
             }
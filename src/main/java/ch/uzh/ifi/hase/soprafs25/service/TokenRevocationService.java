@@ -0,0 +1,116 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.uzh.ifi.hase.soprafs25.entity.TokenRevocation;
+import ch.uzh.ifi.hase.soprafs25.repository.TokenRevocationRepository;
+
+/**
+ * Token Revocation Service
+ * Keeps the revocations of signed tokens in memory, so checking a token does not need the database.
+ * A revocation covers all tokens of a user issued before it, so there is at most one entry per user
+ * and time bucket. Revocations are grouped into buckets of one hour by the time they were written:
+ * a token is only checked against the buckets written after it was issued, and whole buckets are dropped
+ * once all the tokens they cover have expired.
+ * Revocations are written to the database and every instance loads the new ones periodically
+ * (sopra.auth.revocation.sync-interval), so a logout takes effect on other instances after at most one
+ * sync interval.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    static final long BUCKET_SIZE = 60 * 60 * 1000L;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final TokenSigner tokenSigner;
+    private final long syncOverlap;
+
+    // bucket (revokedBefore / BUCKET_SIZE) -> user ID -> latest revokedBefore of the user in the bucket
+    private final ConcurrentNavigableMap<Long, Map<Long, Long>> buckets = new ConcurrentSkipListMap<>();
+    private volatile long lastSync;
+
+    @Autowired
+    public TokenRevocationService(@Qualifier("tokenRevocationRepository") TokenRevocationRepository tokenRevocationRepository,
+                                  TokenSigner tokenSigner,
+                                  @Value("${sopra.auth.revocation.sync-overlap:60000}") long syncOverlap) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.tokenSigner = tokenSigner;
+        this.syncOverlap = syncOverlap;
+    }
+
+    /**
+     * Revokes all signed tokens of the user issued before the given time.
+     *
+     * @param userId        the user ID
+     * @param revokedBefore epoch milliseconds
+     */
+    public void revoke(Long userId, long revokedBefore) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setRevokedBefore(revokedBefore);
+        tokenRevocationRepository.save(revocation);
+        add(userId, revokedBefore);
+    }
+
+    public boolean isRevoked(Long userId, long issuedAt) {
+        // only revocations written after the token was issued can cover it
+        for (Map<Long, Long> bucket : buckets.tailMap(issuedAt / BUCKET_SIZE, true).values()) {
+            Long revokedBefore = bucket.get(userId);
+            if (revokedBefore != null && issuedAt < revokedBefore) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Loads the revocations written by other instances since the last sync and drops the expired ones.
+     * A sync re-reads the last sopra.auth.revocation.sync-overlap milliseconds, which covers clock skew
+     * between the instances and revocations committed late; loading a revocation twice is harmless.
+     * The first sync loads all unexpired revocations.
+     */
+    @Scheduled(fixedDelayString = "${sopra.auth.revocation.sync-interval:10000}")
+    @Transactional
+    public void sync() {
+        if (!tokenSigner.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiredBefore = now - tokenSigner.getTokenTtl();
+        long since = lastSync == 0 ? expiredBefore : lastSync - syncOverlap;
+
+        int loaded = 0;
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedBeforeGreaterThan(since)) {
+            add(revocation.getUserId(), revocation.getRevokedBefore());
+            loaded++;
+        }
+        lastSync = now;
+
+        buckets.headMap(expiredBefore / BUCKET_SIZE).clear();
+        int deleted = tokenRevocationRepository.deleteExpired(expiredBefore);
+        log.debug("Token revocation sync loaded {} and deleted {} revocations.", loaded, deleted);
+    }
+
+    private void add(Long userId, long revokedBefore) {
+        buckets.computeIfAbsent(revokedBefore / BUCKET_SIZE, bucket -> new ConcurrentHashMap<>())
+                .merge(userId, revokedBefore, Math::max);
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+}
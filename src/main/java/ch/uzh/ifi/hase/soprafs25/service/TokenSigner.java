@@ -0,0 +1,161 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Token Signer
+ * Issues and verifies signed session tokens, so a token can be validated without a database lookup.
+ * A token has the form "v1.keyId.userId.issuedAt.signature", where the signature is an HMAC-SHA256
+ * over the other parts and issuedAt is in epoch milliseconds.
+ * The keys are configured as sopra.auth.signing.keys ("keyId:base64Secret,..."): new tokens are signed
+ * with sopra.auth.signing.active-key (the first key by default), every configured key is accepted.
+ * To rotate, add a new key, make it the active one and remove the old key once its tokens have expired.
+ * Without keys, signing is disabled and users get random tokens that are looked up in the database.
+ */
+@Component
+public class TokenSigner {
+
+    static final String VERSION = "v1";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = ".";
+
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final String activeKeyId;
+    private final long tokenTtl;
+
+    @Autowired
+    public TokenSigner(@Value("${sopra.auth.signing.keys:}") String keys,
+                       @Value("${sopra.auth.signing.active-key:}") String activeKeyId,
+                       @Value("${sopra.auth.signing.token-ttl:604800}") long tokenTtl) {
+        for (String key : keys.split(",")) {
+            if (key.isBlank()) {
+                continue;
+            }
+            String[] parts = key.trim().split(":", 2);
+            if (parts.length != 2 || parts[0].isEmpty() || parts[0].contains(SEPARATOR)) {
+                throw new IllegalStateException("Invalid signing key, expected keyId:base64Secret");
+            }
+            this.keys.put(parts[0], new SecretKeySpec(Base64.getDecoder().decode(parts[1]), ALGORITHM));
+        }
+        this.activeKeyId = activeKeyId.isBlank()
+                ? this.keys.keySet().stream().findFirst().orElse(null)
+                : activeKeyId;
+        if (this.activeKeyId != null && !this.keys.containsKey(this.activeKeyId)) {
+            throw new IllegalStateException("Active signing key " + activeKeyId + " is not configured");
+        }
+        this.tokenTtl = tokenTtl * 1000;
+    }
+
+    public boolean isEnabled() {
+        return activeKeyId != null;
+    }
+
+    /**
+     * @return the lifetime of a signed token in milliseconds
+     */
+    public long getTokenTtl() {
+        return tokenTtl;
+    }
+
+    /**
+     * Whether the token has the form of a signed token; random tokens are looked up in the database instead.
+     */
+    public boolean isSigned(String token) {
+        return token != null && token.startsWith(VERSION + SEPARATOR);
+    }
+
+    public String issue(Long userId, long issuedAt) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Token signing is disabled");
+        }
+        String payload = String.join(SEPARATOR, VERSION, activeKeyId, userId.toString(), Long.toString(issuedAt));
+        return payload + SEPARATOR + sign(keys.get(activeKeyId), payload);
+    }
+
+    /**
+     * Verifies the signature and the age of a signed token.
+     *
+     * @param token the signed token
+     * @return the user ID and issue time carried by the token
+     * @throws ResponseStatusException 401 if the token is malformed, signed with an unknown key,
+     *         has an invalid signature or has expired
+     */
+    public SignedToken verify(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw invalidToken();
+        }
+        SecretKeySpec key = keys.get(parts[1]);
+        if (key == null) {
+            throw invalidToken();
+        }
+        String payload = token.substring(0, token.lastIndexOf(SEPARATOR));
+        byte[] expected = sign(key, payload).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, parts[4].getBytes(StandardCharsets.US_ASCII))) {
+            throw invalidToken();
+        }
+        SignedToken signed;
+        try {
+            signed = new SignedToken(Long.valueOf(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            throw invalidToken();
+        }
+        if (signed.getIssuedAt() + tokenTtl <= System.currentTimeMillis()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token expired");
+        }
+        return signed;
+    }
+
+    private String sign(SecretKeySpec key, String payload) {
+        try {
+            // Mac instances are not thread-safe, so every signature gets its own
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+
+    private static ResponseStatusException invalidToken() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+    }
+
+    /**
+     * The content of a verified signed token.
+     */
+    public static final class SignedToken {
+
+        private final Long userId;
+        private final long issuedAt;
+
+        SignedToken(Long userId, long issuedAt) {
+            this.userId = userId;
+            this.issuedAt = issuedAt;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public long getIssuedAt() {
+            return issuedAt;
+        }
+    }
+}
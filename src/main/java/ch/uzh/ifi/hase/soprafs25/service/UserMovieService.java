@@ -45,15 +45,32 @@ public class UserMovieService {
      * @param userId the ID of the user
      * @return list of movies in the user's watchlist
      */
+    @Transactional(readOnly = true)
     public List<Movie> getWatchlist(Long userId) {
         User user = getUserById(userId);
         if (user.getWatchlist() == null) {
-            user.setWatchlist(new ArrayList<>());
-            userRepository.save(user);
+            return new ArrayList<>();
         }
         return user.getWatchlist();
     }
 
+    /**
+     * Get one page of the watchlist of a user, ordered by movie ID (see KeysetPage)
+     *
+     * @param userId the ID of the user
+     * @param after the cursor of the page, null for the first page
+     * @param limit the page size, null for the default
+     * @return the page of movies in the user's watchlist
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Movie> getWatchlist(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        checkUserExists(userId);
+        List<Movie> movies = movieRepository.findWatchlistAfter(userId, KeysetPage.after(after),
+                KeysetPage.fetch(pageSize));
+        return KeysetPage.of(movies, pageSize, Movie::getMovieId);
+    }
+
     /**
      * Add a movie to the user's watchlist
      * 
@@ -119,15 +136,32 @@ public class UserMovieService {
      * @param userId the ID of the user
      * @return list of movies the user has watched
      */
+    @Transactional(readOnly = true)
     public List<Movie> getWatchedMovies(Long userId) {
         User user = getUserById(userId);
         if (user.getWatchedMovies() == null) {
-            user.setWatchedMovies(new ArrayList<>());
-            userRepository.save(user);
+            return new ArrayList<>();
         }
         return user.getWatchedMovies();
     }
 
+    /**
+     * Get one page of the movies a user has watched, ordered by movie ID (see KeysetPage)
+     *
+     * @param userId the ID of the user
+     * @param after the cursor of the page, null for the first page
+     * @param limit the page size, null for the default
+     * @return the page of movies the user has watched
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Movie> getWatchedMovies(Long userId, Long after, Integer limit) {
+        int pageSize = KeysetPage.limit(limit);
+        checkUserExists(userId);
+        List<Movie> movies = movieRepository.findWatchedMoviesAfter(userId, KeysetPage.after(after),
+                KeysetPage.fetch(pageSize));
+        return KeysetPage.of(movies, pageSize, Movie::getMovieId);
+    }
+
     /**
      * Add a movie to the user's watched movies list
      * 
@@ -204,6 +238,12 @@ public class UserMovieService {
                 "User not found with ID: " + userId));
     }
 
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with ID: " + userId);
+        }
+    }
+
     /**
      * Helper method to get and save a movie by ID
      */
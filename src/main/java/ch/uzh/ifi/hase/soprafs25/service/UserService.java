@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -41,13 +42,25 @@ public class UserService {
 
   private final MoviePersistenceService moviePersistenceService;
 
+  private final PrincipalCache principalCache;
+
+  private final TokenSigner tokenSigner;
+
+  private final TokenRevocationService tokenRevocationService;
+
   @Autowired
   public UserService(@Qualifier("userRepository") UserRepository userRepository,
                      @Qualifier("movieRepository") MovieRepository movieRepository,
-                     MoviePersistenceService moviePersistenceService) {
+                     MoviePersistenceService moviePersistenceService,
+                     PrincipalCache principalCache,
+                     TokenSigner tokenSigner,
+                     TokenRevocationService tokenRevocationService) {
     this.userRepository = userRepository;
     this.movieRepository = movieRepository;
     this.moviePersistenceService = moviePersistenceService;
+    this.principalCache = principalCache;
+    this.tokenSigner = tokenSigner;
+    this.tokenRevocationService = tokenRevocationService;
   }
 
   // for friends functionality
@@ -59,6 +72,15 @@ public class UserService {
     return this.userRepository.findAll();
   }
 
+  // one page of all users, ordered by ID (see KeysetPage)
+  @Transactional(readOnly = true)
+  public KeysetPage<User> getUsers(Long after, Integer limit) {
+    int pageSize = KeysetPage.limit(limit);
+    List<User> users = userRepository.findByUserIdGreaterThanOrderByUserIdAsc(
+        KeysetPage.after(after), KeysetPage.fetch(pageSize));
+    return KeysetPage.of(users, pageSize, User::getUserId);
+  }
+
   public User createUser(User newUser) {
     newUser.setToken(UUID.randomUUID().toString());
     newUser.setStatus(UserStatus.ONLINE);
@@ -67,6 +89,10 @@ public class UserService {
     // flush() is called
     newUser = userRepository.save(newUser);
     userRepository.flush();
+    // a signed token needs the user ID, so it replaces the random token once the user has been stored
+    if (tokenSigner.isEnabled()) {
+      newUser.setToken(tokenSigner.issue(newUser.getUserId(), System.currentTimeMillis()));
+    }
 
     log.debug("Created Information for User: {}", newUser);
     return newUser;
@@ -115,10 +141,22 @@ public class UserService {
         throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid password");
     }
     user.setStatus(UserStatus.ONLINE);
-    user.setToken(UUID.randomUUID().toString());
+    user.setToken(issueToken(user));
     return userRepository.save(user);      
   }
 
+  // a new token replaces the previous one, a replaced signed token has to be revoked explicitly
+  private String issueToken(User user) {
+    if (!tokenSigner.isEnabled()) {
+      return UUID.randomUUID().toString();
+    }
+    long now = System.currentTimeMillis();
+    if (tokenSigner.isSigned(user.getToken())) {
+      tokenRevocationService.revoke(user.getUserId(), now);
+    }
+    return tokenSigner.issue(user.getUserId(), now);
+  }
+
   // for user id identification by token
   // public Long getUserIdByToken(String token) {
   //   User user = userRepository.findByToken(token);
@@ -128,14 +166,38 @@ public class UserService {
   //   return user.getUserId();
   // }
   
-  public User getUserByToken(String token) {
-    User user = userRepository.findByToken(token);
-    if (user == null) {
+  /**
+   * Resolves a token into the principal of its user.
+   * A signed token is verified in-process (see TokenSigner and TokenRevocationService), a random token
+   * is looked up in the database, served from the principal cache when possible.
+   * Runs without a transaction of its own, so a signed token never needs a database connection,
+   * and a random token is always looked up on the primary, never on a lagging read replica.
+   *
+   * @param token the token of the request
+   * @return the principal of the user with the token
+   * @throws ResponseStatusException 401 if the token is invalid, expired or revoked
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public AuthenticatedUser authenticate(String token) {
+    if (tokenSigner.isSigned(token)) {
+      TokenSigner.SignedToken signed = tokenSigner.verify(token);
+      if (tokenRevocationService.isRevoked(signed.getUserId(), signed.getIssuedAt())) {
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+      }
+      return new AuthenticatedUser(signed.getUserId());
+    }
+    AuthenticatedUser principal = principalCache.get(token);
+    if (principal != null) {
+      return principal;
+    }
+    principal = userRepository.findPrincipalByToken(token);
+    if (principal == null) {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
     }
-    return user;
+    principalCache.put(token, principal);
+    return principal;
   }
-  
+
   public User getUserById(Long userId) {
     return userRepository.findById(userId)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
@@ -146,25 +208,15 @@ public class UserService {
     if (user == null) {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
     }
+    if (tokenSigner.isSigned(token)) {
+      tokenRevocationService.revoke(user.getUserId(), System.currentTimeMillis());
+    }
     user.setStatus(UserStatus.OFFLINE);
     user.setToken(null);
     userRepository.save(user);
   }
 
   
-  /**
-   * Checks if the given token belongs to the specified user
-   */
-  public void checkUserToken(Long userId, String token) {
-    User user = userRepository.findById(userId)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-    
-    // Check if the token is valid for this user
-    if (user.getToken() == null || !user.getToken().equals(token)) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token for this user");
-    }
-  }
-  
   /**
    * Updates a user's information
    */
@@ -0,0 +1,108 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+import java.util.Arrays;
+
+/**
+ * Compact, int-encoded ballots of one group.
+ * Candidates are numbered 0..candidateCount-1 (the position of the movie in the pool).
+ * All ballots are stored back to back in one array, each ballot listing its candidates best first.
+ * Ballots may be truncated: candidates missing from a ballot rank below all listed ones and equal to each other.
+ */
+public final class Ballots {
+
+    private final int candidateCount;
+    private final int[] choices;
+    private final int[] offsets; // ballot b is choices[offsets[b]] .. choices[offsets[b + 1] - 1]
+    private final int ballotCount;
+
+    private Ballots(int candidateCount, int[] choices, int[] offsets, int ballotCount) {
+        this.candidateCount = candidateCount;
+        this.choices = choices;
+        this.offsets = offsets;
+        this.ballotCount = ballotCount;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public int getBallotCount() {
+        return ballotCount;
+    }
+
+    public int getBallotLength(int ballot) {
+        return offsets[ballot + 1] - offsets[ballot];
+    }
+
+    // candidate at 0-based position of a ballot
+    public int getChoice(int ballot, int position) {
+        return choices[offsets[ballot] + position];
+    }
+
+    /**
+     * Pairwise preference matrix as flat array: d[i * n + j] is the number of ballots preferring i over j.
+     */
+    public int[] pairwisePreferences() {
+        int n = candidateCount;
+        int[] d = new int[n * n];
+        int[] rankedAbove = new int[n]; // ballot stamp + 1 of the ballot that already listed the candidate
+        for (int b = 0; b < ballotCount; b++) {
+            int start = offsets[b];
+            int end = offsets[b + 1];
+            for (int p = start; p < end; p++) {
+                int c = choices[p];
+                rankedAbove[c] = b + 1;
+                // c beats everyone not listed up to and including itself
+                int row = c * n;
+                for (int x = 0; x < n; x++) {
+                    if (rankedAbove[x] != b + 1) {
+                        d[row + x]++;
+                    }
+                }
+            }
+        }
+        return d;
+    }
+
+    public static Builder builder(int candidateCount) {
+        return new Builder(candidateCount);
+    }
+
+    public static final class Builder {
+
+        private final int candidateCount;
+        private int[] choices = new int[64];
+        private int[] offsets = new int[17];
+        private int size;
+        private int ballotCount;
+
+        private Builder(int candidateCount) {
+            this.candidateCount = candidateCount;
+        }
+
+        /**
+         * Adds a ballot listing candidates best first; each candidate may appear at most once.
+         */
+        public Builder addBallot(int... candidatesBestFirst) {
+            if (size + candidatesBestFirst.length > choices.length) {
+                choices = Arrays.copyOf(choices, Math.max(choices.length * 2, size + candidatesBestFirst.length));
+            }
+            if (ballotCount + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            for (int candidate : candidatesBestFirst) {
+                if (candidate < 0 || candidate >= candidateCount) {
+                    throw new IllegalArgumentException("Unknown candidate " + candidate);
+                }
+                choices[size++] = candidate;
+            }
+            offsets[++ballotCount] = size;
+            return this;
+        }
+
+        public Ballots build() {
+            return new Ballots(candidateCount, Arrays.copyOf(choices, size),
+                    Arrays.copyOf(offsets, ballotCount + 1), ballotCount);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+/**
+ * Borda count: on a ballot the candidate at 0-based position p gets n - 1 - p points.
+ * Candidates missing from a truncated ballot share the points of the remaining positions equally.
+ */
+public class BordaRule implements VotingRule {
+
+    @Override
+    public double[] score(Ballots ballots) {
+        int n = ballots.getCandidateCount();
+        double[] points = new double[n];
+        // points every candidate gets from ballots not listing it, added once at the end
+        double sharedPoints = 0;
+
+        for (int b = 0; b < ballots.getBallotCount(); b++) {
+            int k = ballots.getBallotLength(b);
+            double unlistedShare = (n - k - 1) / 2.0;
+            sharedPoints += unlistedShare;
+            for (int p = 0; p < k; p++) {
+                // listed candidates get their points instead of the shared ones
+                points[ballots.getChoice(b, p)] += (n - 1 - p) - unlistedShare;
+            }
+        }
+
+        double[] scores = new double[n];
+        for (int c = 0; c < n; c++) {
+            scores[c] = -(points[c] + sharedPoints);
+        }
+        return scores;
+    }
+}
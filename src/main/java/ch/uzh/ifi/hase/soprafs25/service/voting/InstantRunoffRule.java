@@ -0,0 +1,57 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+/**
+ * Instant-runoff voting: in every round each ballot counts for its best continuing candidate and
+ * the candidate with the fewest votes is eliminated (ties: the higher candidate index goes first).
+ * Rounds continue until every candidate is eliminated, so the elimination order ranks all candidates;
+ * the last one standing is the IRV winner.
+ * Every ballot keeps a cursor to its current choice, so a round only re-reads ballots that lost their candidate.
+ */
+public class InstantRunoffRule implements VotingRule {
+
+    @Override
+    public double[] score(Ballots ballots) {
+        int n = ballots.getCandidateCount();
+        int ballotCount = ballots.getBallotCount();
+        boolean[] eliminated = new boolean[n];
+        int[] cursor = new int[ballotCount];
+        int[] counts = new int[n];
+
+        for (int b = 0; b < ballotCount; b++) {
+            if (ballots.getBallotLength(b) > 0) {
+                counts[ballots.getChoice(b, 0)]++;
+            }
+        }
+
+        double[] scores = new double[n];
+        for (int round = 0; round < n; round++) {
+            int loser = -1;
+            for (int c = 0; c < n; c++) {
+                if (!eliminated[c] && (loser == -1 || counts[c] <= counts[loser])) {
+                    loser = c;
+                }
+            }
+            eliminated[loser] = true;
+            // eliminated earlier means a worse place
+            scores[loser] = -round;
+
+            // move the ballots of the loser to their next continuing candidate
+            if (counts[loser] > 0) {
+                for (int b = 0; b < ballotCount; b++) {
+                    int length = ballots.getBallotLength(b);
+                    if (cursor[b] >= length || ballots.getChoice(b, cursor[b]) != loser) {
+                        continue;
+                    }
+                    do {
+                        cursor[b]++;
+                    } while (cursor[b] < length && eliminated[ballots.getChoice(b, cursor[b])]);
+                    if (cursor[b] < length) {
+                        counts[ballots.getChoice(b, cursor[b])]++;
+                    }
+                }
+                counts[loser] = 0;
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,137 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+import java.util.Arrays;
+
+/**
+ * Kemeny-Young: the order agreeing with the most pairwise preferences.
+ * Small pools are solved exactly by dynamic programming over candidate subsets (O(2^n * n^2));
+ * larger pools start from the order by pairwise margin and improve it by moving single candidates
+ * to their best position until no move helps (each pass O(n^2)).
+ * A candidate's score is its position in the resulting order.
+ */
+public class KemenyRule implements VotingRule {
+
+    static final int MAX_EXACT_CANDIDATES = 12;
+    private static final int MAX_PASSES = 100;
+
+    @Override
+    public double[] score(Ballots ballots) {
+        int n = ballots.getCandidateCount();
+        int[] d = ballots.pairwisePreferences();
+        int[] order = n <= MAX_EXACT_CANDIDATES ? exactOrder(d, n) : approximateOrder(d, n);
+
+        double[] scores = new double[n];
+        for (int position = 0; position < n; position++) {
+            scores[order[position]] = position;
+        }
+        return scores;
+    }
+
+    private int[] exactOrder(int[] d, int n) {
+        int subsets = 1 << n;
+        long[] best = new long[subsets];
+        int[] lastAdded = new int[subsets];
+        Arrays.fill(best, Long.MIN_VALUE);
+        best[0] = 0;
+
+        for (int placed = 0; placed < subsets; placed++) {
+            if (best[placed] == Long.MIN_VALUE) {
+                continue;
+            }
+            for (int c = 0; c < n; c++) {
+                if ((placed & (1 << c)) != 0) {
+                    continue;
+                }
+                // placing c next agrees with its preferences over all candidates placed after it
+                long gain = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j != c && (placed & (1 << j)) == 0) {
+                        gain += d[c * n + j];
+                    }
+                }
+                int next = placed | (1 << c);
+                if (best[placed] + gain > best[next]) {
+                    best[next] = best[placed] + gain;
+                    lastAdded[next] = c;
+                }
+            }
+        }
+
+        int[] order = new int[n];
+        int placed = subsets - 1;
+        for (int position = n - 1; position >= 0; position--) {
+            order[position] = lastAdded[placed];
+            placed &= ~(1 << order[position]);
+        }
+        return order;
+    }
+
+    private int[] approximateOrder(int[] d, int n) {
+        // start with the candidates sorted by total pairwise margin
+        long[] margin = new long[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                margin[i] += d[i * n + j] - d[j * n + i];
+            }
+        }
+        Integer[] start = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            start[i] = i;
+        }
+        Arrays.sort(start, (a, b) -> Long.compare(margin[b], margin[a]));
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = start[i];
+        }
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            for (int from = 0; from < n; from++) {
+                int c = order[from];
+                int bestTo = from;
+                long bestDelta = 0;
+
+                // moving c up past order[to]..order[from - 1]
+                long delta = 0;
+                for (int to = from - 1; to >= 0; to--) {
+                    int x = order[to];
+                    delta += d[c * n + x] - d[x * n + c];
+                    if (delta > bestDelta) {
+                        bestDelta = delta;
+                        bestTo = to;
+                    }
+                }
+                // moving c down past order[from + 1]..order[to]
+                delta = 0;
+                for (int to = from + 1; to < n; to++) {
+                    int x = order[to];
+                    delta += d[x * n + c] - d[c * n + x];
+                    if (delta > bestDelta) {
+                        bestDelta = delta;
+                        bestTo = to;
+                    }
+                }
+
+                if (bestTo != from) {
+                    move(order, from, bestTo);
+                    improved = true;
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        return order;
+    }
+
+    private void move(int[] order, int from, int to) {
+        int c = order[from];
+        if (to < from) {
+            System.arraycopy(order, to, order, to + 1, from - to);
+        }
+        else {
+            System.arraycopy(order, from + 1, order, from, to - from);
+        }
+        order[to] = c;
+    }
+}
@@ -0,0 +1,57 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+/**
+ * Schulze method: strongest (widest) paths between all candidates over the pairwise
+ * preference matrix, computed Floyd-Warshall style on flat int arrays in O(n^3).
+ * A candidate's score is minus the number of candidates it beats by strongest path,
+ * which orders the candidates like the Schulze ranking.
+ */
+public class SchulzeRule implements VotingRule {
+
+    @Override
+    public double[] score(Ballots ballots) {
+        int n = ballots.getCandidateCount();
+        int[] d = ballots.pairwisePreferences();
+        int[] p = new int[n * n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j && d[i * n + j] > d[j * n + i]) {
+                    p[i * n + j] = d[i * n + j];
+                }
+            }
+        }
+
+        for (int k = 0; k < n; k++) {
+            int rowK = k * n;
+            for (int i = 0; i < n; i++) {
+                int rowI = i * n;
+                int pik = p[rowI + k];
+                if (i == k || pik == 0) {
+                    continue;
+                }
+                for (int j = 0; j < n; j++) {
+                    if (j == i || j == k) {
+                        continue;
+                    }
+                    int through = Math.min(pik, p[rowK + j]);
+                    if (through > p[rowI + j]) {
+                        p[rowI + j] = through;
+                    }
+                }
+            }
+        }
+
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            int wins = 0;
+            for (int j = 0; j < n; j++) {
+                if (i != j && p[i * n + j] > p[j * n + i]) {
+                    wins++;
+                }
+            }
+            scores[i] = -wins;
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,16 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+/**
+ * Strategy turning the ballots of a group into an order of its candidates.
+ */
+public interface VotingRule {
+
+    /**
+     * Scores every candidate; a lower score means a better place.
+     * Candidates with equal scores are tied and ordered by the caller (e.g. by TMDb rating).
+     *
+     * @param ballots the ballots of the group
+     * @return one score per candidate, indexed like the candidates of the ballots
+     */
+    double[] score(Ballots ballots);
+}
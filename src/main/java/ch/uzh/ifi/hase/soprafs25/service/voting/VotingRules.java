@@ -0,0 +1,30 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+/**
+ * Maps the voting method of a group to its rule.
+ */
+public final class VotingRules {
+
+    private VotingRules() {
+    }
+
+    /**
+     * @return the rule for the method, or null for ADJUSTED_AVERAGE which RankingService computes from the tallies
+     */
+    public static VotingRule forMethod(Group.VotingMethod method) {
+        switch (method) {
+            case BORDA:
+                return new BordaRule();
+            case SCHULZE:
+                return new SchulzeRule();
+            case INSTANT_RUNOFF:
+                return new InstantRunoffRule();
+            case KEMENY:
+                return new KemenyRule();
+            default:
+                return null;
+        }
+    }
+}
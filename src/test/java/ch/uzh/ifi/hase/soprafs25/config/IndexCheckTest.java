@@ -0,0 +1,66 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Creates the index set on the schema generated by Hibernate and checks it with the startup check.
+ */
+@DataJpaTest
+@Import({IndexMigration.class, KeysetIndexMigration.class, IndexCheck.class})
+public class IndexCheckTest {
+
+    @Autowired
+    private IndexMigration indexMigration;
+
+    @Autowired
+    private KeysetIndexMigration keysetIndexMigration;
+
+    @Autowired
+    private IndexCheck indexCheck;
+
+    @Test
+    public void migrate_createsAllIndexes() {
+        indexMigration.migrate();
+
+        assertEquals(Collections.emptyList(), indexCheck.findMissingIndexes(IndexMigration.INDEXES));
+    }
+
+    @Test
+    public void keysetMigration_createsAllIndexes() {
+        keysetIndexMigration.migrate();
+
+        assertEquals(Collections.emptyList(), indexCheck.findMissingIndexes(KeysetIndexMigration.INDEXES));
+    }
+
+    @Test
+    public void migrate_repeated_isIdempotent() {
+        indexMigration.migrate();
+        indexMigration.migrate();
+
+        assertTrue(indexCheck.findMissingIndexes(IndexMigration.INDEXES).isEmpty());
+    }
+
+    @Test
+    public void findMissingIndexes_unindexedColumns_reported() {
+        IndexDefinition unindexed = new IndexDefinition("idx_movie_title_year", "movie", "title", "year");
+
+        List<IndexDefinition> missing = indexCheck.findMissingIndexes(Collections.singletonList(unindexed));
+
+        assertEquals(Collections.singletonList(unindexed), missing);
+    }
+
+    @Test
+    public void findMissingIndexes_primaryKey_countsAsIndex() {
+        IndexDefinition primaryKey = new IndexDefinition("movie_pk", "movie", "movie_id");
+
+        assertTrue(indexCheck.findMissingIndexes(Collections.singletonList(primaryKey)).isEmpty());
+    }
+}
@@ -0,0 +1,192 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+
+/**
+ * Routes transactions between two embedded databases, each of which knows its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void setup() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE instance (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO instance (name) VALUES (?)", name);
+        return database;
+    }
+
+    // name of the database a transaction reads from
+    private static String readInstance(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM instance", String.class));
+    }
+
+    private static DataSource routing(DataSource primary, DataSource replica, ReplicaLagMonitor monitor) {
+        return routing(primary, replica, monitor, new RecentWrites(60000, 10));
+    }
+
+    private static DataSource routing(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+                                      RecentWrites recentWrites) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, monitor, recentWrites));
+    }
+
+    // runs the following work as a request of the user
+    private static void requestOf(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE, new AuthenticatedUser(userId));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static ReplicaLagMonitor inSync(DataSource replica) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "", 5000);
+        monitor.check();
+        return monitor;
+    }
+
+    @Test
+    void readOnlyTransaction_replicaInSync_readsReplica() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT 100", 5000);
+        monitor.check();
+        DataSource dataSource = routing(primary, replica, monitor);
+
+        assertEquals("replica", readInstance(dataSource, true));
+        assertEquals("primary", readInstance(dataSource, false));
+    }
+
+    @Test
+    void readOnlyTransaction_replicaLagging_readsPrimary() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT 10000", 5000);
+        monitor.check();
+
+        assertEquals("primary", readInstance(routing(primary, replica, monitor), true));
+    }
+
+    @Test
+    void readOnlyTransaction_replicaNotChecked_readsPrimary() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "", 5000);
+
+        assertEquals("primary", readInstance(routing(primary, replica, monitor), true));
+    }
+
+    @Test
+    void readOnlyTransaction_replicaDown_fallsBackToPrimary() throws SQLException {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "", 5000);
+        monitor.check();
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertEquals("primary", readInstance(routing(primary, unreachable, monitor), true));
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void isReadingReplica_onlyWhileTransactionReadsReplica() {
+        DataSource dataSource = routing(primary, replica, inSync(replica));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+
+        assertTrue(transactionTemplate.execute(status -> {
+            new JdbcTemplate(dataSource).queryForObject("SELECT name FROM instance", String.class);
+            return ReplicaRoutingDataSource.isReadingReplica();
+        }));
+        assertFalse(ReplicaRoutingDataSource.isReadingReplica());
+
+        transactionTemplate.setReadOnly(false);
+        assertFalse(transactionTemplate.execute(status -> {
+            new JdbcTemplate(dataSource).queryForObject("SELECT name FROM instance", String.class);
+            return ReplicaRoutingDataSource.isReadingReplica();
+        }));
+    }
+
+    @Test
+    void readOnlyWithoutTransaction_replicaInSync_readsPrimary() {
+        DataSource dataSource = routing(primary, replica, inSync(replica));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+        transactionTemplate.setReadOnly(true);
+
+        assertEquals("primary", transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM instance", String.class)));
+    }
+
+    @Test
+    void readOnlyTransaction_afterOwnWrite_readsPrimary() {
+        DataSource dataSource = routing(primary, replica, inSync(replica));
+        requestOf(1L);
+        readInstance(dataSource, false);
+
+        assertEquals("primary", readInstance(dataSource, true));
+
+        // other users are not affected
+        requestOf(2L);
+        assertEquals("replica", readInstance(dataSource, true));
+    }
+
+    @Test
+    void readOnlyTransaction_afterStickyWindow_readsReplica() {
+        DataSource dataSource = routing(primary, replica, inSync(replica), new RecentWrites(0, 10));
+        requestOf(1L);
+        readInstance(dataSource, false);
+
+        assertEquals("replica", readInstance(dataSource, true));
+    }
+
+    @Test
+    void readOnlyTransaction_afterRolledBackWrite_readsReplica() {
+        DataSource dataSource = routing(primary, replica, inSync(replica));
+        requestOf(1L);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.executeWithoutResult(status -> {
+            new JdbcTemplate(dataSource).update("INSERT INTO instance (name) VALUES ('other')");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readInstance(dataSource, true));
+    }
+}
@@ -0,0 +1,104 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Applies migrations that write rows to a table, so rolled back migrations can be told apart.
+ */
+class SchemaMigrationsTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE applied (version INTEGER)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private SchemaMigration migration(int version, boolean fails) {
+        return new SchemaMigration() {
+            @Override
+            public int getVersion() {
+                return version;
+            }
+
+            @Override
+            public String getDescription() {
+                return "migration " + version;
+            }
+
+            @Override
+            public void migrate() {
+                jdbcTemplate.update("INSERT INTO applied (version) VALUES (?)", version);
+                if (fails) {
+                    throw new IllegalStateException("migration " + version + " failed");
+                }
+            }
+        };
+    }
+
+    private void run(List<SchemaMigration> migrations) {
+        new SchemaMigrations(jdbcTemplate, new DataSourceTransactionManager(database), migrations).afterPropertiesSet();
+    }
+
+    private List<Integer> applied() {
+        return jdbcTemplate.queryForList("SELECT version FROM applied ORDER BY version", Integer.class);
+    }
+
+    private List<Integer> recorded() {
+        return jdbcTemplate.queryForList("SELECT version FROM schema_version ORDER BY version", Integer.class);
+    }
+
+    @Test
+    void afterPropertiesSet_pendingMigrations_appliedInOrderOnce() {
+        run(Arrays.asList(migration(2, false), migration(1, false)));
+        run(Arrays.asList(migration(1, false), migration(2, false), migration(3, false)));
+
+        assertEquals(Arrays.asList(1, 2, 3), applied());
+        assertEquals(Arrays.asList(1, 2, 3), recorded());
+    }
+
+    @Test
+    void afterPropertiesSet_failingMigration_rolledBackAndNotRecorded() {
+        List<SchemaMigration> migrations = Arrays.asList(migration(1, false), migration(2, true));
+
+        assertThrows(IllegalStateException.class, () -> run(migrations));
+
+        assertEquals(Collections.singletonList(1), applied());
+        assertEquals(Collections.singletonList(1), recorded());
+    }
+
+    @Test
+    void afterPropertiesSet_failedMigration_retriedOnNextStart() {
+        assertThrows(IllegalStateException.class, () -> run(Collections.singletonList(migration(1, true))));
+
+        run(Collections.singletonList(migration(1, false)));
+
+        assertEquals(Collections.singletonList(1), applied());
+        assertEquals(Collections.singletonList(1), recorded());
+    }
+}
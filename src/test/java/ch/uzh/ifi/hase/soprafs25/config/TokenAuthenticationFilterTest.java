@@ -0,0 +1,110 @@
+package ch.uzh.ifi.hase.soprafs25.config;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+import ch.uzh.ifi.hase.soprafs25.service.UserService;
+
+/**
+ * Sends requests through the TokenAuthenticationFilter to a controller that takes the AuthenticatedUser,
+ * as AuthenticationConfig wires them in the application.
+ */
+class TokenAuthenticationFilterTest {
+
+    @RestController
+    static class PrincipalController {
+
+        @GetMapping("/me")
+        public String me(AuthenticatedUser user) {
+            return String.valueOf(user.getUserId());
+        }
+
+        @GetMapping("/public")
+        public String open() {
+            return "open";
+        }
+    }
+
+    private UserService userService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        userService = mock(UserService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PrincipalController())
+                .addFilters(new TokenAuthenticationFilter(userService))
+                .setCustomArgumentResolvers(new AuthenticatedUserArgumentResolver())
+                .build();
+    }
+
+    @Test
+    void validToken_passesPrincipal() throws Exception {
+        when(userService.authenticate("valid-token")).thenReturn(new AuthenticatedUser(7L));
+
+        mockMvc.perform(get("/me").header(HttpHeaders.AUTHORIZATION, "Bearer valid-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("7"));
+    }
+
+    @Test
+    void missingToken_unauthorized() throws Exception {
+        mockMvc.perform(get("/me"))
+                .andExpect(status().isUnauthorized());
+
+        verify(userService, never()).authenticate(anyString());
+    }
+
+    @Test
+    void malformedHeader_unauthorized() throws Exception {
+        mockMvc.perform(get("/me").header(HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz"))
+                .andExpect(status().isUnauthorized());
+
+        verify(userService, never()).authenticate(anyString());
+    }
+
+    @Test
+    void invalidToken_unauthorized() throws Exception {
+        when(userService.authenticate("unknown-token"))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token"));
+
+        mockMvc.perform(get("/me").header(HttpHeaders.AUTHORIZATION, "Bearer unknown-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void expiredToken_unauthorized() throws Exception {
+        when(userService.authenticate("expired-token"))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token expired"));
+
+        mockMvc.perform(get("/me").header(HttpHeaders.AUTHORIZATION, "Bearer expired-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // the filter passes unauthenticated requests on, only endpoints that need a user reject them
+    @Test
+    void invalidToken_endpointWithoutUser_ok() throws Exception {
+        when(userService.authenticate("unknown-token"))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token"));
+
+        mockMvc.perform(get("/public").header(HttpHeaders.AUTHORIZATION, "Bearer unknown-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("open"));
+    }
+}
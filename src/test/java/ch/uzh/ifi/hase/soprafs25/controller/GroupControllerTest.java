@@ -3,6 +3,7 @@ package ch.uzh.ifi.hase.soprafs25.controller;
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
+import ch.uzh.ifi.hase.soprafs25.entity.PoolEntry;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.MoviePoolRepository;
@@ -20,7 +21,6 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -78,13 +78,9 @@ public class GroupControllerTest {
 
         pool = new MoviePool();
         pool.setGroup(group);
-        pool.setMovies(new java.util.ArrayList<>());
         pool = moviePoolRepository.saveAndFlush(pool);
         group.setMoviePool(pool);
         groupRepository.saveAndFlush(group);
-        // Ensure userAddedMovies is initialized for test user
-        pool.setUserAddedMovies(new java.util.HashMap<>());
-        moviePoolRepository.saveAndFlush(pool);
     }
 
     @Test
@@ -161,10 +157,10 @@ public class GroupControllerTest {
         
         // Verify the first movie was added to the pool
         pool = moviePoolRepository.findByGroup_GroupId(group.getGroupId());
-        Map<Movie, Long> userAddedMovies = pool.getUserAddedMovies();
-        assertTrue(userAddedMovies.values().stream().anyMatch(id -> id.equals(user.getUserId())), 
+        List<PoolEntry> entries = pool.getEntries();
+        assertTrue(entries.stream().anyMatch(entry -> entry.getAddedBy().equals(user.getUserId())), 
                 "User should have added at least one movie");
-        assertTrue(userAddedMovies.keySet().stream().anyMatch(m -> m.getMovieId() == movie.getMovieId()), 
+        assertTrue(entries.stream().anyMatch(entry -> entry.getMovie().getMovieId().equals(movie.getMovieId())), 
                 "Original movie should be in the pool");
         
         // Now add another movie by the same user (replacing the first one)
@@ -175,19 +171,19 @@ public class GroupControllerTest {
         
         // Reload pool and verify the change
         pool = moviePoolRepository.findByGroup_GroupId(group.getGroupId());
-        userAddedMovies = pool.getUserAddedMovies();
+        entries = pool.getEntries();
         
         // Verify both movies are now in the pool (users can add up to two movies)
-        assertTrue(userAddedMovies.keySet().stream().anyMatch(m -> m.getMovieId() == savedNewMovie.getMovieId()), 
+        assertTrue(entries.stream().anyMatch(entry -> entry.getMovie().getMovieId().equals(savedNewMovie.getMovieId())), 
                 "New movie should be in the pool");
-        assertTrue(userAddedMovies.keySet().stream().anyMatch(m -> m.getMovieId() == movie.getMovieId()), 
+        assertTrue(entries.stream().anyMatch(entry -> entry.getMovie().getMovieId().equals(movie.getMovieId())), 
                 "Original movie should still be in the pool");
         
         // Verify that the movie was added by the correct user
-        Movie addedNewMovie = userAddedMovies.keySet().stream()
-                .filter(m -> m.getMovieId() == savedNewMovie.getMovieId())
+        PoolEntry addedNewMovie = entries.stream()
+                .filter(entry -> entry.getMovie().getMovieId().equals(savedNewMovie.getMovieId()))
                 .findFirst().orElse(null);
-        assertEquals(user.getUserId(), userAddedMovies.get(addedNewMovie), 
+        assertEquals(user.getUserId(), addedNewMovie.getAddedBy(), 
                 "New movie should be associated with the test user");
         
         // Verify that the number of movies added by the user is as expected
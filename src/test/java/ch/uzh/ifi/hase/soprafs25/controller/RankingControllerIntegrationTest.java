@@ -101,7 +101,7 @@ public class RankingControllerIntegrationTest {
         // сreate movie pool
         moviePool = new MoviePool();
         moviePool.setGroup(testGroup);
-        moviePool.setMovies(new ArrayList<>(List.of(movie1, movie2, movie3)));
+        List.of(movie1, movie2, movie3).forEach(movie -> moviePool.addMovie(movie, testUser.getUserId()));
         moviePool.setLastUpdated(LocalDateTime.now());
         moviePool = moviePoolRepository.saveAndFlush(moviePool);
         testGroup.setMoviePool(moviePool);
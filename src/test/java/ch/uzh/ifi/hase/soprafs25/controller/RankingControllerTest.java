@@ -28,6 +28,7 @@ import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
 import ch.uzh.ifi.hase.soprafs25.entity.RankingResult;
+import ch.uzh.ifi.hase.soprafs25.entity.RankingResultSnapshot;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.entity.UserMovieRanking;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
@@ -138,7 +139,7 @@ class RankingControllerTest {
         // Create and associate MoviePool
         MoviePool moviePool = new MoviePool();
         moviePool.setGroup(testGroup);
-        moviePool.setMovies(new ArrayList<>(availableMovies)); // Add movies to pool
+        availableMovies.forEach(movie -> moviePool.addMovie(movie, testUser.getUserId())); // Add movies to pool
         moviePool.setLastUpdated(LocalDateTime.now());
         moviePoolRepository.saveAndFlush(moviePool);
 
@@ -338,17 +339,39 @@ class RankingControllerTest {
         win.setMovieId(movie1.getMovieId()); win.setTitle(movie1.getTitle());
         stubDto.setWinningMovie(win);
         stubDto.setDetailedResults(List.of());
-        doReturn(stubDto).when(rankingService).getRankingResults(testGroup.getGroupId());
+        doReturn(createSnapshot(stubDto, "\"results-v1\"")).when(rankingService).getRankingResultsSnapshot(testGroup.getGroupId());
 
         mockMvc.perform(get("/groups/{groupId}/rankings/results", testGroup.getGroupId()))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"results-v1\""))
                 .andExpect(jsonPath("$.resultId").value(123))
                 .andExpect(jsonPath("$.numberOfVoters").value(2))
                 .andExpect(jsonPath("$.winningMovie.movieId").value((int) movie1.getMovieId()))
                 .andExpect(jsonPath("$.detailedResults", hasSize(0)));
     }
 
+    @Test
+    void getRankingResults_matchingEtag_returnsNotModified() throws Exception {
+        RankingResultsDTO stubDto = new RankingResultsDTO();
+        stubDto.setResultId(123L);
+        doReturn(createSnapshot(stubDto, "\"results-v1\"")).when(rankingService).getRankingResultsSnapshot(testGroup.getGroupId());
+
+        mockMvc.perform(get("/groups/{groupId}/rankings/results", testGroup.getGroupId())
+                        .header("If-None-Match", "\"results-v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     // --- Helper Methods ---
+    private RankingResultSnapshot createSnapshot(RankingResultsDTO dto, String etag) throws Exception {
+        RankingResultSnapshot snapshot = new RankingResultSnapshot();
+        snapshot.setGroup(testGroup);
+        snapshot.setPayload(objectMapper.writeValueAsString(dto));
+        snapshot.setEtag(etag);
+        snapshot.setCreatedAt(LocalDateTime.now());
+        return snapshot;
+    }
+
     private Movie createAndSaveMovie(long movieId, String title) {
         Movie movie = new Movie();
         movie.setMovieId(movieId);
@@ -188,6 +188,24 @@ public class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.bio").value("new bio"));
     }
 
+    // update of another user's profile is forbidden
+    @Test
+    void updateUserProfile_otherUser_returnsForbidden() throws Exception {
+        User testUser2 = new User();
+        testUser2.setUsername("testUser2");
+        testUser2.setEmail("test2@mail.com");
+        testUser2.setPassword("password");
+        testUser2.setStatus(UserStatus.ONLINE);
+        testUser2.setToken("testToken2");
+        testUser2 = userRepository.saveAndFlush(testUser2);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/users/{userId}/profile", testUser2.getUserId())
+                .header("Authorization", "Bearer " + testToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bio\":\"new bio\"}"))
+                .andExpect(status().isForbidden());
+    }
+
     // succesful search for a user
     @Test
     void searchUsersByUsername_returnsMatchingUsers() throws Exception {
@@ -230,6 +248,9 @@ public class UserControllerIntegrationTest {
                 .andExpect(status().isOk())
                 // bith users appear
                 .andExpect(jsonPath("$[0].username").value("testUser"))
-                .andExpect(jsonPath("$[1].username").value("testUser2"));
+                .andExpect(jsonPath("$[1].username").value("testUser2"))
+                // the listing carries neither the movie lists nor the tokens
+                .andExpect(jsonPath("$[1].watchlist").doesNotExist())
+                .andExpect(jsonPath("$[1].token").doesNotExist());
     }
 }
\ No newline at end of file
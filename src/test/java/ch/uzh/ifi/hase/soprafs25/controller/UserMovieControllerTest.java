@@ -1,6 +1,7 @@
 package ch.uzh.ifi.hase.soprafs25.controller;
 
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
+import ch.uzh.ifi.hase.soprafs25.service.KeysetPage;
 import ch.uzh.ifi.hase.soprafs25.service.UserMovieService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -19,6 +20,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,7 +44,7 @@ public class UserMovieControllerTest {
         movie.setTitle("Test Movie");
         watchlist.add(movie);
         
-        given(userMovieService.getWatchlist(userId)).willReturn(watchlist);
+        given(userMovieService.getWatchlist(userId, null, null)).willReturn(new KeysetPage<>(watchlist, null));
 
         // When/Then
         MockHttpServletRequestBuilder getRequest = get("/users/{userId}/watchlist", userId)
@@ -55,6 +57,43 @@ public class UserMovieControllerTest {
                 .andExpect(jsonPath("$[0].title", is("Test Movie")));
     }
 
+    @Test
+    public void getWatchlist_morePages_returnsNextCursor() throws Exception {
+        // Given
+        Long userId = 1L;
+        Movie movie = new Movie();
+        movie.setMovieId(27205L);
+        movie.setTitle("Inception");
+
+        given(userMovieService.getWatchlist(userId, 550L, 1))
+                .willReturn(new KeysetPage<>(List.of(movie), 27205L));
+
+        // When/Then
+        MockHttpServletRequestBuilder getRequest = get("/users/{userId}/watchlist", userId)
+                .param("after", "550")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(getRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].movieId", is(27205)))
+                .andExpect(header().string("X-Next-Cursor", "27205"));
+    }
+
+    @Test
+    public void getWatchedMovies_lastPage_noNextCursor() throws Exception {
+        // Given
+        Long userId = 1L;
+        given(userMovieService.getWatchedMovies(userId, null, null)).willReturn(new KeysetPage<>(List.of(), null));
+
+        // When/Then
+        mockMvc.perform(get("/users/{userId}/watched", userId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
     @Test
     public void addToWatchlist_success_returnsUpdatedWatchlist() throws Exception {
         // Given
@@ -117,7 +156,7 @@ public class UserMovieControllerTest {
         movie.setTitle("Test Movie");
         watchedMovies.add(movie);
         
-        given(userMovieService.getWatchedMovies(userId)).willReturn(watchedMovies);
+        given(userMovieService.getWatchedMovies(userId, null, null)).willReturn(new KeysetPage<>(watchedMovies, null));
 
         // When/Then
         MockHttpServletRequestBuilder getRequest = get("/users/{userId}/watched", userId)
@@ -0,0 +1,30 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BallotTest {
+
+    @Test
+    void rankedMovieIds_roundTrip_keepsOrder() {
+        Ballot ballot = new Ballot();
+        long[] movieIds = {27205L, 157336L, 1L, Long.MAX_VALUE, 550L};
+
+        ballot.setRankedMovieIds(movieIds);
+
+        assertArrayEquals(movieIds, ballot.getRankedMovieIds());
+    }
+
+    @Test
+    void rankedMovieIds_notSet_empty() {
+        assertEquals(0, new Ballot().getRankedMovieIds().length);
+    }
+
+    @Test
+    void rankedMovieIds_tooManyMovies_throwsException() {
+        Ballot ballot = new Ballot();
+
+        assertThrows(IllegalArgumentException.class, () -> ballot.setRankedMovieIds(new long[Ballot.MAX_MOVIES + 1]));
+    }
+}
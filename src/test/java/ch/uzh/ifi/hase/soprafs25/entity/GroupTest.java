@@ -0,0 +1,50 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Test
+    void phaseDeadline_poolingTimer_startPlusPoolDuration() {
+        Group group = new Group();
+        group.setPoolPhaseDuration(120);
+        group.setVotingPhaseDuration(300);
+
+        group.setPhaseStartTime(start);
+
+        assertEquals(start.plusSeconds(120), group.getPhaseDeadline());
+    }
+
+    @Test
+    void phaseDeadline_phaseChange_usesDurationOfNewPhase() {
+        Group group = new Group();
+        group.setPoolPhaseDuration(120);
+        group.setVotingPhaseDuration(300);
+        group.setPhaseStartTime(start);
+
+        group.setPhase(Group.GroupPhase.VOTING);
+
+        assertEquals(start.plusSeconds(300), group.getPhaseDeadline());
+
+        group.setPhase(Group.GroupPhase.RESULTS);
+
+        assertNull(group.getPhaseDeadline());
+    }
+
+    @Test
+    void phaseDeadline_noDurationOrStart_null() {
+        Group group = new Group();
+        group.setPhaseStartTime(start);
+        assertNull(group.getPhaseDeadline());
+
+        Group notStarted = new Group();
+        notStarted.setPoolPhaseDuration(120);
+        assertNull(notStarted.getPhaseDeadline());
+    }
+}
@@ -0,0 +1,67 @@
+package ch.uzh.ifi.hase.soprafs25.entity;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ch.uzh.ifi.hase.soprafs25.service.AuthenticatedUser;
+import ch.uzh.ifi.hase.soprafs25.service.PrincipalCache;
+
+class UserTokenListenerTest {
+
+    private final AuthenticatedUser alice = new AuthenticatedUser(1L);
+
+    private PrincipalCache cache;
+    private UserTokenListener listener;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        cache = new PrincipalCache(60000, 10);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("principalCache", cache);
+        listener = new UserTokenListener(beans.getBeanProvider(PrincipalCache.class));
+        user = new User();
+        user.setUserId(1L);
+        user.setToken("new-token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictPrincipals_noTransaction_evictsRightAway() {
+        cache.put("old-token", alice);
+
+        listener.evictPrincipals(user);
+
+        assertNull(cache.get("old-token"));
+    }
+
+    // a concurrent request re-caches the old token between the flush and the commit
+    @Test
+    void evictPrincipals_recachedBeforeCommit_evictedAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.put("old-token", alice);
+
+        listener.evictPrincipals(user);
+        assertNull(cache.get("old-token"));
+        cache.put("old-token", alice);
+        assertSame(alice, cache.get("old-token"));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertNull(cache.get("old-token"));
+    }
+}
@@ -0,0 +1,89 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Movie;
+import ch.uzh.ifi.hase.soprafs25.service.MovieCacheService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements needed to read movies that are in the second-level cache.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(MovieCacheService.class)
+public class MovieCacheTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieCacheService movieCacheService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        movieCacheService.evictAll();
+
+        Movie movie = new Movie();
+        movie.setMovieId(27205L);
+        movie.setTitle("Inception");
+        entityManager.persistAndFlush(movie);
+        entityManager.clear();
+    }
+
+    @Test
+    public void findById_secondRead_servedFromCache() {
+        movieRepository.findById(27205L);
+        entityManager.clear();
+        statistics.clear();
+
+        Movie movie = movieRepository.findById(27205L).orElseThrow();
+
+        assertEquals("Inception", movie.getTitle());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    public void evict_nextReadGoesToDatabase() {
+        movieRepository.findById(27205L);
+        entityManager.clear();
+
+        movieCacheService.evict(27205L);
+        statistics.clear();
+        movieRepository.findById(27205L);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getStatistics_movieRegion_countsHits() {
+        CacheStatisticsMXBean before = movieCacheService.getStatistics(Movie.CACHE_REGION);
+        assertNotNull(before);
+        long hits = before.getCacheHits();
+
+        movieRepository.findById(27205L);
+        entityManager.clear();
+        movieRepository.findById(27205L);
+
+        assertEquals(hits + 1, movieCacheService.getStatistics(Movie.CACHE_REGION).getCacheHits());
+    }
+}
@@ -0,0 +1,83 @@
+package ch.uzh.ifi.hase.soprafs25.repository;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Movie;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.MovieGetDTO;
+import ch.uzh.ifi.hase.soprafs25.rest.mapper.DTOMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements needed to map lists of movies with their metadata to DTOs.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class MovieQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void persistMovies(int count) {
+        for (long movieId : LongStream.rangeClosed(1, count).toArray()) {
+            Movie movie = new Movie();
+            movie.setMovieId(movieId);
+            movie.setTitle("Movie " + movieId);
+            movie.setGenres(Arrays.asList("Action", "Drama"));
+            movie.setActors(Arrays.asList("Actor A" + movieId, "Actor B" + movieId));
+            movie.setDirectors(Arrays.asList("Director " + movieId));
+            movie.setSpokenlanguages(Arrays.asList("en", "fr"));
+            entityManager.persist(movie);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    public void mapMovies_metadataStoredInMovieRow_singleQuery() {
+        persistMovies(120);
+
+        List<MovieGetDTO> dtos = DTOMapper.INSTANCE.convertEntityListToMovieGetDTOList(movieRepository.findAll());
+
+        assertEquals(120, dtos.size());
+        assertEquals(2, dtos.get(119).getActors().size());
+        assertEquals(Arrays.asList("English", "Français"), dtos.get(119).getSpokenlanguages());
+        // genres, actors, directors and languages are columns of the movie row
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findByMovieId_compactColumns_readBackAsLists() {
+        persistMovies(1);
+
+        Movie movie = movieRepository.findByMovieId(1L);
+
+        assertEquals(Arrays.asList("Action", "Drama"), movie.getGenres());
+        assertEquals(Arrays.asList("Actor A1", "Actor B1"), movie.getActors());
+        assertEquals(Arrays.asList("Director 1"), movie.getDirectors());
+        assertEquals(Arrays.asList("en", "fr"), movie.getSpokenlanguages());
+    }
+}
@@ -4,6 +4,7 @@ package ch.uzh.ifi.hase.soprafs25.repository;
 import ch.uzh.ifi.hase.soprafs25.constant.UserStatus;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.repository.UserRepository;
+import ch.uzh.ifi.hase.soprafs25.service.TokenSigner;
 import ch.uzh.ifi.hase.soprafs25.service.UserService;
 
 import org.junit.jupiter.api.Test;
@@ -26,6 +27,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TokenSigner tokenSigner;
+
     @InjectMocks
     private UserService userService;
 
@@ -147,35 +151,6 @@ public class UserServiceTest {
         assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
     }
     
-    @Test
-    public void getUserByToken_validToken_returnsUser() {
-        // given
-        User testUser = new User();
-        testUser.setUsername("testUsername");
-        testUser.setToken("validToken");
-        
-        // Mock repository behavior
-        when(userRepository.findByToken("validToken")).thenReturn(testUser);
-        
-        // when
-        User foundUser = userService.getUserByToken("validToken");
-        
-        // then
-        assertEquals(testUser, foundUser);
-    }
-    
-    @Test
-    public void getUserByToken_invalidToken_throwsException() {
-        // Mock repository behavior
-        when(userRepository.findByToken("invalidToken")).thenReturn(null);
-        
-        // then
-        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
-            () -> userService.getUserByToken("invalidToken"));
-        
-        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
-    }
-    
     @Test
     public void isUsernameAvailable_usernameAvailable_returnsTrue() {
         // Mock repository behavior
@@ -0,0 +1,118 @@
+package ch.uzh.ifi.hase.soprafs25.scheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ch.uzh.ifi.hase.soprafs25.service.GroupService;
+import ch.uzh.ifi.hase.soprafs25.service.LeaseService;
+import ch.uzh.ifi.hase.soprafs25.service.PartitionLease;
+import ch.uzh.ifi.hase.soprafs25.service.PhaseDeadlineChangedEvent;
+
+@ExtendWith(MockitoExtension.class)
+class PhaseTimerSchedulerTest {
+
+    @Mock
+    private GroupService groupService;
+
+    @Mock
+    private LeaseService leaseService;
+
+    private PhaseTimerScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        scheduler = new PhaseTimerScheduler(groupService, leaseService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    void schedule_deadlinePassed_firesTransition() {
+        scheduler.schedule(1L, LocalDateTime.now().minusSeconds(1));
+
+        verify(groupService, timeout(1000)).advanceDuePhase(1L);
+    }
+
+    @Test
+    void fire_nextPhaseHasTimer_isRescheduled() {
+        when(groupService.advanceDuePhase(1L)).thenReturn(LocalDateTime.now().plusHours(1));
+
+        scheduler.schedule(1L, LocalDateTime.now());
+
+        verify(groupService, timeout(1000)).advanceDuePhase(1L);
+        verify(groupService, after(200).times(1)).advanceDuePhase(1L);
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void onPhaseDeadlineChanged_nullDeadline_cancelsTimer() {
+        scheduler.schedule(1L, LocalDateTime.now().plusSeconds(1));
+
+        scheduler.onPhaseDeadlineChanged(new PhaseDeadlineChangedEvent(1L, null, null));
+
+        assertEquals(0, scheduler.getScheduledCount());
+        verify(groupService, after(1500).never()).advanceDuePhase(1L);
+    }
+
+    @Test
+    void schedule_movedDeadline_replacesTimer() {
+        scheduler.schedule(1L, LocalDateTime.now().plusSeconds(1));
+        scheduler.schedule(1L, LocalDateTime.now().plusHours(1));
+
+        assertEquals(1, scheduler.getScheduledCount());
+        verify(groupService, after(1500).never()).advanceDuePhase(1L);
+    }
+
+    @Test
+    void loadTimers_schedulesRunningTimersFromDatabase() {
+        List<Object[]> running = new ArrayList<>();
+        running.add(new Object[]{1L, LocalDateTime.now().plusHours(1)});
+        running.add(new Object[]{2L, LocalDateTime.now().plusHours(2)});
+        when(groupService.getRunningPhaseTimers()).thenReturn(running);
+
+        scheduler.loadTimers();
+
+        verify(groupService, times(1)).backfillPhaseDeadlines();
+        assertEquals(2, scheduler.getScheduledCount());
+        verify(groupService, never()).advanceDuePhase(1L);
+    }
+
+    @Test
+    void pollDueGroups_checksLeasedPartitionsOnly() {
+        PartitionLease first = new PartitionLease("phase-timers:0", 0, 4, 7L);
+        PartitionLease second = new PartitionLease("phase-timers:2", 2, 4, 3L);
+        when(leaseService.acquirePartitions(PhaseTimerScheduler.POLL_JOB)).thenReturn(Arrays.asList(first, second));
+        when(leaseService.runFenced(any(), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(((Supplier<?>) invocation.getArgument(1)).get()));
+
+        scheduler.pollDueGroups();
+
+        verify(groupService).checkPhaseTimers(0, 4);
+        verify(groupService).checkPhaseTimers(2, 4);
+        verify(groupService, never()).checkPhaseTimers(1, 4);
+        verify(leaseService).release(first);
+        verify(leaseService).release(second);
+    }
+}
@@ -76,11 +76,13 @@ public class FriendRequestServiceIntegrationTest {
 
         // get pending requests
         // received
-        List<FriendRequest> pendingReceived = friendRequestService.getPendingReceivedRequests(receiver.getUserId());
+        List<FriendRequest> pendingReceived = friendRequestService
+                .getPendingReceivedRequests(receiver.getUserId(), null, null).getItems();
         assertEquals(1, pendingReceived.size());
         assertEquals(request.getRequestId(), pendingReceived.get(0).getRequestId());
         // sent
-        List<FriendRequest> pendingSent = friendRequestService.getPendingSentRequests(sender.getUserId());
+        List<FriendRequest> pendingSent = friendRequestService
+                .getPendingSentRequests(sender.getUserId(), null, null).getItems();
         assertEquals(1, pendingSent.size());
         assertEquals(request.getRequestId(), pendingSent.get(0).getRequestId());
 
@@ -97,8 +99,8 @@ public class FriendRequestServiceIntegrationTest {
         assertTrue(updatedReceiver.getFriends().contains(updatedSender));
 
         // Verify no more pending requests
-        assertTrue(friendRequestService.getPendingReceivedRequests(receiver.getUserId()).isEmpty());
-        assertTrue(friendRequestService.getPendingSentRequests(sender.getUserId()).isEmpty());
+        assertTrue(friendRequestService.getPendingReceivedRequests(receiver.getUserId(), null, null).getItems().isEmpty());
+        assertTrue(friendRequestService.getPendingSentRequests(sender.getUserId(), null, null).getItems().isEmpty());
     }
 
     // friend request rejection workflow test
@@ -146,8 +148,8 @@ public class FriendRequestServiceIntegrationTest {
         friendRequestService.deleteRequest(request.getRequestId(), sender.getUserId());
 
         // Verify request is deleted
-        assertTrue(friendRequestService.getPendingReceivedRequests(receiver.getUserId()).isEmpty());
-        assertTrue(friendRequestService.getPendingSentRequests(sender.getUserId()).isEmpty());
+        assertTrue(friendRequestService.getPendingReceivedRequests(receiver.getUserId(), null, null).getItems().isEmpty());
+        assertTrue(friendRequestService.getPendingSentRequests(sender.getUserId(), null, null).getItems().isEmpty());
     }
 
     // deletion of a request fails, because user is not the sender
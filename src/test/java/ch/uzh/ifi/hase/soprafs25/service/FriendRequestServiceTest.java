@@ -1,7 +1,7 @@
 package ch.uzh.ifi.hase.soprafs25.service;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.times;
@@ -170,14 +171,14 @@ class FriendRequestServiceTest {
     @Test
     void getPendingSentRequests_Success() {
         // when
-        Set<FriendRequest> sentRequests = Set.of(testRequest);
-        sender.setSentFriendRequests(sentRequests);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(sender));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(friendRequestRepository.findBySender_UserIdAndResponseTimeIsNullAndRequestIdGreaterThanOrderByRequestIdAsc(
+                eq(1L), eq(0L), any())).thenReturn(List.of(testRequest));
         // call
-        var result = friendRequestService.getPendingSentRequests(1L);
+        var result = friendRequestService.getPendingSentRequests(1L, null, null);
         // then
-        assertEquals(1, result.size());
-        assertEquals(testRequest, result.get(0));
+        assertEquals(1, result.getItems().size());
+        assertEquals(testRequest, result.getItems().get(0));
     }
 
 
@@ -185,16 +186,16 @@ class FriendRequestServiceTest {
     @Test
     void getPendingReceivedRequests_Success() {
         // when
-        Set<FriendRequest> receivedRequests = Set.of(testRequest);
-        receiver.setReceivedFriendRequests(receivedRequests);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(receiver));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(friendRequestRepository.findByReceiver_UserIdAndResponseTimeIsNullAndRequestIdGreaterThanOrderByRequestIdAsc(
+                eq(2L), eq(0L), any())).thenReturn(List.of(testRequest));
 
         // call
-        var result = friendRequestService.getPendingReceivedRequests(2L);
+        var result = friendRequestService.getPendingReceivedRequests(2L, null, null);
 
         // then
-        assertEquals(1, result.size());
-        assertEquals(testRequest, result.get(0));
+        assertEquals(1, result.getItems().size());
+        assertEquals(testRequest, result.getItems().get(0));
     }
 
 } 
\ No newline at end of file
@@ -0,0 +1,148 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+@ExtendWith(MockitoExtension.class)
+class GroupEventHubTest {
+
+    @Mock
+    private GroupService groupService;
+
+    // never runs the drain tasks, so buffered events stay in the buffer
+    @Mock
+    private ExecutorService idleSender;
+
+    private GroupEventHub groupEventHub;
+
+    private final Long groupId = 1L;
+    private final Long userId = 2L;
+
+    private Group group;
+
+    @BeforeEach
+    void setup() {
+        group = new Group();
+        group.setGroupId(groupId);
+        group.setPhase(Group.GroupPhase.POOLING);
+        // a single buffered event per connection, which the current phase sent on subscribing already fills
+        groupEventHub = new GroupEventHub(groupService, 60000, 1, idleSender);
+    }
+
+    @Test
+    void subscribe_member_registersConnectionAndSendsPhase() {
+        when(groupService.isUserMemberOfGroup(groupId, userId)).thenReturn(true);
+        when(groupService.getGroup(groupId, userId)).thenReturn(group);
+
+        SseEmitter emitter = groupEventHub.subscribe(groupId, userId);
+
+        assertNotNull(emitter);
+        assertEquals(1, groupEventHub.getConnectionCount(groupId));
+        verify(idleSender).execute(any());
+    }
+
+    @Test
+    void subscribe_notMember_throwsForbidden() {
+        when(groupService.isUserMemberOfGroup(groupId, 3L)).thenReturn(false);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> groupEventHub.subscribe(groupId, 3L));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
+        assertEquals(0, groupEventHub.getConnectionCount(groupId));
+    }
+
+    @Test
+    void subscribe_readsPhaseAfterRegistering() {
+        when(groupService.isUserMemberOfGroup(groupId, userId)).thenReturn(true);
+        // a phase change committing now is already delivered to the connection
+        when(groupService.getGroup(groupId, userId)).thenAnswer(invocation -> {
+            assertEquals(1, groupEventHub.getConnectionCount(groupId));
+            return group;
+        });
+
+        groupEventHub.subscribe(groupId, userId);
+
+        assertEquals(1, groupEventHub.getConnectionCount(groupId));
+    }
+
+    @Test
+    void subscribe_leftSinceCheck_closesConnection() {
+        when(groupService.isUserMemberOfGroup(groupId, userId)).thenReturn(true);
+        when(groupService.getGroup(groupId, userId))
+                .thenThrow(new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not a member of this group"));
+
+        assertThrows(ResponseStatusException.class, () -> groupEventHub.subscribe(groupId, userId));
+        assertEquals(0, groupEventHub.getConnectionCount(groupId));
+    }
+
+    @Test
+    void onMembershipChanged_memberLeft_closesOnlyTheirConnections() {
+        groupEventHub = new GroupEventHub(groupService, 60000, 8, idleSender);
+        when(groupService.isUserMemberOfGroup(eq(groupId), anyLong())).thenReturn(true);
+        when(groupService.getGroup(eq(groupId), anyLong())).thenReturn(group);
+        groupEventHub.subscribe(groupId, userId);
+        groupEventHub.subscribe(groupId, userId);
+        groupEventHub.subscribe(groupId, 3L);
+
+        groupEventHub.onMembershipChanged(new MembershipChangedEvent(groupId, userId));
+
+        assertEquals(1, groupEventHub.getConnectionCount(groupId));
+    }
+
+    @Test
+    void onRankingsSubmitted_resubmission_isNotPushed() {
+        when(groupService.isUserMemberOfGroup(groupId, userId)).thenReturn(true);
+        when(groupService.getGroup(groupId, userId)).thenReturn(group);
+        groupEventHub.subscribe(groupId, userId);
+
+        groupEventHub.onRankingsSubmitted(new RankingsSubmittedEvent(groupId, 5L, false));
+
+        assertEquals(1, groupEventHub.getConnectionCount(groupId));
+    }
+
+    @Test
+    void publish_bufferFull_dropsSlowSubscriber() {
+        when(groupService.isUserMemberOfGroup(groupId, userId)).thenReturn(true);
+        when(groupService.getGroup(groupId, userId)).thenReturn(group);
+        groupEventHub.subscribe(groupId, userId);
+
+        groupEventHub.onPoolChanged(new PoolChangedEvent(groupId, 100L, 5L, true));
+
+        assertEquals(0, groupEventHub.getConnectionCount(groupId));
+    }
+
+    @Test
+    void onPhaseDeadlineChanged_groupDeleted_closesConnections() throws InterruptedException {
+        groupEventHub = new GroupEventHub(groupService, 60000, 8, Executors.newSingleThreadExecutor());
+        when(groupService.isUserMemberOfGroup(groupId, userId)).thenReturn(true);
+        when(groupService.getGroup(groupId, userId)).thenReturn(group);
+        groupEventHub.subscribe(groupId, userId);
+
+        groupEventHub.onPhaseDeadlineChanged(new PhaseDeadlineChangedEvent(groupId, null, null));
+
+        for (int i = 0; i < 100 && groupEventHub.getConnectionCount(groupId) > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, groupEventHub.getConnectionCount(groupId));
+        groupEventHub.destroy();
+    }
+}
@@ -18,6 +18,7 @@ import org.mockito.Mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -35,6 +36,10 @@ class GroupInvitationServiceTest {
     private GroupRepository groupRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private MembershipService membershipService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private GroupInvitationService groupInvitationService;
@@ -63,6 +68,7 @@ class GroupInvitationServiceTest {
         group.setCreator(sender);
         group.setMembers(new ArrayList<>());
         group.getMembers().add(sender);
+        when(membershipService.isMember(1L, 1L)).thenReturn(true);
 
         // Create test invitation
         invitation = new GroupInvitation();
@@ -102,7 +108,7 @@ class GroupInvitationServiceTest {
         when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
         when(userRepository.findById(1L)).thenReturn(Optional.of(sender));
         when(userRepository.findById(2L)).thenReturn(Optional.of(receiver));
-        group.getMembers().clear(); // Remove sender from group
+        when(membershipService.isMember(1L, 1L)).thenReturn(false); // sender is not in the group
 
         // call
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -119,7 +125,7 @@ class GroupInvitationServiceTest {
         when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
         when(userRepository.findById(1L)).thenReturn(Optional.of(sender));
         when(userRepository.findById(2L)).thenReturn(Optional.of(receiver));
-        group.getMembers().add(receiver); 
+        when(membershipService.isMember(1L, 2L)).thenReturn(true);
 
         // call
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -161,6 +167,7 @@ class GroupInvitationServiceTest {
         assertNotNull(result.getResponseTime());
         assertTrue(group.getMembers().contains(receiver));
         verify(groupRepository).save(group);
+        verify(eventPublisher).publishEvent(any(MembershipChangedEvent.class));
     }
 
     // rejection of an invitation
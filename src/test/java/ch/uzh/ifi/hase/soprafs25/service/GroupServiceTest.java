@@ -1,30 +1,44 @@
 package ch.uzh.ifi.hase.soprafs25.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
+import ch.uzh.ifi.hase.soprafs25.repository.BallotRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupInvitationRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.GroupMovieTallyRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.RankingResultRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.RankingResultSnapshotRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.UserMovieRankingRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.UserRepository;
 
@@ -41,6 +55,16 @@ class GroupServiceTest {
     private RankingResultRepository rankingResultRepository;
     @Mock
     private GroupInvitationRepository groupInvitationRepository;
+    @Mock
+    private GroupMovieTallyRepository groupMovieTallyRepository;
+    @Mock
+    private RankingResultSnapshotRepository rankingResultSnapshotRepository;
+    @Mock
+    private BallotRepository ballotRepository;
+    @Mock
+    private MembershipService membershipService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private GroupService groupService;
@@ -65,6 +89,7 @@ class GroupServiceTest {
         testGroup.setCreator(testUser);
         testGroup.setMembers(new ArrayList<>());
         testGroup.getMembers().add(testUser);
+        when(membershipService.isMember(1L, 1L)).thenReturn(true);
         // create test movie pool
         testMoviePool = new MoviePool();
         testMoviePool.setGroup(testGroup);
@@ -135,6 +160,9 @@ class GroupServiceTest {
         verify(userMovieRankingRepository).findByGroup(testGroup);
         verify(rankingResultRepository).findByGroup(testGroup);
         verify(groupInvitationRepository).findByGroup_GroupId(1L);
+        verify(groupMovieTallyRepository).deleteByGroup(testGroup);
+        verify(rankingResultSnapshotRepository).deleteByGroup(testGroup);
+        verify(ballotRepository).deleteByGroup(testGroup);
         verify(groupRepository).delete(testGroup);
     }
 
@@ -169,18 +197,18 @@ class GroupServiceTest {
     // tests for isUserMember method
     @Test
     void isUserMemberOfGroup_Success() {
-        // when
-        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
         // call
         boolean result = groupService.isUserMemberOfGroup(1L, 1L);
         // then
         assertTrue(result);
+        // the member list is not loaded
+        verify(groupRepository, never()).findById(anyLong());
     }
 
     @Test
     void isUserMemberOfGroup_NotMember_ReturnsFalse() {
         // when
-        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+        when(groupRepository.existsById(1L)).thenReturn(true);
         // call
         boolean result = groupService.isUserMemberOfGroup(1L, 2L);
 
@@ -188,6 +216,17 @@ class GroupServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void isUserMemberOfGroup_GroupNotFound_ThrowsException() {
+        // when
+        when(groupRepository.existsById(1L)).thenReturn(false);
+        // call
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> groupService.isUserMemberOfGroup(1L, 2L));
+        // then
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
     // tests for getting group methid
     @Test
     void getGroup_Success() {
@@ -219,17 +258,20 @@ class GroupServiceTest {
     void leaveGroup_Success() {
         // when
         when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(groupRepository.save(any(Group.class))).thenReturn(testGroup);
-        when(groupInvitationRepository.findAllByGroupAndReceiverAndResponseTimeIsNull(testGroup, testUser))
+        when(groupInvitationRepository.findAllByGroup_GroupIdAndReceiver_UserIdAndResponseTimeIsNull(1L, 1L))
             .thenReturn(new ArrayList<>());
         
         // call
         groupService.leaveGroup(1L, 1L);
 
-        // then
-        verify(groupRepository).save(any(Group.class));
-        verify(groupInvitationRepository).findAllByGroupAndReceiverAndResponseTimeIsNull(testGroup, testUser);
+        // then: only the membership row is deleted, the members are not loaded
+        verify(groupRepository).deleteMember(testGroup, 1L);
+        verify(groupRepository, never()).save(any(Group.class));
+        verify(userRepository, never()).findById(any());
+        ArgumentCaptor<MembershipChangedEvent> eventCaptor = ArgumentCaptor.forClass(MembershipChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(1L, eventCaptor.getValue().getUserId());
+        verify(groupInvitationRepository).findAllByGroup_GroupIdAndReceiver_UserIdAndResponseTimeIsNull(1L, 1L);
     }
 
     // leaving a group fails, because user is not member of this group
@@ -237,7 +279,6 @@ class GroupServiceTest {
     void leaveGroup_NotMember_ThrowsException() {
         // when
         when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(new User()));
 
         // call
         ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -246,4 +287,169 @@ class GroupServiceTest {
         assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
         assertEquals("User is not a member of this group", exception.getReason());
     }
-}
\ No newline at end of file
+
+    // setting the voting method succeeds for the creator in POOLING phase
+    @Test
+    void setVotingMethod_Creator_Success() {
+        // when
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+
+        // call
+        groupService.setVotingMethod(1L, 1L, Group.VotingMethod.SCHULZE);
+
+        // then
+        assertEquals(Group.VotingMethod.SCHULZE, testGroup.getVotingMethod());
+        verify(groupRepository).save(testGroup);
+    }
+
+    // setting the voting method fails once voting has started
+    @Test
+    void setVotingMethod_VotingPhase_ThrowsException() {
+        // when
+        testGroup.setPhase(Group.GroupPhase.VOTING);
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+
+        // call
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> groupService.setVotingMethod(1L, 1L, Group.VotingMethod.BORDA));
+        // then
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        assertEquals(Group.VotingMethod.ADJUSTED_AVERAGE, testGroup.getVotingMethod());
+    }
+
+    // the timer tick moves due POOLING groups to VOTING, grouped by their voting duration
+    @Test
+    void checkPhaseTimers_PoolingDue_StartsVotingWithDeadline() {
+        // when
+        List<Object[]> due = new ArrayList<>();
+        due.add(new Object[]{1L, 60});
+        due.add(new Object[]{2L, 60});
+        due.add(new Object[]{3L, null});
+        when(groupRepository.findDueGroups(eq(Group.GroupPhase.POOLING), any(), eq(0), eq(1))).thenReturn(due);
+        when(groupRepository.findDueGroups(eq(Group.GroupPhase.VOTING), any(), eq(0), eq(1))).thenReturn(new ArrayList<>());
+
+        // call
+        groupService.checkPhaseTimers(0, 1);
+
+        // then
+        ArgumentCaptor<LocalDateTime> startCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> deadlineCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(groupRepository).startPhase(eq(Arrays.asList(1L, 2L)), eq(Group.GroupPhase.POOLING),
+                eq(Group.GroupPhase.VOTING), startCaptor.capture(), deadlineCaptor.capture());
+        assertEquals(startCaptor.getValue().plusSeconds(60), deadlineCaptor.getValue());
+        verify(groupRepository).startPhase(eq(Collections.singletonList(3L)), eq(Group.GroupPhase.POOLING),
+                eq(Group.GroupPhase.VOTING), any(), isNull());
+        verify(groupRepository, never()).endPhase(any(), any(), any());
+        verify(groupRepository, never()).findAll();
+    }
+
+    // the timer tick moves due VOTING groups to RESULTS, their results are snapshotted after the commit
+    @Test
+    void checkPhaseTimers_VotingDue_ShowsResults() {
+        // when
+        List<Object[]> due = new ArrayList<>();
+        due.add(new Object[]{1L, 60});
+        when(groupRepository.findDueGroups(eq(Group.GroupPhase.POOLING), any(), eq(0), eq(1))).thenReturn(new ArrayList<>());
+        when(groupRepository.findDueGroups(eq(Group.GroupPhase.VOTING), any(), eq(0), eq(1))).thenReturn(due);
+
+        // call
+        groupService.checkPhaseTimers(0, 1);
+
+        // then
+        verify(groupRepository).endPhase(Collections.singletonList(1L), Group.GroupPhase.VOTING, Group.GroupPhase.RESULTS);
+        ArgumentCaptor<PhaseDeadlineChangedEvent> eventCaptor = ArgumentCaptor.forClass(PhaseDeadlineChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(1L, eventCaptor.getValue().getGroupId());
+        assertEquals(Group.GroupPhase.RESULTS, eventCaptor.getValue().getPhase());
+        verify(groupRepository, never()).startPhase(any(), any(), any(), any(), any());
+    }
+
+    // the timer fires at the deadline and moves the group from POOLING to VOTING
+    @Test
+    void advanceDuePhase_PoolingDeadlinePassed_StartsVoting() {
+        // when
+        testGroup.setPoolPhaseDuration(60);
+        testGroup.setVotingPhaseDuration(120);
+        testGroup.setPhaseStartTime(LocalDateTime.now().minusSeconds(61));
+        when(groupRepository.findWithLockByGroupId(1L)).thenReturn(Optional.of(testGroup));
+
+        // call
+        LocalDateTime nextDeadline = groupService.advanceDuePhase(1L);
+
+        // then
+        assertEquals(Group.GroupPhase.VOTING, testGroup.getPhase());
+        assertEquals(testGroup.getPhaseStartTime().plusSeconds(120), nextDeadline);
+        verify(groupRepository).save(testGroup);
+    }
+
+    // the timer fires at the deadline and moves the group from VOTING to RESULTS
+    @Test
+    void advanceDuePhase_VotingDeadlinePassed_ShowsResults() {
+        // when
+        testGroup.setPhase(Group.GroupPhase.VOTING);
+        testGroup.setVotingPhaseDuration(120);
+        testGroup.setPhaseStartTime(LocalDateTime.now().minusSeconds(121));
+        when(groupRepository.findWithLockByGroupId(1L)).thenReturn(Optional.of(testGroup));
+
+        // call
+        LocalDateTime nextDeadline = groupService.advanceDuePhase(1L);
+
+        // then
+        assertEquals(Group.GroupPhase.RESULTS, testGroup.getPhase());
+        assertNull(nextDeadline);
+        ArgumentCaptor<PhaseDeadlineChangedEvent> eventCaptor = ArgumentCaptor.forClass(PhaseDeadlineChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(Group.GroupPhase.RESULTS, eventCaptor.getValue().getPhase());
+    }
+
+    // a timer that was moved meanwhile does not change the phase
+    @Test
+    void advanceDuePhase_DeadlineMoved_KeepsPhase() {
+        // when
+        testGroup.setPoolPhaseDuration(60);
+        testGroup.setPhaseStartTime(LocalDateTime.now());
+        when(groupRepository.findWithLockByGroupId(1L)).thenReturn(Optional.of(testGroup));
+
+        // call
+        LocalDateTime nextDeadline = groupService.advanceDuePhase(1L);
+
+        // then
+        assertEquals(Group.GroupPhase.POOLING, testGroup.getPhase());
+        assertEquals(testGroup.getPhaseDeadline(), nextDeadline);
+        verify(groupRepository, never()).save(any(Group.class));
+    }
+
+    // changing a timer publishes the new deadline for the phase timer scheduler
+    @Test
+    void setPoolPhaseDuration_RunningTimer_PublishesDeadline() {
+        // when
+        testGroup.setPhaseStartTime(LocalDateTime.now());
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(testGroup));
+
+        // call
+        groupService.setPoolPhaseDuration(1L, 1L, 90);
+
+        // then
+        ArgumentCaptor<PhaseDeadlineChangedEvent> eventCaptor = ArgumentCaptor.forClass(PhaseDeadlineChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(1L, eventCaptor.getValue().getGroupId());
+        assertEquals(testGroup.getPhaseStartTime().plusSeconds(90), eventCaptor.getValue().getDeadline());
+    }
+
+    @Test
+    void getGroupsWithPoolsByUserId_loadsPoolMoviesOfAllGroupsAtOnce() {
+        Group groupWithoutPool = new Group();
+        groupWithoutPool.setGroupId(2L);
+        testGroup.setMoviePool(testMoviePool);
+        when(groupRepository.findGroupIdsByMemberIdAfter(eq(1L), eq(0L), any())).thenReturn(Arrays.asList(1L, 2L));
+        when(groupRepository.findAllWithDetailsByGroupIdIn(Arrays.asList(1L, 2L)))
+                .thenReturn(Arrays.asList(testGroup, groupWithoutPool));
+
+        KeysetPage<Group> groups = groupService.getGroupsWithPoolsByUserId(1L, null, null);
+
+        assertEquals(2, groups.getItems().size());
+        assertNull(groups.getNextCursor());
+        verify(moviePoolService).loadMovies(Collections.singletonList(testMoviePool));
+        verify(groupRepository, never()).findById(any());
+    }
+}
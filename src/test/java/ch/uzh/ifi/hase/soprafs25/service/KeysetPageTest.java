@@ -0,0 +1,60 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class KeysetPageTest {
+
+    @Test
+    void of_moreThanLimitFetched_cursorIsLastItemOfPage() {
+        KeysetPage<Long> page = KeysetPage.of(Arrays.asList(3L, 7L, 9L), 2, id -> id);
+
+        assertEquals(Arrays.asList(3L, 7L), page.getItems());
+        assertEquals(7L, page.getNextCursor());
+    }
+
+    @Test
+    void of_limitOrFewerFetched_lastPage() {
+        KeysetPage<Long> page = KeysetPage.of(Arrays.asList(3L, 7L), 2, id -> id);
+
+        assertEquals(Arrays.asList(3L, 7L), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void fetch_requestsOneMoreThanLimit() {
+        assertEquals(51, KeysetPage.fetch(50).getPageSize());
+    }
+
+    @Test
+    void limitAndAfter_notRequested_defaults() {
+        assertEquals(KeysetPage.DEFAULT_LIMIT, KeysetPage.limit(null));
+        assertEquals(0L, KeysetPage.after(null));
+    }
+
+    @Test
+    void limit_outOfRange_badRequest() {
+        ResponseStatusException tooLarge = assertThrows(ResponseStatusException.class,
+                () -> KeysetPage.limit(KeysetPage.MAX_LIMIT + 1));
+        assertEquals(HttpStatus.BAD_REQUEST, tooLarge.getStatus());
+        assertThrows(ResponseStatusException.class, () -> KeysetPage.limit(0));
+    }
+
+    @Test
+    void map_keepsCursor() {
+        KeysetPage<Long> page = new KeysetPage<>(List.of(3L), 3L);
+
+        KeysetPage<String> mapped = page.map(String::valueOf);
+
+        assertEquals(List.of("3"), mapped.getItems());
+        assertEquals(3L, mapped.getNextCursor());
+    }
+}
@@ -0,0 +1,148 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ch.uzh.ifi.hase.soprafs25.entity.SchedulerLease;
+import ch.uzh.ifi.hase.soprafs25.repository.SchedulerLeaseRepository;
+
+@ExtendWith(MockitoExtension.class)
+class LeaseServiceTest {
+
+    @Mock
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LeaseService leaseService;
+
+    @BeforeEach
+    void setup() {
+        leaseService = new LeaseService(schedulerLeaseRepository, transactionManager, "node-b", 300, 4);
+    }
+
+    private SchedulerLease createLease(String name, long fencingToken) {
+        SchedulerLease lease = new SchedulerLease();
+        lease.setName(name);
+        lease.setOwner("node-b");
+        lease.setFencingToken(fencingToken);
+        return lease;
+    }
+
+    private void stubDatabaseTime() {
+        when(schedulerLeaseRepository.currentTimestamp()).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void stubAcquireSucceeds() {
+        stubDatabaseTime();
+        when(schedulerLeaseRepository.acquire(anyString(), eq("node-b"), any(), any())).thenReturn(1);
+        when(schedulerLeaseRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.of(createLease(invocation.getArgument(0), 5L)));
+    }
+
+    @Test
+    void acquirePartitions_singleNode_leasesAllPartitions() {
+        stubAcquireSucceeds();
+        when(schedulerLeaseRepository.findLiveOwners(LeaseService.NODE_PREFIX))
+                .thenReturn(Collections.singletonList("node-b"));
+
+        List<PartitionLease> leases = leaseService.acquirePartitions("job");
+
+        assertEquals(Arrays.asList(0, 1, 2, 3),
+                leases.stream().map(PartitionLease::getPartition).collect(Collectors.toList()));
+        assertEquals(5L, leases.get(0).getFencingToken());
+        assertEquals("job:0", leases.get(0).getName());
+    }
+
+    @Test
+    void acquirePartitions_twoLiveNodes_leasesOwnShareOnly() {
+        stubAcquireSucceeds();
+        when(schedulerLeaseRepository.findLiveOwners(LeaseService.NODE_PREFIX))
+                .thenReturn(Arrays.asList("node-a", "node-b"));
+
+        List<PartitionLease> leases = leaseService.acquirePartitions("job");
+
+        // node-b is the second live node, so it takes the odd partitions
+        assertEquals(Arrays.asList(1, 3),
+                leases.stream().map(PartitionLease::getPartition).collect(Collectors.toList()));
+        verify(schedulerLeaseRepository, never()).acquire(eq("job:0"), any(), any(), any());
+    }
+
+    @Test
+    void tryAcquire_heldByOtherNode_returnsEmpty() {
+        stubDatabaseTime();
+        when(schedulerLeaseRepository.acquire(eq("job:0"), eq("node-b"), any(), any())).thenReturn(0);
+        when(schedulerLeaseRepository.existsById("job:0")).thenReturn(true);
+
+        assertFalse(leaseService.tryAcquire("job:0").isPresent());
+        verify(schedulerLeaseRepository, never()).saveAndFlush(any());
+    }
+
+    // the lease expires relative to the database clock
+    @Test
+    void tryAcquire_leaseTtl_expiresAfterDatabaseTime() {
+        LocalDateTime databaseNow = LocalDateTime.now().minusHours(3);
+        when(schedulerLeaseRepository.currentTimestamp()).thenReturn(Timestamp.valueOf(databaseNow));
+        when(schedulerLeaseRepository.acquire(eq("job:0"), eq("node-b"), any(), any())).thenReturn(1);
+        when(schedulerLeaseRepository.findById("job:0")).thenReturn(Optional.of(createLease("job:0", 2L)));
+
+        leaseService.tryAcquire("job:0");
+
+        verify(schedulerLeaseRepository).acquire("job:0", "node-b", databaseNow, databaseNow.plusSeconds(300));
+    }
+
+    @Test
+    void tryAcquire_newLease_createsLeaseWithFirstToken() {
+        stubDatabaseTime();
+        when(schedulerLeaseRepository.acquire(eq("job:0"), eq("node-b"), any(), any())).thenReturn(0);
+        when(schedulerLeaseRepository.existsById("job:0")).thenReturn(false);
+
+        assertEquals(Optional.of(1L), leaseService.tryAcquire("job:0"));
+        verify(schedulerLeaseRepository).saveAndFlush(any(SchedulerLease.class));
+    }
+
+    @Test
+    void runFenced_leaseTakenOver_skipsWork() {
+        PartitionLease lease = new PartitionLease("job:0", 0, 4, 5L);
+        when(schedulerLeaseRepository.findHeldWithLock("job:0", "node-b", 5L)).thenReturn(Optional.empty());
+        boolean[] ran = {false};
+
+        Optional<Boolean> result = leaseService.runFenced(lease, () -> ran[0] = true);
+
+        assertFalse(result.isPresent());
+        assertFalse(ran[0]);
+    }
+
+    @Test
+    void runFenced_leaseHeld_runsWork() {
+        PartitionLease lease = new PartitionLease("job:0", 0, 4, 5L);
+        when(schedulerLeaseRepository.findHeldWithLock("job:0", "node-b", 5L))
+                .thenReturn(Optional.of(createLease("job:0", 5L)));
+
+        Optional<Boolean> result = leaseService.runFenced(lease, () -> true);
+
+        assertTrue(result.orElse(false));
+    }
+}
@@ -0,0 +1,125 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+import ch.uzh.ifi.hase.soprafs25.rest.dto.LiveLeaderboardDTO;
+
+@ExtendWith(MockitoExtension.class)
+class LiveLeaderboardServiceTest {
+
+    @Mock
+    private RankingService rankingService;
+
+    private LiveLeaderboardService liveLeaderboardService;
+
+    private final Long groupId = 1L;
+    private final Long userId = 2L;
+
+    @BeforeEach
+    void setup() {
+        liveLeaderboardService = new LiveLeaderboardService(rankingService, 60000);
+    }
+
+    private LiveLeaderboardDTO createLeaderboard(String phase) {
+        LiveLeaderboardDTO leaderboard = new LiveLeaderboardDTO();
+        leaderboard.setGroupId(groupId);
+        leaderboard.setPhase(phase);
+        leaderboard.setStandings(Collections.emptyList());
+        return leaderboard;
+    }
+
+    @Test
+    void subscribe_member_registersSubscriber() {
+        when(rankingService.getLiveLeaderboard(groupId, userId)).thenReturn(createLeaderboard("VOTING"));
+
+        SseEmitter emitter = liveLeaderboardService.subscribe(groupId, userId);
+
+        assertNotNull(emitter);
+        assertEquals(1, liveLeaderboardService.getSubscriberCount(groupId));
+    }
+
+    @Test
+    void subscribe_notMember_throwsForbidden() {
+        when(rankingService.getLiveLeaderboard(groupId, userId))
+                .thenThrow(new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not a member of this group"));
+
+        assertThrows(ResponseStatusException.class, () -> liveLeaderboardService.subscribe(groupId, userId));
+        assertEquals(0, liveLeaderboardService.getSubscriberCount(groupId));
+    }
+
+    @Test
+    void onRankingsSubmitted_noSubscribers_isIgnored() {
+        liveLeaderboardService.onRankingsSubmitted(new RankingsSubmittedEvent(groupId, userId, true));
+
+        assertFalse(liveLeaderboardService.isChanged(groupId));
+        liveLeaderboardService.pushChangedLeaderboards();
+        verify(rankingService, never()).getLiveLeaderboard(anyLong());
+    }
+
+    @Test
+    void pushChangedLeaderboards_burstOfSubmissions_coalescedIntoOnePush() {
+        when(rankingService.getLiveLeaderboard(groupId, userId)).thenReturn(createLeaderboard("VOTING"));
+        when(rankingService.getLiveLeaderboard(groupId)).thenReturn(createLeaderboard("VOTING"));
+        liveLeaderboardService.subscribe(groupId, userId);
+
+        for (long voter = 1; voter <= 10; voter++) {
+            liveLeaderboardService.onRankingsSubmitted(new RankingsSubmittedEvent(groupId, voter, true));
+        }
+        assertTrue(liveLeaderboardService.isChanged(groupId));
+
+        liveLeaderboardService.pushChangedLeaderboards();
+        liveLeaderboardService.pushChangedLeaderboards(); // nothing changed since the last push
+
+        verify(rankingService, times(1)).getLiveLeaderboard(groupId);
+        assertFalse(liveLeaderboardService.isChanged(groupId));
+    }
+
+    // the end of voting pushes the final standings once and completes the streams
+    @Test
+    void onPhaseDeadlineChanged_votingEnded_pushesFinalStandingsAndCompletes() {
+        when(rankingService.getLiveLeaderboard(groupId, userId)).thenReturn(createLeaderboard("VOTING"));
+        when(rankingService.getLiveLeaderboard(groupId)).thenReturn(createLeaderboard("RESULTS"));
+        SseEmitter emitter = liveLeaderboardService.subscribe(groupId, userId);
+
+        liveLeaderboardService.onPhaseDeadlineChanged(new PhaseDeadlineChangedEvent(groupId, Group.GroupPhase.RESULTS, null));
+        assertTrue(liveLeaderboardService.isChanged(groupId));
+        liveLeaderboardService.pushChangedLeaderboards();
+
+        verify(rankingService, times(1)).getLiveLeaderboard(groupId);
+        assertEquals(0, liveLeaderboardService.getSubscriberCount(groupId));
+        assertThrows(IllegalStateException.class, () -> emitter.send("after completion"));
+    }
+
+    @Test
+    void onPhaseDeadlineChanged_groupDeleted_completesWithoutPush() {
+        when(rankingService.getLiveLeaderboard(groupId, userId)).thenReturn(createLeaderboard("VOTING"));
+        SseEmitter emitter = liveLeaderboardService.subscribe(groupId, userId);
+
+        liveLeaderboardService.onPhaseDeadlineChanged(new PhaseDeadlineChangedEvent(groupId, null, null));
+        liveLeaderboardService.pushChangedLeaderboards();
+
+        verify(rankingService, never()).getLiveLeaderboard(groupId);
+        assertEquals(0, liveLeaderboardService.getSubscriberCount(groupId));
+        assertThrows(IllegalStateException.class, () -> emitter.send("after completion"));
+    }
+}
@@ -0,0 +1,70 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipServiceTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Test
+    void isMember_repeatedCheck_queriesOnce() {
+        MembershipService membershipService = new MembershipService(groupRepository, 60000, 10);
+        when(groupRepository.existsByGroupIdAndMembers_UserId(1L, 2L)).thenReturn(true);
+
+        assertTrue(membershipService.isMember(1L, 2L));
+        assertTrue(membershipService.isMember(1L, 2L));
+
+        verify(groupRepository, times(1)).existsByGroupIdAndMembers_UserId(1L, 2L);
+    }
+
+    @Test
+    void onMembershipChanging_leave_evictsCachedAnswer() {
+        MembershipService membershipService = new MembershipService(groupRepository, 60000, 10);
+        when(groupRepository.existsByGroupIdAndMembers_UserId(1L, 2L)).thenReturn(true, false);
+        assertTrue(membershipService.isMember(1L, 2L));
+
+        membershipService.onMembershipChanging(new MembershipChangedEvent(1L, 2L));
+
+        assertFalse(membershipService.isMember(1L, 2L));
+    }
+
+    @Test
+    void onMembershipChanged_groupDeleted_evictsAllAnswersOfGroup() {
+        MembershipService membershipService = new MembershipService(groupRepository, 60000, 10);
+        when(groupRepository.existsByGroupIdAndMembers_UserId(1L, 2L)).thenReturn(true);
+        when(groupRepository.existsByGroupIdAndMembers_UserId(1L, 3L)).thenReturn(true);
+        when(groupRepository.existsByGroupIdAndMembers_UserId(4L, 2L)).thenReturn(true);
+        membershipService.isMember(1L, 2L);
+        membershipService.isMember(1L, 3L);
+        membershipService.isMember(4L, 2L);
+
+        membershipService.onMembershipChanged(new MembershipChangedEvent(1L, null));
+
+        assertEquals(1, membershipService.size());
+    }
+
+    @Test
+    void isMember_ttlZero_notCached() {
+        MembershipService membershipService = new MembershipService(groupRepository, 0, 10);
+        when(groupRepository.existsByGroupIdAndMembers_UserId(1L, 2L)).thenReturn(true);
+
+        membershipService.isMember(1L, 2L);
+        membershipService.isMember(1L, 2L);
+
+        assertEquals(0, membershipService.size());
+        verify(groupRepository, times(2)).existsByGroupIdAndMembers_UserId(1L, 2L);
+    }
+}
@@ -238,7 +238,7 @@ public class MovieControllerTest {
         detailedMovie.setGenres(Arrays.asList("Action", "Adventure"));
         detailedMovie.setActors(Arrays.asList("Actor 1", "Actor 2"));
         detailedMovie.setDirectors(Arrays.asList("Director 1"));
-        detailedMovie.setSpokenlanguages(Arrays.asList("English", "Spanish"));
+        detailedMovie.setSpokenlanguages(Arrays.asList("en", "es"));
         detailedMovie.setOriginallanguage("English");
 
         List<Movie> detailedMovies = new ArrayList<>();
@@ -61,7 +61,6 @@ class MoviePoolServiceIntegrationTest {
         // Create and persist a movie pool
         MoviePool pool = new MoviePool();
         pool.setGroup(group);
-        pool.setMovies(new java.util.ArrayList<>());
         pool = moviePoolRepository.saveAndFlush(pool);
         group.setMoviePool(pool);
         groupRepository.saveAndFlush(group);
@@ -3,15 +3,19 @@ package ch.uzh.ifi.hase.soprafs25.service;
 import ch.uzh.ifi.hase.soprafs25.entity.Group;
 import ch.uzh.ifi.hase.soprafs25.entity.Movie;
 import ch.uzh.ifi.hase.soprafs25.entity.MoviePool;
+import ch.uzh.ifi.hase.soprafs25.entity.PoolEntry;
 import ch.uzh.ifi.hase.soprafs25.entity.User;
 import ch.uzh.ifi.hase.soprafs25.repository.GroupRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.MoviePoolRepository;
 import ch.uzh.ifi.hase.soprafs25.repository.MovieRepository;
+import ch.uzh.ifi.hase.soprafs25.repository.PoolEntryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -27,6 +31,12 @@ class MoviePoolServiceTest {
     private GroupRepository groupRepository;
     @Mock
     private MovieRepository movieRepository;
+    @Mock
+    private PoolEntryRepository poolEntryRepository;
+    @Mock
+    private MembershipService membershipService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private MoviePoolService moviePoolService;
 
@@ -44,14 +54,12 @@ class MoviePoolServiceTest {
         user = new User();
         user.setUserId(10L);
         group.getMembers().add(user);
+        when(membershipService.isMember(1L, 10L)).thenReturn(true);
         movie = new Movie();
         movie.setMovieId(100L);
         moviePool = new MoviePool();
+        moviePool.setPoolId(5L);
         moviePool.setGroup(group);
-        moviePool.setMovies(new ArrayList<>());
-        // simulate user-movie mapping
-        Map<Movie, Long> userAddedMovies = new HashMap<>();
-        moviePool.setUserAddedMovies(userAddedMovies);
     }
 
     @Test
@@ -64,7 +72,13 @@ class MoviePoolServiceTest {
 
         MoviePool result = moviePoolService.addMovie(1L, 100L, 10L);
         assertNotNull(result);
+        verify(poolEntryRepository).save(any(PoolEntry.class));
         verify(moviePoolRepository).save(moviePool);
+        assertEquals(10L, moviePool.getEntries().get(0).getAddedBy());
+        ArgumentCaptor<PoolChangedEvent> eventCaptor = ArgumentCaptor.forClass(PoolChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(100L, eventCaptor.getValue().getMovieId());
+        assertTrue(eventCaptor.getValue().isAdded());
     }
 
     @Test
@@ -80,16 +94,18 @@ class MoviePoolServiceTest {
     void removeMovie_success_inPoolPhase() {
         group.setPhase(Group.GroupPhase.POOLING);
         when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
-        when(movieRepository.findById(100L)).thenReturn(Optional.of(movie));
         when(moviePoolRepository.findByGroup_GroupId(1L)).thenReturn(moviePool);
         // Simulate user added the movie
-        moviePool.getMovies().add(movie);
-        moviePool.getUserAddedMovies().put(movie, 10L);
-        when(moviePoolRepository.save(any(MoviePool.class))).thenReturn(moviePool);
+        PoolEntry entry = moviePool.addMovie(movie, 10L);
+        when(poolEntryRepository.findByPool_PoolIdAndMovie_MovieId(5L, 100L)).thenReturn(entry);
+        when(moviePoolRepository.saveAndFlush(any(MoviePool.class))).thenReturn(moviePool);
 
         MoviePool result = moviePoolService.removeMovie(1L, 100L, 10L);
         assertNotNull(result);
-        verify(moviePoolRepository).save(moviePool);
+        // the single entry is deleted, the loaded entries no longer contain it
+        verify(poolEntryRepository).delete(entry);
+        verify(moviePoolRepository).saveAndFlush(moviePool);
+        assertTrue(moviePool.getEntries().isEmpty());
     }
 
     @Test
@@ -104,7 +120,7 @@ class MoviePoolServiceTest {
     @Test
     void addMovie_forbidden_notMember() {
         group.setPhase(Group.GroupPhase.POOLING);
-        group.getMembers().clear(); // user not in group
+        when(membershipService.isMember(1L, 10L)).thenReturn(false); // user not in group
         when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
                 moviePoolService.addMovie(1L, 100L, 10L));
@@ -117,7 +133,7 @@ class MoviePoolServiceTest {
         when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
         when(movieRepository.findById(100L)).thenReturn(Optional.of(movie));
         when(moviePoolRepository.findByGroup_GroupId(1L)).thenReturn(moviePool);
-        moviePool.getMovies().add(movie);
+        when(poolEntryRepository.existsByPool_PoolIdAndMovie_MovieId(5L, 100L)).thenReturn(true);
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
                 moviePoolService.addMovie(1L, 100L, 10L));
         assertEquals(HttpStatus.CONFLICT, ex.getStatus());
@@ -130,27 +146,49 @@ class MoviePoolServiceTest {
         when(movieRepository.findById(100L)).thenReturn(Optional.of(movie));
         when(moviePoolRepository.findByGroup_GroupId(1L)).thenReturn(moviePool);
         // Simulate user has already added 2 movies
-        Movie m1 = new Movie(); m1.setMovieId(101L);
-        Movie m2 = new Movie(); m2.setMovieId(102L);
-        moviePool.getMovies().add(m1);
-        moviePool.getMovies().add(m2);
-        moviePool.getUserAddedMovies().put(m1, 10L);
-        moviePool.getUserAddedMovies().put(m2, 10L);
+        when(poolEntryRepository.countByPool_PoolIdAndAddedBy(5L, 10L)).thenReturn(2L);
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
                 moviePoolService.addMovie(1L, 100L, 10L));
         assertEquals(HttpStatus.FORBIDDEN, ex.getStatus());
+        verify(poolEntryRepository, never()).save(any());
     }
 
     @Test
     void removeMovie_forbidden_notAddedByUser() {
         group.setPhase(Group.GroupPhase.POOLING);
         when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
-        when(movieRepository.findById(100L)).thenReturn(Optional.of(movie));
         when(moviePoolRepository.findByGroup_GroupId(1L)).thenReturn(moviePool);
-        moviePool.getMovies().add(movie);
-        moviePool.getUserAddedMovies().put(movie, 99L); // different user
+        PoolEntry entry = moviePool.addMovie(movie, 99L); // different user
+        when(poolEntryRepository.findByPool_PoolIdAndMovie_MovieId(5L, 100L)).thenReturn(entry);
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
                 moviePoolService.removeMovie(1L, 100L, 10L));
         assertEquals(HttpStatus.FORBIDDEN, ex.getStatus());
     }
+
+    @Test
+    void removeMovie_notFound_movieNotInPool() {
+        group.setPhase(Group.GroupPhase.POOLING);
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
+        when(moviePoolRepository.findByGroup_GroupId(1L)).thenReturn(moviePool);
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
+                moviePoolService.removeMovie(1L, 100L, 10L));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+    }
+
+    @Test
+    void loadMovies_fetchesAllPoolsInOneQuery() {
+        MoviePool otherPool = new MoviePool();
+        otherPool.setPoolId(6L);
+
+        moviePoolService.loadMovies(Arrays.asList(moviePool, otherPool));
+
+        verify(moviePoolRepository).findWithMoviesByPoolIdIn(Arrays.asList(5L, 6L));
+    }
+
+    @Test
+    void loadMovies_noPools_noQuery() {
+        moviePoolService.loadMovies(Collections.emptyList());
+
+        verify(moviePoolRepository, never()).findWithMoviesByPoolIdIn(any());
+    }
 }
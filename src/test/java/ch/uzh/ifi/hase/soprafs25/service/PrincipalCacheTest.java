@@ -0,0 +1,58 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+class PrincipalCacheTest {
+
+    private final AuthenticatedUser alice = new AuthenticatedUser(1L);
+    private final AuthenticatedUser bob = new AuthenticatedUser(2L);
+
+    @Test
+    void get_cachedToken_returnsPrincipal() {
+        PrincipalCache cache = new PrincipalCache(60000, 10);
+        cache.put("token1", alice);
+
+        assertSame(alice, cache.get("token1"));
+        assertNull(cache.get("token2"));
+    }
+
+    @Test
+    void put_maxSizeReached_dropsLeastRecentlyUsedToken() {
+        PrincipalCache cache = new PrincipalCache(60000, 2);
+        cache.put("token1", alice);
+        cache.put("token2", bob);
+        cache.get("token1"); // token2 is now the least recently used one
+
+        cache.put("token3", bob);
+
+        assertEquals(2, cache.size());
+        assertSame(alice, cache.get("token1"));
+        assertNull(cache.get("token2"));
+    }
+
+    @Test
+    void get_expiredToken_returnsNull() {
+        PrincipalCache cache = new PrincipalCache(-1, 10);
+        cache.put("token1", alice);
+
+        assertNull(cache.get("token1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictUser_removesAllTokensOfUser() {
+        PrincipalCache cache = new PrincipalCache(60000, 10);
+        cache.put("token1", alice);
+        cache.put("token2", alice);
+        cache.put("token3", bob);
+
+        cache.evictUser(1L);
+
+        assertNull(cache.get("token1"));
+        assertNull(cache.get("token2"));
+        assertSame(bob, cache.get("token3"));
+    }
+}
@@ -0,0 +1,79 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import ch.uzh.ifi.hase.soprafs25.repository.RankingResultRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RankingResultRetentionServiceTest {
+
+    @Mock
+    private RankingResultRepository rankingResultRepository;
+
+    private RankingResultRetentionService retentionService;
+
+    private final Long groupId = 1L;
+
+    @BeforeEach
+    void setup() {
+        // keep the latest result plus one older result, delete at most 3 results per batch
+        retentionService = new RankingResultRetentionService(rankingResultRepository, 1, 3);
+    }
+
+    @Test
+    void findGroupsToCompact_usesRetainedResultCount() {
+        when(rankingResultRepository.findGroupIdsWithMoreResultsThan(2)).thenReturn(Collections.singletonList(groupId));
+
+        assertEquals(Collections.singletonList(groupId), retentionService.findGroupsToCompact());
+    }
+
+    @Test
+    void compactGroup_deletesAllButRetainedResults() {
+        // ids are returned newest first
+        when(rankingResultRepository.findIdsByGroupIdNewestFirst(groupId, PageRequest.of(0, 5)))
+                .thenReturn(Arrays.asList(9L, 8L, 7L, 6L));
+        when(rankingResultRepository.deleteByIdIn(Arrays.asList(7L, 6L))).thenReturn(2);
+
+        int deleted = retentionService.compactGroup(groupId);
+
+        assertEquals(2, deleted);
+        verify(rankingResultRepository).deleteByIdIn(Arrays.asList(7L, 6L));
+    }
+
+    @Test
+    void compactGroup_nothingExpired_deletesNothing() {
+        when(rankingResultRepository.findIdsByGroupIdNewestFirst(eq(groupId), any()))
+                .thenReturn(Arrays.asList(9L, 8L));
+
+        int deleted = retentionService.compactGroup(groupId);
+
+        assertEquals(0, deleted);
+        verify(rankingResultRepository, never()).deleteByIdIn(anyList());
+    }
+
+    @Test
+    void constructor_negativeHistoryDepth_alwaysKeepsLatestResult() {
+        retentionService = new RankingResultRetentionService(rankingResultRepository, -5, 3);
+        List<Long> latestOnly = Collections.singletonList(9L);
+        when(rankingResultRepository.findIdsByGroupIdNewestFirst(groupId, PageRequest.of(0, 4))).thenReturn(latestOnly);
+
+        assertEquals(0, retentionService.compactGroup(groupId));
+        verify(rankingResultRepository, never()).deleteByIdIn(anyList());
+    }
+}
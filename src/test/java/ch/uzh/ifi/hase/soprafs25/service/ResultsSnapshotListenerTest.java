@@ -0,0 +1,47 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+@ExtendWith(MockitoExtension.class)
+class ResultsSnapshotListenerTest {
+
+    @Mock
+    private RankingService rankingService;
+
+    @InjectMocks
+    private ResultsSnapshotListener resultsSnapshotListener;
+
+    @Test
+    void onPhaseDeadlineChanged_results_takesSnapshot() {
+        resultsSnapshotListener.onPhaseDeadlineChanged(new PhaseDeadlineChangedEvent(1L, Group.GroupPhase.RESULTS, null));
+
+        verify(rankingService).createResultsSnapshot(1L);
+    }
+
+    @Test
+    void onPhaseDeadlineChanged_otherPhase_takesNoSnapshot() {
+        resultsSnapshotListener.onPhaseDeadlineChanged(new PhaseDeadlineChangedEvent(1L, Group.GroupPhase.VOTING, null));
+
+        verify(rankingService, never()).createResultsSnapshot(any());
+    }
+
+    // the phase transition has committed already, a failed snapshot is left to the first request
+    @Test
+    void onPhaseDeadlineChanged_snapshotFails_isSwallowed() {
+        when(rankingService.createResultsSnapshot(1L)).thenThrow(new IllegalStateException("database down"));
+
+        assertDoesNotThrow(() -> resultsSnapshotListener.onPhaseDeadlineChanged(
+                new PhaseDeadlineChangedEvent(1L, Group.GroupPhase.RESULTS, null)));
+    }
+}
@@ -0,0 +1,121 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Movie;
+
+class SearchQueryPlannerTest {
+
+    private SearchQueryPlanner planner;
+
+    private Movie directorAndActor;
+    private Movie directorOnly;
+    private Movie actorOnly;
+    private Movie genreOnly;
+
+    @BeforeEach
+    void setUp() {
+        planner = new SearchQueryPlanner();
+
+        directorAndActor = createQuery(null, Collections.singletonList("6193"), Collections.singletonList("525"));
+        directorOnly = createQuery(null, null, Collections.singletonList("525"));
+        actorOnly = createQuery(null, Collections.singletonList("6193"), null);
+        genreOnly = createQuery(Collections.singletonList("Action"), null, null);
+    }
+
+    private Movie createQuery(List<String> genres, List<String> actors, List<String> directors) {
+        Movie query = new Movie();
+        if (genres != null) {
+            query.setGenres(genres);
+        }
+        if (actors != null) {
+            query.setActors(actors);
+        }
+        if (directors != null) {
+            query.setDirectors(directors);
+        }
+        return query;
+    }
+
+    @Test
+    void plan_unknownShapes_plansAllPermutationsInOrder() {
+        List<Movie> permutations = Arrays.asList(directorAndActor, directorOnly, actorOnly, genreOnly);
+
+        SearchQueryPlanner.QueryPlan plan = planner.plan(permutations, 10, 0);
+
+        assertEquals(permutations, plan.getPrimary());
+        assertTrue(plan.getReserve().isEmpty());
+    }
+
+    @Test
+    void plan_duplicateShape_isDropped() {
+        // same criteria in a different order is the same query for TMDb
+        Movie first = createQuery(Arrays.asList("Action", "Drama"), null, null);
+        Movie duplicate = createQuery(Arrays.asList("Drama", "Action"), null, null);
+
+        SearchQueryPlanner.QueryPlan plan = planner.plan(Arrays.asList(first, duplicate, genreOnly), 10, 0);
+
+        assertEquals(Arrays.asList(first, genreOnly), plan.getPrimary());
+    }
+
+    @Test
+    void plan_knownEmptyShape_dropsItAndNarrowerShapes() {
+        planner.recordResult(directorOnly, 0);
+
+        SearchQueryPlanner.QueryPlan plan = planner.plan(
+                Arrays.asList(directorAndActor, directorOnly, actorOnly, genreOnly), 10, 0);
+
+        // directorAndActor is narrower than the empty directorOnly query, so it must be empty as well
+        assertEquals(Arrays.asList(actorOnly, genreOnly), plan.getPrimary());
+    }
+
+    @Test
+    void plan_knownCardinalitiesFillLimit_remainingQueriesAreReserve() {
+        planner.recordResult(directorAndActor, 4);
+        planner.recordResult(directorOnly, 20);
+
+        SearchQueryPlanner.QueryPlan plan = planner.plan(
+                Arrays.asList(directorAndActor, directorOnly, actorOnly, genreOnly), 10, 2);
+
+        assertEquals(Arrays.asList(directorAndActor, directorOnly), plan.getPrimary());
+        assertEquals(Arrays.asList(actorOnly, genreOnly), plan.getReserve());
+    }
+
+    @Test
+    void plan_excludedMoviesRaiseRequiredResults() {
+        planner.recordResult(directorAndActor, 10);
+
+        SearchQueryPlanner.QueryPlan plan = planner.plan(Arrays.asList(directorAndActor, directorOnly), 10, 5);
+
+        assertEquals(Arrays.asList(directorAndActor, directorOnly), plan.getPrimary());
+    }
+
+    @Test
+    void isCovered_narrowerThanExhaustedQuery_true() {
+        SearchQueryPlanner.QueryPlan plan = planner.plan(Arrays.asList(directorAndActor, directorOnly), 10, 0);
+
+        plan.markExhausted(directorOnly);
+
+        assertTrue(plan.isCovered(directorAndActor));
+        assertTrue(plan.isCovered(directorOnly));
+        assertFalse(plan.isCovered(actorOnly));
+    }
+
+    @Test
+    void recordResult_rememberedCardinality_isReturned() {
+        assertNull(planner.getKnownCardinality(genreOnly));
+
+        planner.recordResult(genreOnly, 100);
+
+        assertEquals(Integer.valueOf(100), planner.getKnownCardinality(genreOnly));
+    }
+}
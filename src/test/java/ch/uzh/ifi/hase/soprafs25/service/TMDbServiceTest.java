@@ -452,7 +452,7 @@ public class TMDbServiceTest {
                 "  \"genres\": [{\"id\": 28, \"name\": \"Action\"}, {\"id\": 12, \"name\": \"Adventure\"}],\n" +
                 "  \"original_language\": \"en\",\n" +
                 "  \"poster_path\": \"/poster_path.jpg\",\n" +
-                "  \"spoken_languages\": [{\"name\": \"English\"}, {\"name\": \"Spanish\"}],\n" +
+                "  \"spoken_languages\": [{\"english_name\": \"English\", \"iso_639_1\": \"en\", \"name\": \"English\"}, {\"english_name\": \"Spanish\", \"iso_639_1\": \"es\", \"name\": \"Español\"}],\n" +
                 "  \"credits\": {\n" +
                 "    \"cast\": [{\"name\": \"Actor 1\", \"known_for_department\": \"Acting\", \"id\": \"63\", \"popularity\": \"4.8218\"}, {\"name\": \"Actor 2\", \"known_for_department\": \"Acting\", \"id\": \"21\", \"popularity\": \"4.1\"}],\n" +
                 "    \"crew\": [{\"name\": \"Director 1\", \"known_for_department\": \"Directing\", \"id\": \"444\", \"popularity\": \"3.8218\", \"job\": \"Director\"}]\n" +
@@ -502,9 +502,7 @@ public class TMDbServiceTest {
         assertTrue(result.getGenres().contains("Adventure"));
 
         // Assert spoken languages
-        assertEquals(2, result.getSpokenlanguages().size());
-        assertTrue(result.getSpokenlanguages().contains("English"));
-        assertTrue(result.getSpokenlanguages().contains("Spanish"));
+        assertEquals(Arrays.asList("en", "es"), result.getSpokenlanguages());
 
         // Assert actors and directors
         assertTrue(result.getActors().contains("Actor 1"));
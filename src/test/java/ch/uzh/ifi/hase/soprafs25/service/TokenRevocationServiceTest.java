@@ -0,0 +1,88 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ch.uzh.ifi.hase.soprafs25.entity.TokenRevocation;
+import ch.uzh.ifi.hase.soprafs25.repository.TokenRevocationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final long TOKEN_TTL = 24 * TokenRevocationService.BUCKET_SIZE;
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Mock
+    private TokenSigner tokenSigner;
+
+    private TokenRevocationService revocationService;
+
+    private final Long userId = 1L;
+
+    @BeforeEach
+    void setup() {
+        revocationService = new TokenRevocationService(tokenRevocationRepository, tokenSigner, 60000);
+    }
+
+    private TokenRevocation createRevocation(Long revokedUserId, long revokedBefore) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(revokedUserId);
+        revocation.setRevokedBefore(revokedBefore);
+        return revocation;
+    }
+
+    @Test
+    void revoke_coversOnlyTokensIssuedBefore() {
+        long now = System.currentTimeMillis();
+
+        revocationService.revoke(userId, now);
+
+        verify(tokenRevocationRepository).save(any());
+        assertTrue(revocationService.isRevoked(userId, now - 1));
+        assertTrue(revocationService.isRevoked(userId, now - 2 * TokenRevocationService.BUCKET_SIZE));
+        assertFalse(revocationService.isRevoked(userId, now));
+        assertFalse(revocationService.isRevoked(2L, now - 1));
+    }
+
+    @Test
+    void sync_loadsRevocationsOfOtherInstancesAndDropsExpiredBuckets() {
+        long now = System.currentTimeMillis();
+        when(tokenSigner.isEnabled()).thenReturn(true);
+        when(tokenSigner.getTokenTtl()).thenReturn(TOKEN_TTL);
+        when(tokenRevocationRepository.findByRevokedBeforeGreaterThan(anyLong())).thenReturn(Arrays.asList(
+                createRevocation(userId, now - TOKEN_TTL - 2 * TokenRevocationService.BUCKET_SIZE),
+                createRevocation(2L, now)));
+
+        revocationService.sync();
+
+        assertTrue(revocationService.isRevoked(2L, now - 1));
+        // the bucket of the expired revocation is dropped right away
+        assertEquals(1, revocationService.getBucketCount());
+        verify(tokenRevocationRepository).deleteExpired(anyLong());
+    }
+
+    @Test
+    void sync_signingDisabled_doesNothing() {
+        when(tokenSigner.isEnabled()).thenReturn(false);
+
+        revocationService.sync();
+
+        verify(tokenRevocationRepository, never()).findByRevokedBeforeGreaterThan(anyLong());
+        assertEquals(0, revocationService.getBucketCount());
+    }
+}
@@ -0,0 +1,70 @@
+package ch.uzh.ifi.hase.soprafs25.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class TokenSignerTest {
+
+    private static final String OLD_KEY = "k1:c2VjcmV0LW9mLWtleS1vbmUtc2VjcmV0LW9mLWtleS1vbmU=";
+    private static final String NEW_KEY = "k2:c2VjcmV0LW9mLWtleS10d28tc2VjcmV0LW9mLWtleS10d28=";
+
+    @Test
+    void verify_issuedToken_returnsUserAndIssueTime() {
+        TokenSigner signer = new TokenSigner(OLD_KEY, "", 3600);
+        long issuedAt = System.currentTimeMillis();
+
+        String token = signer.issue(7L, issuedAt);
+        TokenSigner.SignedToken signed = signer.verify(token);
+
+        assertTrue(signer.isSigned(token));
+        assertEquals(7L, signed.getUserId());
+        assertEquals(issuedAt, signed.getIssuedAt());
+    }
+
+    @Test
+    void verify_tamperedUserId_throwsUnauthorized() {
+        TokenSigner signer = new TokenSigner(OLD_KEY, "", 3600);
+        String token = signer.issue(7L, System.currentTimeMillis());
+        String tampered = token.replace(".7.", ".8.");
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> signer.verify(tampered));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+    }
+
+    @Test
+    void verify_expiredToken_throwsUnauthorized() {
+        TokenSigner signer = new TokenSigner(OLD_KEY, "", 3600);
+        String token = signer.issue(7L, System.currentTimeMillis() - 3600 * 1000L);
+
+        assertThrows(ResponseStatusException.class, () -> signer.verify(token));
+    }
+
+    @Test
+    void verify_afterRotation_acceptsTokensOfAllConfiguredKeys() {
+        String oldToken = new TokenSigner(OLD_KEY, "", 3600).issue(7L, System.currentTimeMillis());
+        TokenSigner rotated = new TokenSigner(OLD_KEY + "," + NEW_KEY, "k2", 3600);
+        String newToken = rotated.issue(7L, System.currentTimeMillis());
+
+        assertEquals(7L, rotated.verify(oldToken).getUserId());
+        assertEquals(7L, rotated.verify(newToken).getUserId());
+        assertTrue(newToken.startsWith("v1.k2."));
+
+        // once the old key is removed, its tokens are rejected
+        TokenSigner withoutOldKey = new TokenSigner(NEW_KEY, "", 3600);
+        assertThrows(ResponseStatusException.class, () -> withoutOldKey.verify(oldToken));
+    }
+
+    @Test
+    void constructor_noKeys_signingDisabled() {
+        TokenSigner signer = new TokenSigner("", "", 3600);
+
+        assertFalse(signer.isEnabled());
+        assertFalse(signer.isSigned("0b0d6f3e-4c1d-4b7e-9d8e-3f2a1c0b9a87"));
+        assertThrows(IllegalStateException.class, () -> signer.issue(7L, System.currentTimeMillis()));
+    }
+}
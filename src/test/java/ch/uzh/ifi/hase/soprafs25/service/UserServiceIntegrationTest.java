@@ -182,34 +182,6 @@ public class UserServiceIntegrationTest {
     assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
   }
 
-  @Test
-  public void getUserByToken_validToken_returnsUser() {
-    // Setup - create a user
-    User testUser = new User();
-    testUser.setUsername("testUsername");
-    testUser.setPassword("password");
-    testUser.setEmail("test@example.com");
-    User createdUser = userService.createUser(testUser);
-
-    String token = createdUser.getToken();
-
-    // Execute
-    User foundUser = userService.getUserByToken(token);
-
-    // Verify
-    assertNotNull(foundUser);
-    assertEquals("testUsername", foundUser.getUsername());
-  }
-
-  @Test
-  public void getUserByToken_invalidToken_throwsException() {
-    // Attempt to get user with invalid token
-    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
-        () -> userService.getUserByToken("invalidToken"));
-
-    assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
-  }
-
   @Test
   public void isUsernameAvailable_availableUsername_returnsTrue() {
     // Check availability of non-existent username
@@ -11,7 +11,10 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +30,15 @@ public class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private PrincipalCache principalCache;
+
+  @Mock
+  private TokenSigner tokenSigner;
+
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
   @InjectMocks
   private UserService userService;
 
@@ -165,31 +177,6 @@ public class UserServiceTest {
     assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
   }
   
-  @Test
-  public void getUserByToken_validToken_returnsUser() {
-    // Setup
-    testUser.setToken("validToken");
-    when(userRepository.findByToken("validToken")).thenReturn(testUser);
-    
-    // Execute
-    User foundUser = userService.getUserByToken("validToken");
-    
-    // Verify
-    assertEquals(testUser, foundUser);
-  }
-  
-  @Test
-  public void getUserByToken_invalidToken_throwsException() {
-    // Setup
-    when(userRepository.findByToken("invalidToken")).thenReturn(null);
-    
-    // Execute & Verify
-    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
-        () -> userService.getUserByToken("invalidToken"));
-    
-    assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
-  }
-  
   @Test
   public void isUsernameAvailable_availableUsername_returnsTrue() {
     // Setup
@@ -225,4 +212,79 @@ public class UserServiceTest {
     // Execute & Verify
     assertEquals(false, userService.isEmailAvailable("taken@example.com"));
   }
+
+  @Test
+  public void authenticate_cachedToken_skipsRepository() {
+    AuthenticatedUser principal = new AuthenticatedUser(1L);
+    when(principalCache.get("token")).thenReturn(principal);
+
+    assertEquals(principal, userService.authenticate("token"));
+    verify(userRepository, never()).findPrincipalByToken(anyString());
+  }
+
+  @Test
+  public void authenticate_uncachedToken_loadsAndCachesPrincipal() {
+    AuthenticatedUser principal = new AuthenticatedUser(1L);
+    when(userRepository.findPrincipalByToken("token")).thenReturn(principal);
+
+    assertEquals(principal, userService.authenticate("token"));
+    verify(principalCache).put("token", principal);
+  }
+
+  @Test
+  public void authenticate_unknownToken_throwsUnauthorized() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> userService.authenticate("unknown"));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+    verify(principalCache, never()).put(anyString(), any());
+  }
+
+  @Test
+  public void authenticate_signedToken_verifiedWithoutRepository() {
+    when(tokenSigner.isSigned("v1.signed")).thenReturn(true);
+    when(tokenSigner.verify("v1.signed")).thenReturn(new TokenSigner.SignedToken(1L, 1000L));
+
+    assertEquals(1L, userService.authenticate("v1.signed").getUserId());
+    verify(userRepository, never()).findPrincipalByToken(anyString());
+    verify(principalCache, never()).get(anyString());
+  }
+
+  @Test
+  public void authenticate_revokedSignedToken_throwsUnauthorized() {
+    when(tokenSigner.isSigned("v1.signed")).thenReturn(true);
+    when(tokenSigner.verify("v1.signed")).thenReturn(new TokenSigner.SignedToken(1L, 1000L));
+    when(tokenRevocationService.isRevoked(1L, 1000L)).thenReturn(true);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> userService.authenticate("v1.signed"));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+  }
+
+  @Test
+  public void loginUser_signingEnabled_revokesReplacedSignedToken() {
+    testUser.setToken("v1.previous");
+    when(userRepository.findByUsername("testUsername")).thenReturn(testUser);
+    when(tokenSigner.isEnabled()).thenReturn(true);
+    when(tokenSigner.isSigned("v1.previous")).thenReturn(true);
+    when(tokenSigner.issue(eq(1L), anyLong())).thenReturn("v1.next");
+
+    User loggedInUser = userService.loginUser("testUsername", "password");
+
+    assertEquals("v1.next", loggedInUser.getToken());
+    verify(tokenRevocationService).revoke(eq(1L), anyLong());
+  }
+
+  @Test
+  public void logoutUser_signedToken_revokesTokensOfUser() {
+    testUser.setToken("v1.signed");
+    when(userRepository.findByToken("v1.signed")).thenReturn(testUser);
+    when(tokenSigner.isSigned("v1.signed")).thenReturn(true);
+
+    userService.logoutUser("v1.signed");
+
+    verify(tokenRevocationService).revoke(eq(1L), anyLong());
+    assertNull(testUser.getToken());
+  }
 }
@@ -0,0 +1,140 @@
+package ch.uzh.ifi.hase.soprafs25.service.voting;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs25.entity.Group;
+
+class VotingRuleTest {
+
+    // Candidates of the Schulze example on Wikipedia: A=0, B=1, C=2, D=3, E=4
+    private Ballots schulzeExample() {
+        Ballots.Builder builder = Ballots.builder(5);
+        addBallots(builder, 5, 0, 2, 1, 4, 3);
+        addBallots(builder, 5, 0, 3, 4, 2, 1);
+        addBallots(builder, 8, 1, 4, 3, 0, 2);
+        addBallots(builder, 3, 2, 0, 1, 4, 3);
+        addBallots(builder, 7, 2, 0, 4, 1, 3);
+        addBallots(builder, 2, 2, 1, 0, 3, 4);
+        addBallots(builder, 7, 3, 2, 4, 1, 0);
+        addBallots(builder, 8, 4, 1, 0, 3, 2);
+        return builder.build();
+    }
+
+    // Tennessee capital example: Memphis=0, Nashville=1, Chattanooga=2, Knoxville=3 (percent of voters)
+    private Ballots tennesseeExample() {
+        Ballots.Builder builder = Ballots.builder(4);
+        addBallots(builder, 42, 0, 1, 2, 3);
+        addBallots(builder, 26, 1, 2, 3, 0);
+        addBallots(builder, 15, 2, 3, 1, 0);
+        addBallots(builder, 17, 3, 2, 1, 0);
+        return builder.build();
+    }
+
+    private void addBallots(Ballots.Builder builder, int times, int... candidates) {
+        for (int i = 0; i < times; i++) {
+            builder.addBallot(candidates);
+        }
+    }
+
+    // candidate indices ordered by score, best first
+    private int[] order(double[] scores) {
+        return IntStream.range(0, scores.length).boxed()
+                .sorted((a, b) -> Double.compare(scores[a], scores[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Test
+    void pairwisePreferences_truncatedBallot_listedBeatUnlisted() {
+        Ballots ballots = Ballots.builder(3).addBallot(1).build();
+
+        int[] d = ballots.pairwisePreferences();
+
+        // 1 beats 0 and 2, 0 and 2 are not compared
+        assertArrayEquals(new int[] {0, 0, 0, 1, 0, 1, 0, 0, 0}, d);
+    }
+
+    @Test
+    void schulze_wikipediaExample_ordersEACBD() {
+        assertArrayEquals(new int[] {4, 0, 2, 1, 3}, order(new SchulzeRule().score(schulzeExample())));
+    }
+
+    @Test
+    void kemeny_tennesseeExample_ordersNashvilleFirst() {
+        assertArrayEquals(new int[] {1, 2, 3, 0}, order(new KemenyRule().score(tennesseeExample())));
+    }
+
+    @Test
+    void kemeny_largePool_heuristicKeepsConsensusOrder() {
+        int candidates = KemenyRule.MAX_EXACT_CANDIDATES + 8;
+        Ballots.Builder builder = Ballots.builder(candidates);
+        addBallots(builder, 10, 0, 1, 2, 3, 4);
+        addBallots(builder, 3, 1, 0, 2, 3, 4);
+
+        int[] order = order(new KemenyRule().score(builder.build()));
+
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, Arrays.copyOf(order, 5));
+    }
+
+    @Test
+    void instantRunoff_transfersVotesOfEliminatedCandidate() {
+        Ballots.Builder builder = Ballots.builder(3);
+        addBallots(builder, 4, 0);
+        addBallots(builder, 3, 1, 2);
+        addBallots(builder, 2, 2, 1);
+
+        // 2 is eliminated first, its ballots go to 1 which then beats 0 with 5 to 4
+        assertArrayEquals(new int[] {1, 0, 2}, order(new InstantRunoffRule().score(builder.build())));
+    }
+
+    @Test
+    void instantRunoff_tennesseeExample_knoxvilleWins() {
+        assertEquals(3, order(new InstantRunoffRule().score(tennesseeExample()))[0]);
+    }
+
+    @Test
+    void borda_truncatedBallot_unlistedShareRemainingPoints() {
+        Ballots ballots = Ballots.builder(3).addBallot(2).build();
+
+        double[] scores = new BordaRule().score(ballots);
+
+        assertArrayEquals(new double[] {-0.5, -0.5, -2.0}, scores);
+    }
+
+    @Test
+    void votingRules_adjustedAverage_hasNoRule() {
+        assertNull(VotingRules.forMethod(Group.VotingMethod.ADJUSTED_AVERAGE));
+        assertTrue(VotingRules.forMethod(Group.VotingMethod.SCHULZE) instanceof SchulzeRule);
+    }
+
+    // Large groups: hundreds of members ranking 5 movies each out of a pool of hundreds;
+    // the scoring time is measured by the benchmarks in src/jmh
+    @Test
+    void allRules_largeGroup_scoreEveryCandidate() {
+        Random random = new Random(42);
+        int candidates = 400;
+        Ballots.Builder builder = Ballots.builder(candidates);
+        for (int voter = 0; voter < 800; voter++) {
+            Set<Integer> ballot = new LinkedHashSet<>();
+            while (ballot.size() < 5) {
+                ballot.add(random.nextInt(candidates));
+            }
+            builder.addBallot(ballot.stream().mapToInt(Integer::intValue).toArray());
+        }
+        Ballots ballots = builder.build();
+
+        for (VotingRule rule : Arrays.asList(new BordaRule(), new SchulzeRule(), new InstantRunoffRule(), new KemenyRule())) {
+            assertEquals(candidates, rule.score(ballots).length, rule.getClass().getSimpleName());
+        }
+    }
+}